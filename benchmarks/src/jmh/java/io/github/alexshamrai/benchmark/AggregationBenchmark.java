@@ -0,0 +1,67 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.aggregate.Grouping;
+import io.github.alexshamrai.data.aggregate.SalaryStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Salary statistics by department: maintained aggregates, the parallel fallback for an ad-hoc predicate, and
+ * the client-side aggregation over all rows that the aggregation RPCs replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregationBenchmark {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"heap", "columnar"})
+    private String backend;
+
+    private EmployeeRepository repository;
+    private EmployeeFilter all;
+    private EmployeeFilter adHoc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkData.repository(backend, rows);
+        all = EmployeeFilter.builder().build();
+        adHoc = BenchmarkData.filter("wide");
+    }
+
+    @Benchmark
+    public List<SalaryStats> incremental() {
+        return repository.salaryStatistics(all, Grouping.DEPARTMENT, PERCENTILES);
+    }
+
+    @Benchmark
+    public List<SalaryStats> forkJoin() {
+        return repository.salaryStatistics(adHoc, Grouping.DEPARTMENT, PERCENTILES);
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> clientSide() {
+        return repository.getAllEmployees().stream()
+            .collect(Collectors.groupingBy(Employee::getDepartment, Collectors.summarizingDouble(Employee::getSalary)));
+    }
+}
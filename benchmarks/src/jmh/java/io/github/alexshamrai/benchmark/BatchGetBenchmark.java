@@ -0,0 +1,134 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.EmployeeApplication;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.BatchGetEmployeesRequest;
+import io.github.alexshamrai.grpc.BatchGetEmployeesResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching a set of employees by ID over one channel to a real Netty server on localhost: a single
+ * {@code BatchGetEmployees} call against the same number of {@code GetEmployee} calls, issued one after another
+ * and all at once. A share of the IDs is missing, which unary calls answer with a {@code NOT_FOUND} error each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchGetBenchmark {
+
+    private static final int PORT = 16567;
+    private static final int ROWS = 10000;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Param({"10", "100", "1000"})
+    private int ids;
+
+    @Param({"0", "10"})
+    private int missingPercent;
+
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub;
+    private EmployeeServiceGrpc.EmployeeServiceFutureStub futureStub;
+    private BatchGetEmployeesRequest batchRequest;
+    private List<GetEmployeeRequest> unaryRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+            .properties(
+                "grpc.server.port=" + PORT,
+                "grpc.server.address=127.0.0.1",
+                // Compression would weigh on the batch response only.
+                "employee.compression.codec=identity",
+                "spring.main.web-application-type=none",
+                "spring.main.banner-mode=off")
+            .run();
+        channel = ManagedChannelBuilder.forAddress("127.0.0.1", PORT)
+            .usePlaintext()
+            .build();
+        blockingStub = EmployeeServiceGrpc.newBlockingStub(channel);
+        futureStub = EmployeeServiceGrpc.newFutureStub(channel);
+
+        Random random = new Random(42);
+        for (int loaded = 0; loaded < ROWS; loaded += LOAD_BATCH_SIZE) {
+            AddEmployeesRequest.Builder batch = AddEmployeesRequest.newBuilder();
+            for (int i = 0; i < LOAD_BATCH_SIZE; i++) {
+                batch.addEmployees(BenchmarkData.addEmployeeRequest(random, loaded + i));
+            }
+            blockingStub.addEmployees(batch.build());
+        }
+
+        BatchGetEmployeesRequest.Builder batch = BatchGetEmployeesRequest.newBuilder();
+        unaryRequests = new ArrayList<>(ids);
+        for (int i = 0; i < ids; i++) {
+            // IDs past the loaded rows are never assigned.
+            int id = random.nextInt(100) < missingPercent ? Integer.MAX_VALUE - i : 1 + random.nextInt(ROWS);
+            batch.addEmployeeIds(id);
+            unaryRequests.add(GetEmployeeRequest.newBuilder().setEmployeeId(id).build());
+        }
+        batchRequest = batch.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public BatchGetEmployeesResponse batchGet() {
+        return blockingStub.batchGetEmployees(batchRequest);
+    }
+
+    @Benchmark
+    public void unarySequential(Blackhole blackhole) {
+        for (GetEmployeeRequest request : unaryRequests) {
+            try {
+                blackhole.consume(blockingStub.getEmployee(request));
+            } catch (StatusRuntimeException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public void unaryConcurrent(Blackhole blackhole) throws InterruptedException {
+        List<Future<GetEmployeeResponse>> responses = new ArrayList<>(unaryRequests.size());
+        for (GetEmployeeRequest request : unaryRequests) {
+            responses.add(futureStub.getEmployee(request));
+        }
+        for (Future<GetEmployeeResponse> response : responses) {
+            try {
+                blackhole.consume(response.get());
+            } catch (ExecutionException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.store.ColumnarEmployeeStore;
+import io.github.alexshamrai.data.store.EmployeeStore;
+import io.github.alexshamrai.data.store.HeapEmployeeStore;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic employees shared by all benchmarks.
+ */
+public final class BenchmarkData {
+
+    public static final int DEPARTMENTS = 50;
+    public static final int POSITIONS = 200;
+
+    private BenchmarkData() {
+    }
+
+    public static Employee employee(Random random, int index) {
+        return Employee.builder()
+            .name("Employee " + index)
+            .age(18 + random.nextInt(43))
+            .department("Department " + random.nextInt(DEPARTMENTS))
+            .position("Position " + random.nextInt(POSITIONS))
+            .hiringYear(1990 + random.nextInt(35))
+            .salary(1000.0 + random.nextInt(200_000))
+            .build();
+    }
+
+    public static AddEmployeeRequest addEmployeeRequest(Random random, int index) {
+        Employee employee = employee(random, index);
+        return AddEmployeeRequest.newBuilder()
+            .setName(employee.getName())
+            .setAge(employee.getAge())
+            .setDepartment(employee.getDepartment())
+            .setPosition(employee.getPosition())
+            .setHiringYear(employee.getHiringYear())
+            .setSalary(employee.getSalary())
+            .build();
+    }
+
+    public static EmployeeStore store(String backend) {
+        return switch (backend) {
+            case "heap" -> new HeapEmployeeStore();
+            case "columnar" -> new ColumnarEmployeeStore();
+            case "vectorized" -> new ColumnarEmployeeStore(true);
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        };
+    }
+
+    /**
+     * Creates a repository holding {@code rows} synthetic employees in addition to the seeded ones.
+     */
+    public static EmployeeRepository repository(String backend, int rows) {
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), store(backend));
+        Random random = new Random(42);
+        List<Employee> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(employee(random, i));
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        if (!batch.isEmpty()) {
+            repository.saveAll(batch);
+        }
+        return repository;
+    }
+
+    /**
+     * Filters with decreasing selectivity, from a handful of rows to most of the table.
+     */
+    public static EmployeeFilter filter(String selectivity) {
+        return switch (selectivity) {
+            // ~0.01%: one department, one position
+            case "point" -> EmployeeFilter.builder()
+                .department("Department 7")
+                .position("Position 42")
+                .build();
+            // ~2%: one department
+            case "department" -> EmployeeFilter.builder()
+                .department("Department 7")
+                .build();
+            // ~10%: narrow age band
+            case "ageRange" -> EmployeeFilter.builder()
+                .minAge(30)
+                .maxAge(33)
+                .build();
+            // ~50%: salary range plus age bound, no equality criteria
+            case "wide" -> EmployeeFilter.builder()
+                .minSalary(50_000.0)
+                .maxSalary(150_000.0)
+                .maxAge(50)
+                .build();
+            default -> throw new IllegalArgumentException("Unknown selectivity: " + selectivity);
+        };
+    }
+}
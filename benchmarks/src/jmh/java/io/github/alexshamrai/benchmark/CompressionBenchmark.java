@@ -0,0 +1,147 @@
+package io.github.alexshamrai.benchmark;
+
+import com.google.protobuf.Empty;
+import io.github.alexshamrai.EmployeeApplication;
+import io.github.alexshamrai.config.Lz4Codec;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+import io.github.alexshamrai.grpc.AddEmployeeResponse;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientStreamTracer;
+import io.grpc.DecompressorRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of large and small responses with each {@code employee.compression.codec} over a real Netty server on
+ * localhost. Loopback hides the bandwidth saving, so the trial also prints the mean bytes received per call;
+ * together they give the break-even bandwidth at which a codec starts to pay for its CPU time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressionBenchmark {
+
+    private static final int PORT = 16566;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"identity", "gzip", "lz4"})
+    private String codec;
+
+    @Param({"10000"})
+    private int rows;
+
+    private final Map<String, LongAdder[]> wireBytes = new ConcurrentHashMap<>();
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub;
+    private AddEmployeeRequest addRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+            .properties(
+                "grpc.server.port=" + PORT,
+                "grpc.server.address=127.0.0.1",
+                "employee.compression.codec=" + codec,
+                "spring.main.web-application-type=none",
+                "spring.main.banner-mode=off")
+            .run();
+        channel = ManagedChannelBuilder.forAddress("127.0.0.1", PORT)
+            .usePlaintext()
+            .maxInboundMessageSize(Integer.MAX_VALUE)
+            .decompressorRegistry(DecompressorRegistry.getDefaultInstance().with(new Lz4Codec(), true))
+            .intercept(new WireBytesInterceptor())
+            .build();
+        blockingStub = EmployeeServiceGrpc.newBlockingStub(channel);
+
+        Random random = new Random(42);
+        addRequest = BenchmarkData.addEmployeeRequest(random, 0);
+        for (int loaded = 0; loaded < rows; loaded += BATCH_SIZE) {
+            AddEmployeesRequest.Builder batch = AddEmployeesRequest.newBuilder();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.addEmployees(BenchmarkData.addEmployeeRequest(random, loaded + i));
+            }
+            blockingStub.addEmployees(batch.build());
+        }
+        wireBytes.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        wireBytes.forEach((method, counters) -> System.out.printf("%ncodec=%s %s bytes/call=%d%n",
+            codec, method, counters[0].sum() / Math.max(counters[1].sum(), 1)));
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public GetAllEmployeesResponse getAllEmployees() {
+        return blockingStub.getAllEmployees(Empty.getDefaultInstance());
+    }
+
+    @Benchmark
+    public EmployeeListResponse filterEmployees() {
+        return blockingStub.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setMinAge(30)
+            .setMaxAge(40)
+            .build());
+    }
+
+    @Benchmark
+    public AddEmployeeResponse addEmployee() {
+        return blockingStub.addEmployee(addRequest);
+    }
+
+    /**
+     * Counts the compressed bytes of every response, per method.
+     */
+    private final class WireBytesInterceptor implements ClientInterceptor {
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                   CallOptions callOptions, Channel next) {
+            LongAdder[] counters = wireBytes.computeIfAbsent(method.getBareMethodName(),
+                name -> new LongAdder[] {new LongAdder(), new LongAdder()});
+            counters[1].increment();
+            return next.newCall(method, callOptions.withStreamTracerFactory(new ClientStreamTracer.Factory() {
+                @Override
+                public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                    return new ClientStreamTracer() {
+                        @Override
+                        public void inboundWireSize(long bytes) {
+                            counters[0].add(bytes);
+                        }
+                    };
+                }
+            }));
+        }
+    }
+}
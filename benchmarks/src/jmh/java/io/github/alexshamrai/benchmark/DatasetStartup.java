@@ -0,0 +1,98 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.store.EmployeeDataset;
+import io.github.alexshamrai.data.store.EmployeeStore;
+import io.github.alexshamrai.data.store.HeapEmployeeStore;
+import io.github.alexshamrai.data.store.MappedEmployeeStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares startup against a dataset file: {@code mapped} serves it from memory mappings, {@code eager}
+ * decodes every row into objects first. Each mode should run in its own JVM so that RSS is comparable; see
+ * the {@code datasetStartup} Gradle task.
+ * <p>
+ * Usage: {@code write <file> <rows>}, {@code mapped <file>} or {@code eager <file>}.
+ */
+public final class DatasetStartup {
+
+    private DatasetStartup() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mode = args[0];
+        Path path = Path.of(args[1]);
+        if (mode.equals("write")) {
+            write(path, Integer.parseInt(args[2]));
+            return;
+        }
+
+        long start = System.nanoTime();
+        EmployeeStore store = switch (mode) {
+            case "mapped" -> MappedEmployeeStore.open(path);
+            case "eager" -> eager(MappedEmployeeStore.open(path));
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), store);
+        long startupMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Touch a sample of rows the way requests would.
+        Random random = new Random(7);
+        int rows = repository.getAllEmployees().size();
+        for (int i = 0; i < 10_000; i++) {
+            repository.getAllEmployees().get(random.nextInt(rows)).getName();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("mode=%s rows=%d startupMs=%d heapMiB=%d rssMiB=%d%n", mode, rows, startupMillis,
+            (runtime.totalMemory() - runtime.freeMemory()) >> 20, rssKib() >> 10);
+    }
+
+    private static void write(Path path, int rows) throws IOException {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            employees.add(BenchmarkData.employee(random, i).toBuilder().id(i + 1).build());
+        }
+        EmployeeDataset.write(path, employees);
+    }
+
+    /**
+     * Decodes every dataset row into a heap store, as a row-by-row loader would.
+     */
+    private static EmployeeStore eager(MappedEmployeeStore dataset) {
+        int rows = dataset.loadedRows();
+        HeapEmployeeStore store = new HeapEmployeeStore() {
+            @Override
+            public int loadedRows() {
+                return rows;
+            }
+        };
+        for (int row = 0; row < rows; row++) {
+            store.write(row, dataset.read(row));
+        }
+        return store;
+    }
+
+    private static long rssKib() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+}
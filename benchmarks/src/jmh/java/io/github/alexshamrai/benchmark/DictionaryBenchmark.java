@@ -0,0 +1,75 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.store.EmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans for one department and position over millions of rows: {@code String.equals} on every stored
+ * employee against the store's matcher, which compares dictionary codes. Heap per row with and without
+ * shared dictionary strings is reported by {@code gradle :benchmarks:footprint -PfootprintRows=5000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DictionaryBenchmark {
+
+    @Param({"1000000", "5000000"})
+    private int rows;
+
+    @Param({"heap", "columnar"})
+    private String backend;
+
+    private EmployeeStore store;
+    private EmployeeFilter filter;
+    private String department;
+    private String position;
+    private int[] selection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = BenchmarkData.store(backend);
+        Random random = new Random(42);
+        for (int row = 0; row < rows; row++) {
+            store.write(row, BenchmarkData.employee(random, row).toBuilder().id(row + 1).build());
+        }
+
+        // Fresh instances, as parsed from a request, so equals cannot short-cut on identity.
+        department = new String("Department 7");
+        position = new String("Position 12");
+        filter = EmployeeFilter.builder()
+            .department(department)
+            .position(position)
+            .build();
+        selection = new int[rows];
+    }
+
+    @Benchmark
+    public int stringEquality() {
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            Employee employee = store.read(row);
+            if (department.equals(employee.getDepartment()) && position.equals(employee.getPosition())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int codeEquality() {
+        return store.matcher(filter).select(0, rows, selection);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the planner-driven {@link EmployeeRepository#filter} with the original full scan that evaluates the
+ * predicate chain on every row, across dataset sizes, selectivities and storage backends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"point", "department", "ageRange", "wide"})
+    private String selectivity;
+
+    @Param({"heap", "columnar"})
+    private String backend;
+
+    private EmployeeRepository repository;
+    private EmployeeFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkData.repository(backend, rows);
+        filter = BenchmarkData.filter(selectivity);
+    }
+
+    @Benchmark
+    public List<Employee> indexed() {
+        return repository.filter(filter);
+    }
+
+    @Benchmark
+    public List<Employee> fullScan() {
+        return repository.getAllEmployees().stream()
+            .filter(filter::matches)
+            .toList();
+    }
+}
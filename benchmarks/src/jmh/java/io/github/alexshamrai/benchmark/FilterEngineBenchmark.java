@@ -0,0 +1,96 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unindexed range filters on age and salary: the original per-row lambda that re-checks {@code request.hasX()},
+ * the compiled predicate, and the repository's parallel scan on each backend. Running with {@code -PvectorApi}
+ * adds the Vector API scan of the columnar store as the {@code vectorized} backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterEngineBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"heap", "columnar"})
+    private String backend;
+
+    private EmployeeRepository repository;
+    private EmployeeFilterRequest request;
+    private EmployeeFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkData.repository(backend, rows);
+
+        request = EmployeeFilterRequest.newBuilder()
+            .setMinAge(30)
+            .setMaxAge(45)
+            .setMinSalary(40_000)
+            .setMaxSalary(120_000)
+            .build();
+        filter = EmployeeFilter.builder()
+            .minAge(30)
+            .maxAge(45)
+            .minSalary(40_000.0)
+            .maxSalary(120_000.0)
+            .build();
+    }
+
+    @Benchmark
+    public List<Employee> lambda() {
+        return repository.getAllEmployees().stream()
+            .filter(employee -> {
+                if (request.hasHiringYear() && employee.getHiringYear() != request.getHiringYear()) {
+                    return false;
+                }
+                if (request.hasDepartment() && !employee.getDepartment().equals(request.getDepartment())) {
+                    return false;
+                }
+                if (request.hasMinAge() && employee.getAge() < request.getMinAge()) {
+                    return false;
+                }
+                if (request.hasMaxAge() && employee.getAge() > request.getMaxAge()) {
+                    return false;
+                }
+                if (request.hasPosition() && !employee.getPosition().equals(request.getPosition())) {
+                    return false;
+                }
+                if (request.hasMinSalary() && employee.getSalary() < request.getMinSalary()) {
+                    return false;
+                }
+                return !request.hasMaxSalary() || employee.getSalary() <= request.getMaxSalary();
+            })
+            .toList();
+    }
+
+    @Benchmark
+    public List<Employee> compiled() {
+        return repository.getAllEmployees().stream()
+            .filter(filter.compile())
+            .toList();
+    }
+
+    @Benchmark
+    public List<Employee> engine() {
+        return repository.filter(filter);
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.alexshamrai.benchmark;
+
+import com.google.protobuf.Empty;
+import io.github.alexshamrai.EmployeeApplication;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+import io.github.alexshamrai.grpc.AddEmployeeResponse;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.AddEmployeesResponse;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesRequest;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.github.alexshamrai.grpc.GetDepartmentsResponse;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end RPC latency through the real Spring context, served by grpc-java's in-process transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GrpcRoundTripBenchmark {
+
+    private static final String SERVER_NAME = "employee-benchmark";
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1000", "50000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub;
+    private EmployeeServiceGrpc.EmployeeServiceStub asyncStub;
+    private List<AddEmployeeRequest> addRequests;
+    private AddEmployeesRequest batchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+            .properties(
+                "grpc.server.port=-1",
+                "grpc.server.in-process-name=" + SERVER_NAME,
+                "spring.main.banner-mode=off")
+            .run();
+        channel = InProcessChannelBuilder.forName(SERVER_NAME)
+            .maxInboundMessageSize(Integer.MAX_VALUE)
+            .build();
+        blockingStub = EmployeeServiceGrpc.newBlockingStub(channel);
+        asyncStub = EmployeeServiceGrpc.newStub(channel);
+
+        Random random = new Random(42);
+        addRequests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            addRequests.add(BenchmarkData.addEmployeeRequest(random, i));
+        }
+        batchRequest = AddEmployeesRequest.newBuilder()
+            .addAllEmployees(addRequests)
+            .build();
+
+        for (int loaded = 0; loaded < rows; loaded += BATCH_SIZE) {
+            blockingStub.addEmployees(batchRequest);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public GetEmployeeResponse getEmployee() {
+        return blockingStub.getEmployee(GetEmployeeRequest.newBuilder()
+            .setEmployeeId(1 + ThreadLocalRandom.current().nextInt(rows))
+            .build());
+    }
+
+    @Benchmark
+    public GetAllEmployeesResponse getAllEmployees() {
+        return blockingStub.getAllEmployees(Empty.getDefaultInstance());
+    }
+
+    @Benchmark
+    public GetAllEmployeesResponse listEmployeesFirstPage() {
+        return blockingStub.listEmployees(GetAllEmployeesRequest.newBuilder()
+            .setPageSize(50)
+            .build());
+    }
+
+    @Benchmark
+    public EmployeeListResponse filterEmployees() {
+        return blockingStub.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setDepartment("Department 7")
+            .setMinAge(30)
+            .build());
+    }
+
+    @Benchmark
+    public GetDepartmentsResponse getDepartments() {
+        return blockingStub.getDepartments(Empty.getDefaultInstance());
+    }
+
+    @Benchmark
+    public void streamAllEmployees(Blackhole blackhole) {
+        blockingStub.streamAllEmployees(Empty.getDefaultInstance()).forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addEmployeeUnary(Blackhole blackhole) {
+        for (AddEmployeeRequest request : addRequests) {
+            AddEmployeeResponse response = blockingStub.addEmployee(request);
+            blackhole.consume(response);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public AddEmployeesResponse addEmployeesBatch() {
+        return blockingStub.addEmployees(batchRequest);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public AddEmployeesResponse ingestEmployees() throws Exception {
+        CompletableFuture<AddEmployeesResponse> result = new CompletableFuture<>();
+        StreamObserver<AddEmployeeRequest> requests = asyncStub.ingestEmployees(new StreamObserver<>() {
+            @Override
+            public void onNext(AddEmployeesResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        addRequests.forEach(requests::onNext);
+        requests.onCompleted();
+        return result.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.persistence.FileEmployeeJournal;
+import io.github.alexshamrai.data.store.HeapEmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Save throughput and latency with the journal enabled, per fsync policy. Eight writer threads let group commit
+ * share fsyncs under {@code always}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class JournalBenchmark {
+
+    @Param({"always", "interval", "none"})
+    private String fsync;
+
+    private Path directory;
+    private FileEmployeeJournal journal;
+    private EmployeeRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("employee-journal");
+        journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.valueOf(fsync.toUpperCase()),
+            Duration.ofMillis(10));
+        repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Employee save() {
+        Random random = ThreadLocalRandom.current();
+        return repository.save(BenchmarkData.employee(random, random.nextInt(1_000_000)));
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
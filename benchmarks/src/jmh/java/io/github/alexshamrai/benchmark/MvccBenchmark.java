@@ -0,0 +1,89 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency while one thread keeps updating random employees, against the same reads with no writer. Readers
+ * never lock, so the difference is the cost of skipping superseded row versions and of sharing caches with the
+ * writer; versions are reclaimed after every iteration, as the reclaimer would.
+ * <p>
+ * {@code lookup} reads one employee by ID; {@code filter} reads a page of one department, which checks every
+ * candidate row for visibility.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MvccBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"lookup", "filter"})
+    private String read;
+
+    private EmployeeRepository repository;
+    private EmployeeFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkData.repository("heap", rows);
+        filter = BenchmarkData.filter("department");
+    }
+
+    @TearDown(Level.Iteration)
+    public void reclaim() {
+        repository.reclaimVersions(Duration.ZERO);
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(8)
+    public Object readWithoutWriter() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWithUpdates")
+    @GroupThreads(7)
+    public Object readWithWriter() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWithUpdates")
+    @GroupThreads(1)
+    public Object update() {
+        Random random = ThreadLocalRandom.current();
+        int id = 1 + random.nextInt(rows);
+        Employee updated = BenchmarkData.employee(random, id).toBuilder().id(id).build();
+        return repository.update(updated, 0);
+    }
+
+    private Object read() {
+        Random random = ThreadLocalRandom.current();
+        return switch (read) {
+            case "lookup" -> repository.findById(1 + random.nextInt(rows));
+            case "filter" -> repository.findPage(filter, 0, 100);
+            default -> throw new IllegalArgumentException("Unknown read: " + read);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.alexshamrai.benchmark;
+
+import com.google.protobuf.FieldMask;
+import io.github.alexshamrai.EmployeeApplication;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesRequest;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of list responses with and without a {@code read_mask} over a real Netty server on localhost, so that
+ * both building and serializing the employees are measured. The trial prints the serialized size of each
+ * response, giving the bytes saved per response alongside the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+    private static final int PORT = 16568;
+    private static final int ROWS = 10000;
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Comma-separated {@code Employee} fields; empty requests every field.
+     */
+    @Param({"", "id,name,department"})
+    private String readMask;
+
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub;
+    private GetAllEmployeesRequest listRequest;
+    private EmployeeFilterRequest filterRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+            .properties(
+                "grpc.server.port=" + PORT,
+                "grpc.server.address=127.0.0.1",
+                "employee.compression.codec=identity",
+                "spring.main.web-application-type=none",
+                "spring.main.banner-mode=off")
+            .run();
+        channel = ManagedChannelBuilder.forAddress("127.0.0.1", PORT)
+            .usePlaintext()
+            .maxInboundMessageSize(Integer.MAX_VALUE)
+            .build();
+        blockingStub = EmployeeServiceGrpc.newBlockingStub(channel);
+
+        Random random = new Random(42);
+        for (int loaded = 0; loaded < ROWS; loaded += BATCH_SIZE) {
+            AddEmployeesRequest.Builder batch = AddEmployeesRequest.newBuilder();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.addEmployees(BenchmarkData.addEmployeeRequest(random, loaded + i));
+            }
+            blockingStub.addEmployees(batch.build());
+        }
+
+        FieldMask.Builder mask = FieldMask.newBuilder();
+        Arrays.stream(readMask.split(","))
+            .filter(path -> !path.isEmpty())
+            .forEach(mask::addPaths);
+        listRequest = GetAllEmployeesRequest.newBuilder()
+            .setPageSize(BATCH_SIZE)
+            .setReadMask(mask)
+            .build();
+        filterRequest = EmployeeFilterRequest.newBuilder()
+            .setMinAge(30)
+            .setMaxAge(40)
+            .setReadMask(mask)
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        System.out.printf("%nreadMask=[%s] listEmployees bytes=%d filterEmployees bytes=%d%n", readMask,
+            listEmployees().getSerializedSize(), filterEmployees().getSerializedSize());
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public GetAllEmployeesResponse listEmployees() {
+        return blockingStub.listEmployees(listRequest);
+    }
+
+    @Benchmark
+    public EmployeeListResponse filterEmployees() {
+        return blockingStub.filterEmployees(filterRequest);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.persistence.FileEmployeeJournal;
+import io.github.alexshamrai.data.store.ColumnarEmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup recovery time: a snapshot of {@code rows} employees plus a log tail of 10% more. Large row counts
+ * need a matching heap, e.g. {@code -Xmx16g} for 50M rows on the columnar store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class RecoveryBenchmark {
+
+    @Param({"1000000", "10000000", "50000000"})
+    private int rows;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("employee-recovery");
+        try (FileEmployeeJournal journal = journal()) {
+            EmployeeRepository repository =
+                new EmployeeRepository(new SequenceIdAllocator(), new ColumnarEmployeeStore(), journal);
+            Random random = new Random(42);
+            save(repository, random, rows);
+            repository.snapshot();
+            save(repository, random, rows / 10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        JournalBenchmark.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int recover() {
+        try (FileEmployeeJournal journal = journal()) {
+            return new EmployeeRepository(new SequenceIdAllocator(), new ColumnarEmployeeStore(), journal)
+                .getAllEmployees()
+                .size();
+        }
+    }
+
+    private FileEmployeeJournal journal() {
+        return new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.NONE, Duration.ZERO);
+    }
+
+    private static void save(EmployeeRepository repository, Random random, int count) {
+        List<Employee> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            batch.add(BenchmarkData.employee(random, i));
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        if (!batch.isEmpty()) {
+            repository.saveAll(batch);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"heap", "columnar"})
+    private String backend;
+
+    private EmployeeRepository repository;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkData.repository(backend, rows);
+        random = new Random(7);
+    }
+
+    @Benchmark
+    public Object findById() {
+        return repository.findById(1 + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public Employee save() {
+        return repository.save(BenchmarkData.employee(random, rows));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void getAllEmployees(Blackhole blackhole) {
+        List<Employee> employees = repository.getAllEmployees();
+        for (int i = 0; i < employees.size(); i++) {
+            blackhole.consume(employees.get(i));
+        }
+    }
+}
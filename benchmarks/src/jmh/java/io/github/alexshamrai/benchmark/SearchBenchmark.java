@@ -0,0 +1,113 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeePage;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-20 name search through the trigram index against the client-side alternative it replaces: walking every
+ * employee and matching names until 20 are found. Names are built from syllables so that trigram frequencies
+ * resemble real names; the time to build the index on the first search is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "an", "ber", "ca", "dor", "el", "fin", "ga", "han", "is", "jo", "ka", "lin", "ma", "nor", "ol",
+        "pe", "quin", "ra", "sen", "ta", "ul", "ver", "wil", "xa", "yo", "zel", "mar", "son", "ley", "rik"
+    };
+    private static final EmployeeFilter ALL = EmployeeFilter.builder().build();
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000", "5000000"})
+    private int rows;
+
+    /**
+     * {@code prefix}: the start of a first name; {@code substring}: part of a last name; {@code absent}: no name
+     * matches, the worst case for a scan; {@code short}: a two-character substring, which the index cannot serve.
+     */
+    @Param({"prefix", "substring", "absent", "short"})
+    private String query;
+
+    private EmployeeRepository repository;
+    private String text;
+    private boolean prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new EmployeeRepository(new SequenceIdAllocator(), BenchmarkData.store("heap"));
+        Random random = new Random(42);
+        List<Employee> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(BenchmarkData.employee(random, i).toBuilder()
+                .name(name(random, 2) + " " + name(random, 3))
+                .build());
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        repository.saveAll(batch);
+
+        String sample = repository.findById(rows / 2).orElseThrow().getName();
+        String lastName = sample.substring(sample.indexOf(' ') + 1);
+        prefix = query.equals("prefix");
+        text = switch (query) {
+            case "prefix" -> sample.substring(0, 4);
+            case "substring" -> lastName.substring(1, 6);
+            case "absent" -> "qqq";
+            case "short" -> "ol";
+            default -> throw new IllegalArgumentException("Unknown query: " + query);
+        };
+
+        long start = System.nanoTime();
+        repository.search(text, prefix, ALL, 0, PAGE_SIZE, () -> false);
+        System.out.printf("%nrows=%d name index built in %d ms%n", rows,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public EmployeePage indexed() {
+        return repository.search(text, prefix, ALL, 0, PAGE_SIZE, () -> false);
+    }
+
+    @Benchmark
+    public List<Employee> fullScan() {
+        String normalized = text.toLowerCase(Locale.ROOT);
+        return repository.getAllEmployees().stream()
+            .filter(employee -> {
+                String name = employee.getName().toLowerCase(Locale.ROOT);
+                return prefix ? name.startsWith(normalized) : name.contains(normalized);
+            })
+            .limit(PAGE_SIZE)
+            .toList();
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
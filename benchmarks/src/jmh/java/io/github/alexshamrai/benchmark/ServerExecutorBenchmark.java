@@ -0,0 +1,81 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.EmployeeApplication;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency distribution of each {@code employee.server.executor} mode over a real Netty
+ * server on localhost, with 32 concurrent callers. Sample-time mode reports p50 through p99.99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class ServerExecutorBenchmark {
+
+    private static final int PORT = 16565;
+
+    @Param({"default", "virtual", "bounded", "direct"})
+    private String executor;
+
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+            .properties(
+                "grpc.server.port=" + PORT,
+                "grpc.server.address=127.0.0.1",
+                "employee.server.executor=" + executor,
+                "spring.main.banner-mode=off")
+            .run();
+        channel = ManagedChannelBuilder.forAddress("127.0.0.1", PORT)
+            .usePlaintext()
+            .build();
+        blockingStub = EmployeeServiceGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public GetEmployeeResponse getEmployee() {
+        return blockingStub.getEmployee(GetEmployeeRequest.newBuilder()
+            .setEmployeeId(1 + ThreadLocalRandom.current().nextInt(4))
+            .build());
+    }
+
+    @Benchmark
+    public EmployeeListResponse filterEmployees() {
+        return blockingStub.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setMinAge(18)
+            .build());
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.alexshamrai.benchmark;
+
+import io.github.alexshamrai.data.EmployeeRepository;
+
+/**
+ * Reports retained heap per row for each store backend. Run with {@code gradle :benchmarks:footprint}.
+ */
+public final class StoreFootprint {
+
+    private StoreFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (String backend : new String[] {"heap", "columnar"}) {
+            long before = usedHeap();
+            EmployeeRepository repository = BenchmarkData.repository(backend, rows);
+            long after = usedHeap();
+            System.out.printf("%-8s rows=%d heap=%d MiB bytes/row=%.1f%n",
+                backend, rows, (after - before) >> 20, (double) (after - before) / rows);
+            // Keep the repository reachable until the measurement is taken.
+            if (repository.getAllEmployees().isEmpty()) {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.benchmark.BenchmarkData;
+import io.github.alexshamrai.data.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a {@code data.Employee} into its protobuf message, with and without encoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private Employee employee;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employee = BenchmarkData.employee(new Random(42), 1).toBuilder().id(12345).build();
+    }
+
+    @Benchmark
+    public io.github.alexshamrai.grpc.Employee build() {
+        return EmployeeMessageCache.toGrpcEmployee(employee);
+    }
+
+    @Benchmark
+    public byte[] buildAndEncode() {
+        return EmployeeMessageCache.toGrpcEmployee(employee).toByteArray();
+    }
+}
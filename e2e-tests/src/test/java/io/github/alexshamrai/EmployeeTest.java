@@ -1,25 +1,56 @@
 package io.github.alexshamrai;
 
 import com.google.protobuf.Empty;
+import com.google.protobuf.FieldMask;
 import io.github.alexshamrai.data.Employee;
 import io.github.alexshamrai.grpc.AddEmployeeRequest;
 import io.github.alexshamrai.grpc.AddEmployeeResponse;
+import io.github.alexshamrai.grpc.AddEmployeeResult;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.AddEmployeesResponse;
+import io.github.alexshamrai.grpc.BatchGetEmployeesRequest;
+import io.github.alexshamrai.grpc.BatchGetEmployeesResponse;
+import io.github.alexshamrai.grpc.DeleteEmployeeRequest;
 import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.EmployeeEvent;
 import io.github.alexshamrai.grpc.EmployeeFilterRequest;
 import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesRequest;
 import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
 import io.github.alexshamrai.grpc.GetDepartmentsResponse;
 import io.github.alexshamrai.grpc.GetEmployeeRequest;
 import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.github.alexshamrai.grpc.GroupBy;
+import io.github.alexshamrai.grpc.HistogramBucket;
+import io.github.alexshamrai.grpc.HistogramField;
+import io.github.alexshamrai.grpc.HistogramRequest;
+import io.github.alexshamrai.grpc.HistogramResponse;
+import io.github.alexshamrai.grpc.SalaryStatistics;
+import io.github.alexshamrai.grpc.SalaryStatisticsRequest;
+import io.github.alexshamrai.grpc.SalaryStatisticsResponse;
+import io.github.alexshamrai.grpc.SearchEmployeesRequest;
+import io.github.alexshamrai.grpc.SearchMode;
+import io.github.alexshamrai.grpc.UpdateEmployeeRequest;
+import io.github.alexshamrai.grpc.UpdateEmployeeResponse;
+import io.github.alexshamrai.grpc.WatchEmployeesRequest;
+import io.grpc.Context;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -162,6 +193,77 @@ public class EmployeeTest extends BaseTest {
         assertEquals("NOT_FOUND: Employee with ID -1 not found", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Get employee with read mask")
+    public void getEmployeeWithReadMaskTest() {
+        io.github.alexshamrai.grpc.Employee stored = blockingStub.getAllEmployees(Empty.getDefaultInstance()).getEmployees(0);
+        GetEmployeeRequest request = GetEmployeeRequest.newBuilder()
+            .setEmployeeId(stored.getId())
+            .setReadMask(FieldMask.newBuilder()
+                .addPaths("id")
+                .addPaths("name")
+                .addPaths("department"))
+            .build();
+
+        GetEmployeeResponse response = blockingStub.getEmployee(request);
+
+        assertEquals(io.github.alexshamrai.grpc.Employee.newBuilder()
+            .setId(stored.getId())
+            .setName(stored.getName())
+            .setDepartment(stored.getDepartment())
+            .build(), response.getEmployee());
+    }
+
+    @Test
+    @DisplayName("List employees with unknown read mask field")
+    public void listEmployeesWithUnknownReadMaskFieldTest() {
+        GetAllEmployeesRequest request = GetAllEmployeesRequest.newBuilder()
+            .setReadMask(FieldMask.newBuilder().addPaths("email"))
+            .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.listEmployees(request));
+        assertEquals("INVALID_ARGUMENT: Unknown field in read_mask: email", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Batch get employees with missing IDs")
+    public void batchGetEmployeesTest() {
+        GetAllEmployeesResponse all = blockingStub.getAllEmployees(Empty.getDefaultInstance());
+        int first = all.getEmployees(0).getId();
+        int second = all.getEmployees(1).getId();
+
+        BatchGetEmployeesResponse response = blockingStub.batchGetEmployees(BatchGetEmployeesRequest.newBuilder()
+            .addEmployeeIds(second)
+            .addEmployeeIds(-1)
+            .addEmployeeIds(first)
+            .addEmployeeIds(-2)
+            .build());
+
+        assertEquals(List.of(all.getEmployees(1), all.getEmployees(0)), response.getEmployeesList());
+        assertEquals(List.of(-1, -2), response.getMissingEmployeeIdsList());
+    }
+
+    @Test
+    @DisplayName("Search employees by name prefix and substring")
+    public void searchEmployeesTest() {
+        EmployeeListResponse prefix = blockingStub.searchEmployees(SearchEmployeesRequest.newBuilder()
+            .setQuery("jOh")
+            .setMode(SearchMode.SEARCH_MODE_PREFIX)
+            .build());
+        assertTrue(prefix.getEmployeesList().stream().anyMatch(employee -> employee.getName().equals("John Doe")));
+        prefix.getEmployeesList().forEach(employee -> assertTrue(employee.getName().toLowerCase().startsWith("joh")));
+
+        EmployeeListResponse substring = blockingStub.searchEmployees(SearchEmployeesRequest.newBuilder()
+            .setQuery("SMIT")
+            .setFilter(EmployeeFilterRequest.newBuilder().setDepartment("HR"))
+            .build());
+        assertTrue(substring.getEmployeesList().stream().anyMatch(employee -> employee.getName().equals("Jane Smith")));
+        substring.getEmployeesList().forEach(employee -> {
+            assertTrue(employee.getName().toLowerCase().contains("smit"));
+            assertEquals("HR", employee.getDepartment());
+        });
+    }
+
     @Test
     @DisplayName("Get departments")
     public void getDepartmentsTest() {
@@ -258,4 +360,378 @@ public class EmployeeTest extends BaseTest {
             assertEquals(position, employee.getPosition());
         });
     }
+
+    @Test
+    @DisplayName("Stream all employees")
+    public void streamAllEmployeesTest() {
+        GetAllEmployeesResponse response = blockingStub.getAllEmployees(Empty.getDefaultInstance());
+
+        List<io.github.alexshamrai.grpc.Employee> streamed = new ArrayList<>();
+        blockingStub.streamAllEmployees(Empty.getDefaultInstance()).forEachRemaining(streamed::add);
+
+        assertTrue(streamed.size() >= response.getEmployeesCount());
+        assertTrue(streamed.containsAll(response.getEmployeesList()));
+    }
+
+    @Test
+    @DisplayName("Stream filtered employees")
+    public void streamFilteredEmployeesTest() {
+        EmployeeFilterRequest request = EmployeeFilterRequest.newBuilder()
+            .setDepartment("IT")
+            .build();
+
+        List<io.github.alexshamrai.grpc.Employee> streamed = new ArrayList<>();
+        blockingStub.streamFilteredEmployees(request).forEachRemaining(streamed::add);
+
+        assertFalse(streamed.isEmpty());
+        streamed.forEach(employee -> assertEquals("IT", employee.getDepartment()));
+    }
+
+    @Test
+    @DisplayName("List employees page by page")
+    public void listEmployeesPagedTest() {
+        GetAllEmployeesResponse all = blockingStub.getAllEmployees(Empty.getDefaultInstance());
+
+        List<io.github.alexshamrai.grpc.Employee> paged = new ArrayList<>();
+        String pageToken = "";
+        do {
+            GetAllEmployeesResponse page = blockingStub.listEmployees(GetAllEmployeesRequest.newBuilder()
+                .setPageSize(2)
+                .setPageToken(pageToken)
+                .build());
+            assertTrue(page.getEmployeesCount() <= 2);
+            paged.addAll(page.getEmployeesList());
+            pageToken = page.getNextPageToken();
+        } while (!pageToken.isEmpty());
+
+        assertTrue(paged.size() >= all.getEmployeesCount());
+        assertTrue(paged.containsAll(all.getEmployeesList()));
+    }
+
+    @Test
+    @DisplayName("Filter employees with page size")
+    public void filterEmployeesWithPageSizeTest() {
+        EmployeeFilterRequest request = EmployeeFilterRequest.newBuilder()
+            .setPageSize(1)
+            .build();
+
+        EmployeeListResponse response = blockingStub.filterEmployees(request);
+
+        assertEquals(1, response.getEmployeesCount());
+        assertFalse(response.getNextPageToken().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Filter employees with invalid page token")
+    public void filterEmployeesWithInvalidPageTokenTest() {
+        EmployeeFilterRequest request = EmployeeFilterRequest.newBuilder()
+            .setPageToken("not-a-token")
+            .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.filterEmployees(request));
+        assertEquals("INVALID_ARGUMENT: Invalid page token", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Filter employees with a page token issued for another request")
+    public void filterEmployeesWithOtherRequestPageTokenTest() {
+        String pageToken = blockingStub.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setPageSize(1)
+            .build()).getNextPageToken();
+
+        EmployeeFilterRequest otherFilter = EmployeeFilterRequest.newBuilder()
+            .setDepartment("IT")
+            .setPageSize(1)
+            .setPageToken(pageToken)
+            .build();
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.filterEmployees(otherFilter));
+        assertEquals("INVALID_ARGUMENT: Page token was issued for a different request", exception.getMessage());
+
+        GetAllEmployeesRequest otherMethod = GetAllEmployeesRequest.newBuilder()
+            .setPageSize(1)
+            .setPageToken(pageToken)
+            .build();
+        exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.listEmployees(otherMethod));
+        assertEquals("INVALID_ARGUMENT: Page token was issued for a different request", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Add employees in a batch")
+    public void addEmployeesBatchTest() {
+        AddEmployeesRequest request = AddEmployeesRequest.newBuilder()
+            .addEmployees(AddEmployeeRequest.newBuilder()
+                .setName("Batch One")
+                .setAge(30)
+                .setDepartment("IT")
+                .setPosition("Developer")
+                .setHiringYear(2024)
+                .setSalary(3000.0))
+            .addEmployees(AddEmployeeRequest.newBuilder()
+                .setName("Batch Invalid")
+                .setAge(17)
+                .setDepartment("IT")
+                .setPosition("Intern")
+                .setHiringYear(2024)
+                .setSalary(1000.0))
+            .build();
+
+        AddEmployeesResponse response = blockingStub.addEmployees(request);
+
+        assertEquals(2, response.getResultsCount());
+        GetEmployeeResponse saved = blockingStub.getEmployee(GetEmployeeRequest.newBuilder()
+            .setEmployeeId(response.getResults(0).getEmployeeId())
+            .build());
+        assertEquals("Batch One", saved.getEmployee().getName());
+        assertEquals("Employee age must be between 18 and 60", response.getResults(1).getError());
+    }
+
+    @Test
+    @DisplayName("Ingest employees over a client stream")
+    public void ingestEmployeesTest() throws Exception {
+        CompletableFuture<AddEmployeesResponse> result = new CompletableFuture<>();
+        StreamObserver<AddEmployeeRequest> requests = EmployeeServiceGrpc.newStub(channel)
+            .ingestEmployees(new StreamObserver<>() {
+                @Override
+                public void onNext(AddEmployeesResponse response) {
+                    result.complete(response);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    result.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            });
+
+        int count = 2_500;
+        for (int i = 0; i < count; i++) {
+            requests.onNext(AddEmployeeRequest.newBuilder()
+                .setName("Ingested " + i)
+                .setAge(20 + i % 40)
+                .setDepartment("Ingest")
+                .setPosition("Operator")
+                .setHiringYear(2024)
+                .setSalary(i == 0 ? -1.0 : 2000.0)
+                .build());
+        }
+        requests.onCompleted();
+
+        AddEmployeesResponse response = result.get(30, TimeUnit.SECONDS);
+        assertEquals(count, response.getResultsCount());
+        assertEquals("Employee salary must be greater than 0", response.getResults(0).getError());
+        assertEquals(count - 1, response.getResultsList().stream()
+            .filter(AddEmployeeResult::hasEmployeeId)
+            .count());
+    }
+
+    @Test
+    @DisplayName("Get salary statistics grouped by department")
+    public void getSalaryStatisticsTest() {
+        List<io.github.alexshamrai.grpc.Employee> hr = blockingStub.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setDepartment("HR")
+            .build()).getEmployeesList();
+
+        SalaryStatisticsResponse response = blockingStub.getSalaryStatistics(SalaryStatisticsRequest.newBuilder()
+            .setGroupBy(GroupBy.GROUP_BY_DEPARTMENT)
+            .addPercentiles(0.5)
+            .build());
+
+        SalaryStatistics statistics = response.getGroupsList().stream()
+            .filter(group -> group.getGroup().equals("HR"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(hr.size(), statistics.getCount());
+        assertEquals(hr.stream().mapToDouble(io.github.alexshamrai.grpc.Employee::getSalary).sum(), statistics.getSum(), 0.001);
+        assertEquals(statistics.getSum() / statistics.getCount(), statistics.getMean(), 0.001);
+        assertTrue(statistics.getMin() <= statistics.getPercentiles(0) && statistics.getPercentiles(0) <= statistics.getMax());
+    }
+
+    @Test
+    @DisplayName("Get age histogram of a filtered subset")
+    public void getAgeHistogramTest() {
+        EmployeeFilterRequest filter = EmployeeFilterRequest.newBuilder()
+            .setMinAge(25)
+            .setMaxAge(32)
+            .build();
+        int matching = blockingStub.filterEmployees(filter).getEmployeesCount();
+
+        HistogramResponse response = blockingStub.getHistogram(HistogramRequest.newBuilder()
+            .setField(HistogramField.HISTOGRAM_FIELD_AGE)
+            .setBucketWidth(10)
+            .setFilter(filter)
+            .build());
+
+        assertEquals(List.of(20.0, 30.0), response.getBucketsList().stream().map(HistogramBucket::getLowerBound).toList());
+        assertEquals(matching, response.getBucketsList().stream().mapToLong(HistogramBucket::getCount).sum());
+    }
+
+    @Test
+    @DisplayName("Get histogram with invalid bucket width")
+    public void getHistogramWithInvalidBucketWidthTest() {
+        HistogramRequest request = HistogramRequest.newBuilder()
+            .setField(HistogramField.HISTOGRAM_FIELD_SALARY)
+            .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.getHistogram(request));
+        assertEquals("INVALID_ARGUMENT: Bucket width must be greater than 0", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Watch employees and resume from a sequence")
+    public void watchEmployeesTest() throws Exception {
+        EmployeeEvent added = watchAddedEmployee();
+        assertEquals("Watched Hire", added.getEmployee().getName());
+
+        try (Context.CancellableContext resume = Context.current().withCancellation()) {
+            BlockingQueue<EmployeeEvent> events = resume.call(() -> watchEmployees(added.getSequence(), added.getEpoch()));
+            assertEquals(added, events.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Watch employees from an unassigned sequence")
+    public void watchEmployeesFromFutureSequenceTest() throws Exception {
+        WatchEmployeesRequest request = WatchEmployeesRequest.newBuilder()
+            .setFromSequence(Long.MAX_VALUE)
+            .setEpoch(watchAddedEmployee().getEpoch())
+            .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+            () -> blockingStub.watchEmployees(request).hasNext());
+        assertEquals("INVALID_ARGUMENT: Sequence " + Long.MAX_VALUE + " has not been assigned yet", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Watch employees from a sequence of another epoch")
+    public void watchEmployeesFromOtherEpochTest() throws Exception {
+        EmployeeEvent added = watchAddedEmployee();
+        WatchEmployeesRequest request = WatchEmployeesRequest.newBuilder()
+            .setFromSequence(added.getSequence())
+            .setEpoch(added.getEpoch() + 1)
+            .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+            () -> blockingStub.watchEmployees(request).hasNext());
+        assertEquals("OUT_OF_RANGE: Epoch " + (added.getEpoch() + 1) + " is not the current one", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Update employee with expected version")
+    public void updateEmployeeTest() {
+        AddEmployeeRequest employee = AddEmployeeRequest.newBuilder()
+            .setName("Ruth Baker")
+            .setAge(29)
+            .setDepartment("IT")
+            .setPosition("Developer")
+            .setHiringYear(2021)
+            .setSalary(2500.0)
+            .build();
+        int id = blockingStub.addEmployee(employee).getEmployeeId();
+        long version = blockingStub.getEmployee(GetEmployeeRequest.newBuilder()
+            .setEmployeeId(id)
+            .build()).getEmployee().getVersion();
+
+        UpdateEmployeeResponse updated = blockingStub.updateEmployee(UpdateEmployeeRequest.newBuilder()
+            .setEmployeeId(id)
+            .setEmployee(employee.toBuilder().setPosition("Team Lead").setSalary(3500.0))
+            .setExpectedVersion(version)
+            .build());
+        assertEquals("Team Lead", updated.getEmployee().getPosition());
+        assertTrue(updated.getEmployee().getVersion() > version);
+        assertEquals(updated.getEmployee(), blockingStub.getEmployee(GetEmployeeRequest.newBuilder()
+            .setEmployeeId(id)
+            .build()).getEmployee());
+
+        UpdateEmployeeRequest stale = UpdateEmployeeRequest.newBuilder()
+            .setEmployeeId(id)
+            .setEmployee(employee)
+            .setExpectedVersion(version)
+            .build();
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.updateEmployee(stale));
+        assertEquals("ABORTED: Employee " + id + " is at version " + updated.getEmployee().getVersion()
+            + ", not " + version, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Delete employee")
+    public void deleteEmployeeTest() {
+        int id = blockingStub.addEmployee(AddEmployeeRequest.newBuilder()
+            .setName("Owen Hart")
+            .setAge(45)
+            .setDepartment("HR")
+            .setPosition("Recruiter")
+            .setHiringYear(2015)
+            .setSalary(1800.0)
+            .build()).getEmployeeId();
+        DeleteEmployeeRequest request = DeleteEmployeeRequest.newBuilder()
+            .setEmployeeId(id)
+            .build();
+
+        blockingStub.deleteEmployee(request);
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+            () -> blockingStub.getEmployee(GetEmployeeRequest.newBuilder().setEmployeeId(id).build()));
+        assertEquals("NOT_FOUND: Employee with ID " + id + " not found", exception.getMessage());
+        assertFalse(blockingStub.getAllEmployees(Empty.getDefaultInstance()).getEmployeesList().stream()
+            .anyMatch(employee -> employee.getId() == id));
+
+        exception = assertThrows(StatusRuntimeException.class, () -> blockingStub.deleteEmployee(request));
+        assertEquals("NOT_FOUND: Employee with ID " + id + " not found", exception.getMessage());
+    }
+
+    /**
+     * Adds an employee while watching and returns its event.
+     */
+    private EmployeeEvent watchAddedEmployee() throws Exception {
+        AddEmployeeRequest request = AddEmployeeRequest.newBuilder()
+            .setName("Watched Hire")
+            .setAge(27)
+            .setDepartment("IT")
+            .setPosition("Developer")
+            .setHiringYear(2024)
+            .setSalary(2500.0)
+            .build();
+
+        EmployeeEvent added = null;
+        try (Context.CancellableContext watch = Context.current().withCancellation()) {
+            BlockingQueue<EmployeeEvent> events = watch.call(() -> watchEmployees(0, 0));
+            // The watch may start after the first save, so save until one is seen.
+            for (int attempt = 0; attempt < 10 && added == null; attempt++) {
+                int employeeId = blockingStub.addEmployee(request).getEmployeeId();
+                EmployeeEvent event;
+                while (added == null && (event = events.poll(1, TimeUnit.SECONDS)) != null) {
+                    if (event.getEmployee().getId() == employeeId) {
+                        added = event;
+                    }
+                }
+            }
+        }
+        assertNotNull(added);
+        return added;
+    }
+
+    private BlockingQueue<EmployeeEvent> watchEmployees(long fromSequence, long epoch) {
+        BlockingQueue<EmployeeEvent> events = new LinkedBlockingQueue<>();
+        EmployeeServiceGrpc.newStub(channel).watchEmployees(WatchEmployeesRequest.newBuilder()
+            .setFromSequence(fromSequence)
+            .setEpoch(epoch)
+            .build(), new StreamObserver<>() {
+                @Override
+                public void onNext(EmployeeEvent event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            });
+        return events;
+    }
 }
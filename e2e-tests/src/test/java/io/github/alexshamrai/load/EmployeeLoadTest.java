@@ -0,0 +1,37 @@
+package io.github.alexshamrai.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load test against a running server. Run with {@code gradle :e2e-tests:loadTest}, passing settings
+ * as {@code -Pload.rate=5000} and so on; see {@link LoadSettings}.
+ */
+public class EmployeeLoadTest {
+
+    @Test
+    @DisplayName("Latency percentiles stay within limits at a fixed arrival rate")
+    @EnabledIfSystemProperty(named = "load", matches = "true")
+    public void openLoopLoadTest() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        LoadReport report;
+        try (OpenLoopDriver driver = new OpenLoopDriver(settings)) {
+            report = driver.run(driver.preload());
+        }
+
+        report.print(System.out);
+        report.write(settings.output());
+
+        LoadReport.Result total = report.total();
+        assertTrue(total.errorRatio() <= settings.maxErrorRatio(), "Error ratio " + total.errorRatio());
+        if (settings.maxP99Ms() > 0) {
+            assertTrue(total.percentileMillis(99) <= settings.maxP99Ms(), "p99 " + total.percentileMillis(99) + "ms");
+        }
+        if (settings.maxP999Ms() > 0) {
+            assertTrue(total.percentileMillis(99.9) <= settings.maxP999Ms(), "p99.9 " + total.percentileMillis(99.9) + "ms");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.alexshamrai.load;
+
+import com.google.protobuf.Empty;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesRequest;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * RPCs the load test can mix, named after their methods in {@code employee.proto}.
+ */
+public enum LoadOperation {
+
+    GET_EMPLOYEE("GetEmployee") {
+        @Override
+        void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion) {
+            stub.getEmployee(GetEmployeeRequest.newBuilder()
+                .setEmployeeId(employeeIds[random.nextInt(employeeIds.length)])
+                .build(), completion.observer());
+        }
+    },
+    FILTER_EMPLOYEES("FilterEmployees") {
+        @Override
+        void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion) {
+            stub.filterEmployees(EmployeeFilterRequest.newBuilder()
+                .setDepartment(department(random))
+                .setMinAge(18 + random.nextInt(30))
+                .setPageSize(100)
+                .build(), completion.observer());
+        }
+    },
+    ADD_EMPLOYEE("AddEmployee") {
+        @Override
+        void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion) {
+            stub.addEmployee(newEmployee(random), completion.observer());
+        }
+    },
+    LIST_EMPLOYEES("ListEmployees") {
+        @Override
+        void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion) {
+            stub.listEmployees(GetAllEmployeesRequest.newBuilder()
+                .setPageSize(100)
+                .build(), completion.observer());
+        }
+    },
+    GET_DEPARTMENTS("GetDepartments") {
+        @Override
+        void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion) {
+            stub.getDepartments(Empty.getDefaultInstance(), completion.observer());
+        }
+    };
+
+    private static final int DEPARTMENTS = 20;
+
+    private final String rpcName;
+
+    LoadOperation(String rpcName) {
+        this.rpcName = rpcName;
+    }
+
+    public String rpcName() {
+        return rpcName;
+    }
+
+    public static LoadOperation fromRpcName(String rpcName) {
+        return Arrays.stream(values())
+            .filter(operation -> operation.rpcName.equals(rpcName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown load operation: " + rpcName));
+    }
+
+    /**
+     * Starts one asynchronous call that reports its outcome to the completion.
+     *
+     * @param stub        The stub of the channel to use.
+     * @param employeeIds IDs of employees known to exist.
+     * @param random      Source of request parameters, confined to the calling thread.
+     * @param completion  Receives the outcome of the call.
+     */
+    abstract void start(EmployeeServiceGrpc.EmployeeServiceStub stub, int[] employeeIds, Random random, Completion completion);
+
+    static AddEmployeeRequest newEmployee(Random random) {
+        return AddEmployeeRequest.newBuilder()
+            .setName("Load Employee " + random.nextInt(1_000_000))
+            .setAge(18 + random.nextInt(43))
+            .setDepartment(department(random))
+            .setPosition("Load Position " + random.nextInt(50))
+            .setHiringYear(2000 + random.nextInt(25))
+            .setSalary(1000.0 + random.nextInt(200_000))
+            .build();
+    }
+
+    private static String department(Random random) {
+        return "Load Department " + random.nextInt(DEPARTMENTS);
+    }
+
+    /**
+     * Outcome of one call.
+     */
+    interface Completion {
+
+        void completed(boolean ok);
+
+        default <T> StreamObserver<T> observer() {
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(T value) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    completed(false);
+                }
+
+                @Override
+                public void onCompleted() {
+                    completed(true);
+                }
+            };
+        }
+    }
+}
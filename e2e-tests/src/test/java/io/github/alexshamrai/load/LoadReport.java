@@ -0,0 +1,121 @@
+package io.github.alexshamrai.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Latency distribution and error count per RPC of one load-test run.
+ */
+public final class LoadReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LoadSettings settings;
+    private final Map<LoadOperation, Result> results;
+    private final Result total;
+
+    LoadReport(LoadSettings settings, Map<LoadOperation, Result> results) {
+        this.settings = settings;
+        this.results = results;
+
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Result result : results.values()) {
+            all.add(result.latencies());
+            allErrors += result.errors();
+        }
+        this.total = new Result(all, allErrors);
+    }
+
+    /**
+     * @return The combined result of every RPC.
+     */
+    public Result total() {
+        return total;
+    }
+
+    /**
+     * Prints the percentile distribution of every RPC in milliseconds.
+     */
+    public void print(PrintStream out) {
+        results.forEach((operation, result) -> {
+            out.printf(Locale.ROOT, "%n%s: %d ok, %d errors%n", operation.rpcName(), result.latencies().getTotalCount(),
+                result.errors());
+            result.latencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+        });
+        out.printf(Locale.ROOT, "%nall: %.0f req/s, p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms, error ratio %.5f%n",
+            total.count() / (settings.duration().toNanos() / 1e9), total.percentileMillis(50),
+            total.percentileMillis(99), total.percentileMillis(99.9), total.maxMillis(), total.errorRatio());
+    }
+
+    /**
+     * Writes {@code results.json} with the settings and the summary per RPC, and one {@code <rpc>.hgrm}
+     * percentile distribution per RPC for plotting.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        StringJoiner operations = new StringJoiner(",\n", "{\n", "\n  }");
+        for (Map.Entry<LoadOperation, Result> entry : results.entrySet()) {
+            operations.add("    \"" + entry.getKey().rpcName() + "\": " + entry.getValue().toJson());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().rpcName() + ".hgrm")))) {
+                entry.getValue().latencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+
+        String mix = settings.mix().entrySet().stream()
+            .map(entry -> "\"" + entry.getKey().rpcName() + "\": " + entry.getValue())
+            .reduce((left, right) -> left + ", " + right)
+            .orElse("");
+        String json = String.format(Locale.ROOT, """
+            {
+              "rate": %d,
+              "durationSeconds": %d,
+              "channels": %d,
+              "concurrency": %d,
+              "mix": {%s},
+              "total": %s,
+              "operations": %s
+            }
+            """, settings.rate(), settings.duration().toSeconds(), settings.channels(), settings.concurrency(), mix,
+            total.toJson(), operations);
+        Files.writeString(directory.resolve("results.json"), json);
+    }
+
+    /**
+     * @param latencies Latencies of successful calls in nanoseconds, measured from their due time.
+     * @param errors    Number of failed calls.
+     */
+    public record Result(Histogram latencies, long errors) {
+
+        public long count() {
+            return latencies.getTotalCount() + errors;
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+        }
+
+        public double maxMillis() {
+            return latencies.getMaxValue() / NANOS_PER_MILLI;
+        }
+
+        public double errorRatio() {
+            return count() == 0 ? 0 : (double) errors / count();
+        }
+
+        private String toJson() {
+            return String.format(Locale.ROOT,
+                "{\"count\": %d, \"errors\": %d, \"p50Ms\": %.3f, \"p90Ms\": %.3f, \"p99Ms\": %.3f, "
+                    + "\"p999Ms\": %.3f, \"maxMs\": %.3f}",
+                count(), errors, percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                percentileMillis(99.9), maxMillis());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.alexshamrai.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test settings, read from {@code load.*} system properties.
+ * <ul>
+ *     <li>{@code load.host}, {@code load.port} - server address, localhost:6565 by default</li>
+ *     <li>{@code load.rate} - requests started per second, independent of how fast responses arrive</li>
+ *     <li>{@code load.warmup}, {@code load.duration} - e.g. {@code 10s}, {@code 2m}; warmup results are discarded</li>
+ *     <li>{@code load.mix} - weighted RPC mix, e.g. {@code GetEmployee=80,FilterEmployees=15,AddEmployee=5}</li>
+ *     <li>{@code load.channels} - number of channels, and so of HTTP/2 connections, requests are spread over</li>
+ *     <li>{@code load.concurrency} - maximum requests in flight; later requests wait, and the wait counts as latency</li>
+ *     <li>{@code load.employees} - employees added before the run for {@code GetEmployee} to look up</li>
+ *     <li>{@code load.maxP99Ms}, {@code load.maxP999Ms}, {@code load.maxErrorRatio} - limits the run must meet</li>
+ *     <li>{@code load.output} - directory for the JSON summary and per-RPC histogram logs</li>
+ * </ul>
+ */
+public record LoadSettings(
+    String host,
+    int port,
+    int rate,
+    Duration warmup,
+    Duration duration,
+    Map<LoadOperation, Integer> mix,
+    int channels,
+    int concurrency,
+    int employees,
+    double maxP99Ms,
+    double maxP999Ms,
+    double maxErrorRatio,
+    Path output) {
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+            System.getProperty("load.host", "localhost"),
+            Integer.getInteger("load.port", 6565),
+            Integer.getInteger("load.rate", 1000),
+            duration(System.getProperty("load.warmup", "10s")),
+            duration(System.getProperty("load.duration", "30s")),
+            mix(System.getProperty("load.mix", "GetEmployee=80,FilterEmployees=15,AddEmployee=5")),
+            Integer.getInteger("load.channels", 4),
+            Integer.getInteger("load.concurrency", 1000),
+            Integer.getInteger("load.employees", 10_000),
+            Double.parseDouble(System.getProperty("load.maxP99Ms", "0")),
+            Double.parseDouble(System.getProperty("load.maxP999Ms", "0")),
+            Double.parseDouble(System.getProperty("load.maxErrorRatio", "0.001")),
+            Path.of(System.getProperty("load.output", "build/load-test")));
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value);
+    }
+
+    private static Map<LoadOperation, Integer> mix(String value) {
+        Map<LoadOperation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(LoadOperation.fromRpcName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+}
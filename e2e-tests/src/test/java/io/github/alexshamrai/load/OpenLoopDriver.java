@@ -0,0 +1,148 @@
+package io.github.alexshamrai.load;
+
+import io.github.alexshamrai.grpc.AddEmployeeResult;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate, whatever the server's response time.
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}, and its latency is measured from that due time, not
+ * from when it was actually sent. A stalled server therefore shows up as latency of every request that should
+ * have been sent during the stall, instead of the stall silently lowering the request rate; this avoids the
+ * coordinated omission of closed-loop clients that wait for each response before sending the next request.
+ */
+public final class OpenLoopDriver implements AutoCloseable {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int PRELOAD_BATCH_SIZE = 1000;
+
+    private final LoadSettings settings;
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final List<EmployeeServiceGrpc.EmployeeServiceStub> stubs = new ArrayList<>();
+    private final Map<LoadOperation, Recorder> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private final Semaphore inFlight;
+
+    public OpenLoopDriver(LoadSettings settings) {
+        this.settings = settings;
+        this.inFlight = new Semaphore(settings.concurrency());
+        for (int i = 0; i < settings.channels(); i++) {
+            ManagedChannel channel = ManagedChannelBuilder.forAddress(settings.host(), settings.port())
+                .usePlaintext()
+                .build();
+            channels.add(channel);
+            stubs.add(EmployeeServiceGrpc.newStub(channel));
+        }
+        for (LoadOperation operation : settings.mix().keySet()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Adds the employees that {@code GetEmployee} requests look up.
+     *
+     * @return IDs of the added employees.
+     */
+    public int[] preload() {
+        EmployeeServiceGrpc.EmployeeServiceBlockingStub blockingStub = EmployeeServiceGrpc.newBlockingStub(channels.get(0));
+        Random random = new Random(42);
+        List<Integer> ids = new ArrayList<>(settings.employees());
+        while (ids.size() < settings.employees()) {
+            AddEmployeesRequest.Builder batch = AddEmployeesRequest.newBuilder();
+            for (int i = 0; i < Math.min(PRELOAD_BATCH_SIZE, settings.employees() - ids.size()); i++) {
+                batch.addEmployees(LoadOperation.newEmployee(random));
+            }
+            for (AddEmployeeResult result : blockingStub.addEmployees(batch.build()).getResultsList()) {
+                ids.add(result.getEmployeeId());
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Runs the warmup and the measured period, then waits for outstanding responses.
+     *
+     * @param employeeIds IDs returned by {@link #preload()}.
+     * @return Latencies and errors of the requests due in the measured period.
+     */
+    public LoadReport run(int[] employeeIds) throws InterruptedException {
+        LoadOperation[] schedule = schedule(settings.mix());
+        Random random = new Random(7);
+        long rate = settings.rate();
+        long warmupRequests = rate * settings.warmup().toNanos() / NANOS_PER_SECOND;
+        long totalRequests = warmupRequests + rate * settings.duration().toNanos() / NANOS_PER_SECOND;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+
+        for (long i = 0; i < totalRequests; i++) {
+            long due = start + i * NANOS_PER_SECOND / rate;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            inFlight.acquire();
+            boolean measured = i >= warmupRequests;
+            LoadOperation operation = schedule[random.nextInt(schedule.length)];
+            operation.start(stubs.get((int) (i % stubs.size())), employeeIds, random,
+                ok -> complete(operation, due, measured, ok));
+        }
+
+        if (!inFlight.tryAcquire(settings.concurrency(), 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Responses still outstanding a minute after the last request");
+        }
+        inFlight.release(settings.concurrency());
+
+        Map<LoadOperation, LoadReport.Result> results = new EnumMap<>(LoadOperation.class);
+        latencies.forEach((operation, recorder) ->
+            results.put(operation, new LoadReport.Result(recorder.getIntervalHistogram(), errors.get(operation).sum())));
+        return new LoadReport(settings, results);
+    }
+
+    private void complete(LoadOperation operation, long due, boolean measured, boolean ok) {
+        long latency = System.nanoTime() - due;
+        inFlight.release();
+        if (!measured) {
+            return;
+        }
+        if (ok) {
+            latencies.get(operation).recordValue(latency);
+        } else {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Expands the weights into a table where each operation occupies as many slots as its weight.
+     */
+    private static LoadOperation[] schedule(Map<LoadOperation, Integer> mix) {
+        List<LoadOperation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(LoadOperation[]::new);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (ManagedChannel channel : channels) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
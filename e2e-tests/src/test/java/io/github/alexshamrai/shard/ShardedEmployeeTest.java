@@ -0,0 +1,130 @@
+package io.github.alexshamrai.shard;
+
+import io.github.alexshamrai.client.ShardedEmployeeClient;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.Employee;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Routing and scatter-gather against a sharded deployment on localhost. Start one server per shard, e.g. for
+ * three shards
+ * <pre>
+ * gradle :employee-service:bootRun --args='--grpc.server.port=6566 --server.port=8092
+ *     --employee.sharding.shards=3 --employee.sharding.shard-index=0'
+ * </pre>
+ * and likewise with ports 6567/8093 for shard 1 and 6568/8094 for shard 2, then run
+ * {@code gradle :e2e-tests:shardedTest -Pshards=6566,6567,6568} with the gRPC ports in shard order.
+ */
+@EnabledIfSystemProperty(named = "shards", matches = ".+")
+public class ShardedEmployeeTest {
+
+    private static List<ManagedChannel> channels;
+    private static ShardedEmployeeClient client;
+
+    @BeforeAll
+    public static void init() {
+        channels = Arrays.stream(System.getProperty("shards").split(","))
+            .map(port -> ManagedChannelBuilder.forAddress("localhost", Integer.parseInt(port.trim()))
+                .usePlaintext()
+                .build())
+            .toList();
+        client = new ShardedEmployeeClient(channels);
+    }
+
+    @AfterAll
+    public static void close() {
+        channels.forEach(ManagedChannel::shutdownNow);
+    }
+
+    @Test
+    @DisplayName("Employees are added to and found on the shard owning their ID")
+    public void routeByIdTest() {
+        String department = "Sharded " + UUID.randomUUID();
+        List<Integer> ids = addEmployees(department, 30);
+
+        for (int id : ids) {
+            GetEmployeeRequest request = GetEmployeeRequest.newBuilder()
+                .setEmployeeId(id)
+                .build();
+            assertEquals(department, client.getEmployee(request).getEmployee().getDepartment());
+
+            for (int shard = 0; shard < channels.size(); shard++) {
+                EmployeeServiceGrpc.EmployeeServiceBlockingStub stub = EmployeeServiceGrpc.newBlockingStub(channels.get(shard));
+                if (shard == client.shardOf(id)) {
+                    assertEquals(id, stub.getEmployee(request).getEmployee().getId());
+                } else {
+                    StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> stub.getEmployee(request));
+                    assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Filter merges the matches of every shard by version")
+    public void scatterFilterTest() {
+        String department = "Sharded " + UUID.randomUUID();
+        List<Integer> ids = addEmployees(department, 50);
+
+        Iterator<Employee> employees = client.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setDepartment(department)
+            .setPageSize(7)
+            .build());
+        List<Employee> found = new ArrayList<>();
+        employees.forEachRemaining(found::add);
+
+        assertEquals(ids.stream().sorted().toList(), found.stream().map(Employee::getId).sorted().toList());
+        assertEquals(found.stream().sorted(Comparator.comparingLong(Employee::getVersion)).toList(), found);
+    }
+
+    @Test
+    @DisplayName("Departments of every shard are listed once")
+    public void gatherDepartmentsTest() {
+        String department = "Sharded " + UUID.randomUUID();
+        addEmployees(department, 20);
+
+        List<String> departments = client.getDepartments().getDepartmentsList().stream()
+            .map(Department::getDepartmentName)
+            .toList();
+
+        assertEquals(1, departments.stream().filter(department::equals).count());
+        assertEquals(departments.size(), departments.stream().distinct().count());
+    }
+
+    private static List<Integer> addEmployees(String department, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(client.addEmployee(AddEmployeeRequest.newBuilder()
+                .setName("Employee " + i)
+                .setAge(30)
+                .setDepartment(department)
+                .setPosition("Engineer")
+                .setHiringYear(2024)
+                .setSalary(1000.0)
+                .build()).getEmployeeId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.alexshamrai.client;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of iterators that are each sorted by a comparator. Only the head of every source is held, and a
+ * source is advanced only when its head is taken, so sources that produce lazily are merged as they stream.
+ *
+ * @param <T> Element type.
+ */
+final class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Source<T>> heads;
+
+    /**
+     * @param sources    Iterators sorted by {@code comparator}. Elements that compare equal are taken from the
+     *                   earlier source first.
+     * @param comparator The order of the sources and of the merged result.
+     */
+    MergingIterator(List<? extends Iterator<T>> sources, Comparator<? super T> comparator) {
+        Comparator<Source<T>> byHead = Comparator.comparing(Source::head, comparator);
+        heads = new PriorityQueue<>(Math.max(1, sources.size()), byHead.thenComparingInt(Source::index));
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<T> source = sources.get(i);
+            if (source.hasNext()) {
+                heads.add(new Source<>(i, source, source.next()));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Source<T> source = heads.poll();
+        if (source == null) {
+            throw new NoSuchElementException();
+        }
+        if (source.iterator().hasNext()) {
+            heads.add(new Source<>(source.index(), source.iterator(), source.iterator().next()));
+        }
+        return source.head();
+    }
+
+    private record Source<T>(int index, Iterator<T> iterator, T head) {
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.alexshamrai.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.Empty;
+import io.github.alexshamrai.data.id.ShardRing;
+import io.github.alexshamrai.grpc.AddEmployeeRequest;
+import io.github.alexshamrai.grpc.AddEmployeeResponse;
+import io.github.alexshamrai.grpc.DeleteEmployeeRequest;
+import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.Employee;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetDepartmentsResponse;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.github.alexshamrai.grpc.UpdateEmployeeRequest;
+import io.github.alexshamrai.grpc.UpdateEmployeeResponse;
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client of a sharded deployment, in which every service instance keeps the employees whose IDs the
+ * {@link ShardRing} assigns to it.
+ * <p>
+ * Calls about one employee go to the shard owning its ID. New employees go to the shard owning a random point of
+ * the ring, so they spread in proportion to the ring's shares; that shard assigns an ID it owns. Calls about all
+ * employees are sent to every shard in parallel and their results combined.
+ * <p>
+ * Shards must be listed in the order of their {@code employee.sharding.shard-index}, and the client must use the
+ * same virtual nodes as the servers. The client does not own the channels. It is safe for concurrent use.
+ */
+public class ShardedEmployeeClient {
+
+    private static final int DEFAULT_SCATTER_PAGE_SIZE = 1000;
+    private static final String VERSION_FIELD = "version";
+    private static final Comparator<Employee> BY_VERSION = Comparator.comparingLong(Employee::getVersion);
+
+    private final ShardRing ring;
+    private final List<EmployeeServiceGrpc.EmployeeServiceBlockingStub> blockingStubs;
+    private final List<EmployeeServiceGrpc.EmployeeServiceFutureStub> futureStubs;
+
+    public ShardedEmployeeClient(List<? extends Channel> shards) {
+        this(shards, ShardRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param shards       Channels to the shards, by shard index.
+     * @param virtualNodes Ring points per shard, as configured on the servers.
+     */
+    public ShardedEmployeeClient(List<? extends Channel> shards, int virtualNodes) {
+        this.ring = new ShardRing(shards.size(), virtualNodes);
+        this.blockingStubs = shards.stream().map(EmployeeServiceGrpc::newBlockingStub).toList();
+        this.futureStubs = shards.stream().map(EmployeeServiceGrpc::newFutureStub).toList();
+    }
+
+    /**
+     * @return Index of the shard that owns the employee ID.
+     */
+    public int shardOf(int employeeId) {
+        return ring.shardOf(employeeId);
+    }
+
+    public GetEmployeeResponse getEmployee(GetEmployeeRequest request) {
+        return blockingStubs.get(ring.shardOf(request.getEmployeeId())).getEmployee(request);
+    }
+
+    public AddEmployeeResponse addEmployee(AddEmployeeRequest request) {
+        int shard = ring.shardOf(ThreadLocalRandom.current().nextInt());
+        return blockingStubs.get(shard).addEmployee(request);
+    }
+
+    public UpdateEmployeeResponse updateEmployee(UpdateEmployeeRequest request) {
+        return blockingStubs.get(ring.shardOf(request.getEmployeeId())).updateEmployee(request);
+    }
+
+    public Empty deleteEmployee(DeleteEmployeeRequest request) {
+        return blockingStubs.get(ring.shardOf(request.getEmployeeId())).deleteEmployee(request);
+    }
+
+    /**
+     * Filters the employees of every shard. Each shard is paged through with {@code FilterEmployees}, fetching its
+     * next page while the current one is merged, and the pages are merged as they arrive, so at most two pages per
+     * shard are held at a time.
+     * <p>
+     * Each shard returns its matches in storage order, which is ascending version order: an update moves the
+     * employee to the end with a new version, and IDs follow no order once allocated in blocks. The pages are
+     * merged by version, which keeps every shard's order. Versions of different shards are unrelated, so the
+     * merged order between shards only follows how far into each shard's storage a match is. A read mask that
+     * leaves out the version still has it fetched, for the merge, and cleared from the result.
+     *
+     * @param request The filter. Its page size is the size of the pages fetched from each shard, 0 for a default;
+     *                its page token must be empty.
+     * @return Iterator over the matches of all shards. It throws {@link StatusRuntimeException} if a shard fails.
+     */
+    public Iterator<Employee> filterEmployees(EmployeeFilterRequest request) {
+        if (!request.getPageToken().isEmpty()) {
+            throw new IllegalArgumentException("Page tokens are per shard and cannot be passed to a sharded filter");
+        }
+        EmployeeFilterRequest.Builder pageRequest = request.toBuilder();
+        if (request.getPageSize() == 0) {
+            pageRequest.setPageSize(DEFAULT_SCATTER_PAGE_SIZE);
+        }
+        boolean versionMasked = request.getReadMask().getPathsCount() > 0
+            && !request.getReadMask().getPathsList().contains(VERSION_FIELD);
+        if (versionMasked) {
+            pageRequest.getReadMaskBuilder().addPaths(VERSION_FIELD);
+        }
+
+        List<ShardPages> shards = new ArrayList<>(futureStubs.size());
+        for (EmployeeServiceGrpc.EmployeeServiceFutureStub stub : futureStubs) {
+            shards.add(new ShardPages(stub, pageRequest.build()));
+        }
+        Iterator<Employee> merged = new MergingIterator<>(shards, BY_VERSION);
+        if (!versionMasked) {
+            return merged;
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return merged.hasNext();
+            }
+
+            @Override
+            public Employee next() {
+                return merged.next().toBuilder().clearVersion().build();
+            }
+        };
+    }
+
+    /**
+     * Lists the departments of every shard, asking all shards in parallel.
+     *
+     * @return Distinct departments, ordered by the first shard listing them and then as that shard lists them.
+     */
+    public GetDepartmentsResponse getDepartments() {
+        List<ListenableFuture<GetDepartmentsResponse>> responses = new ArrayList<>(futureStubs.size());
+        for (EmployeeServiceGrpc.EmployeeServiceFutureStub stub : futureStubs) {
+            responses.add(stub.getDepartments(Empty.getDefaultInstance()));
+        }
+
+        Set<String> departments = new LinkedHashSet<>();
+        for (ListenableFuture<GetDepartmentsResponse> response : responses) {
+            for (Department department : await(response).getDepartmentsList()) {
+                departments.add(department.getDepartmentName());
+            }
+        }
+
+        GetDepartmentsResponse.Builder merged = GetDepartmentsResponse.newBuilder();
+        for (String department : departments) {
+            merged.addDepartments(Department.newBuilder().setDepartmentName(department));
+        }
+        return merged.build();
+    }
+
+    /**
+     * Waits for a call, rethrowing its failure as it would surface from a blocking stub.
+     */
+    private static <T> T await(ListenableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED
+                .withDescription("Interrupted while waiting for a shard")
+                .withCause(e)
+                .asRuntimeException();
+        } catch (ExecutionException e) {
+            throw Status.fromThrowable(e.getCause()).asRuntimeException();
+        }
+    }
+
+    /**
+     * The matches of one shard, page by page. The first page is requested on construction and every following
+     * page as soon as the previous one arrives.
+     */
+    private static final class ShardPages implements Iterator<Employee> {
+
+        private final EmployeeServiceGrpc.EmployeeServiceFutureStub stub;
+        private final EmployeeFilterRequest request;
+        private ListenableFuture<EmployeeListResponse> nextPage;
+        private List<Employee> page = List.of();
+        private int position;
+
+        private ShardPages(EmployeeServiceGrpc.EmployeeServiceFutureStub stub, EmployeeFilterRequest request) {
+            this.stub = stub;
+            this.request = request;
+            this.nextPage = stub.filterEmployees(request);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position == page.size()) {
+                if (nextPage == null) {
+                    return false;
+                }
+                EmployeeListResponse response = await(nextPage);
+                page = response.getEmployeesList();
+                position = 0;
+                nextPage = response.getNextPageToken().isEmpty()
+                    ? null
+                    : stub.filterEmployees(request.toBuilder().setPageToken(response.getNextPageToken()).build());
+            }
+            return true;
+        }
+
+        @Override
+        public Employee next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(position++);
+        }
+    }
+}
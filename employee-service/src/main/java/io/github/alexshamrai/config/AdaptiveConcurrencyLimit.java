@@ -0,0 +1,132 @@
+package io.github.alexshamrai.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Gradient concurrency limit of one method.
+ * <p>
+ * The limit follows the ratio between the unloaded and the recent latency of answered calls. The unloaded
+ * latency is the lowest seen over the last one to two baseline windows, so it adapts when calls become slower
+ * for good, e.g. as the table grows. While recent calls are within the tolerance of it the limit grows by roughly
+ * its square root per sample; once queueing makes them slower the limit shrinks in proportion. A dropped call
+ * (cancelled or past its deadline) cuts the limit multiplicatively, so a burst of timeouts backs off quickly
+ * even before latency samples reflect it.
+ * <p>
+ * Completions never wait for each other: the limit is updated by compare-and-set, and a latency sample is skipped
+ * when another completion is sampling at the same time, so under contention the limit follows a sample of calls.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final long BASELINE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double SMOOTHING = 0.1;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * Bits of the {@code double} estimated limit, of which the admission limit is the integer part.
+     */
+    private final AtomicLong estimatedLimit;
+
+    /**
+     * Guards the latency statistics below.
+     */
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private double recentLatency;
+    private long windowStart = System.nanoTime();
+    private long windowMinLatency = Long.MAX_VALUE;
+    private long previousWindowMinLatency = Long.MAX_VALUE;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    /**
+     * Admits a call if fewer than {@link #getLimit()} calls are in flight.
+     *
+     * @return {@code true} if the call was admitted and must be completed with {@link #release}.
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Completes an admitted call and adjusts the limit.
+     *
+     * @param latencyNanos Time from admission to completion.
+     * @param dropped      Whether the call was cancelled or past its deadline rather than answered.
+     */
+    void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (dropped) {
+            updateEstimatedLimit(limit -> limit * DROP_BACKOFF);
+        } else if (sampleLock.tryLock()) {
+            try {
+                sample(latencyNanos, current, System.nanoTime());
+            } finally {
+                sampleLock.unlock();
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) estimatedLimit();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void sample(long latencyNanos, int inFlight, long nowNanos) {
+        if (nowNanos - windowStart >= BASELINE_WINDOW_NANOS) {
+            previousWindowMinLatency = windowMinLatency;
+            windowMinLatency = Long.MAX_VALUE;
+            windowStart = nowNanos;
+        }
+        windowMinLatency = Math.min(windowMinLatency, Math.max(latencyNanos, 1));
+        long baseline = Math.min(windowMinLatency, previousWindowMinLatency);
+        recentLatency = recentLatency == 0 ? latencyNanos : recentLatency + (latencyNanos - recentLatency) * SMOOTHING;
+
+        // A method using well under its limit says nothing about how far the limit could go.
+        if (inFlight < estimatedLimit() / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baseline / recentLatency));
+        updateEstimatedLimit(limit -> {
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            return limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+        });
+    }
+
+    private double estimatedLimit() {
+        return Double.longBitsToDouble(estimatedLimit.get());
+    }
+
+    private void updateEstimatedLimit(DoubleUnaryOperator update) {
+        long current;
+        long next;
+        do {
+            current = estimatedLimit.get();
+            double newLimit = update.applyAsDouble(Double.longBitsToDouble(current));
+            next = Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, newLimit)));
+        } while (!estimatedLimit.compareAndSet(current, next));
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.alexshamrai.config;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Applies {@code employee.concurrency-limit.*} to unary calls.
+ * <p>
+ * Each method has its own {@link AdaptiveConcurrencyLimit}; a call arriving while the method is at its limit is
+ * rejected with {@code RESOURCE_EXHAUSTED} at once instead of queueing behind calls that will miss their deadlines
+ * anyway. Calls whose deadline expired while they waited for a thread are closed without running. Streaming calls
+ * are not limited, since their duration depends on the client rather than on server load.
+ */
+@GrpcGlobalServerInterceptor
+public class ConcurrencyLimitInterceptor implements ServerInterceptor, InitializingBean {
+
+    private static final ServerCall.Listener<?> NOOP_LISTENER = new ServerCall.Listener<>() {
+    };
+
+    @Value("${employee.concurrency-limit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${employee.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${employee.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${employee.concurrency-limit.max-limit:500}")
+    private int maxLimit;
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("employee.concurrency-limit needs 1 <= min-limit <= initial-limit <= max-limit");
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (!enabled || method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.startCall(call, headers);
+        }
+
+        Context context = Context.current();
+        if (context.isCancelled()) {
+            Deadline deadline = context.getDeadline();
+            call.close(deadline != null && deadline.isExpired()
+                ? Status.DEADLINE_EXCEEDED.withDescription("Deadline expired before the call started")
+                : Status.CANCELLED.withDescription("Call cancelled before it started"), new Metadata());
+            return noopListener();
+        }
+
+        AdaptiveConcurrencyLimit limit = limitFor(method.getFullMethodName());
+        if (!limit.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED
+                .withDescription("Concurrency limit of " + limit.getLimit() + " reached for " + method.getBareMethodName()),
+                new Metadata());
+            return noopListener();
+        }
+
+        LimitedCall<ReqT, RespT> limitedCall = new LimitedCall<>(call, limit);
+        try {
+            return new LimitedListener<>(next.startCall(limitedCall, headers), limitedCall);
+        } catch (RuntimeException e) {
+            limitedCall.finish(true);
+            throw e;
+        }
+    }
+
+    private AdaptiveConcurrencyLimit limitFor(String method) {
+        AdaptiveConcurrencyLimit limit = limits.get(method);
+        if (limit == null) {
+            limit = limits.computeIfAbsent(method, this::newLimit);
+        }
+        return limit;
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String method) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        if (meterRegistry != null) {
+            Gauge.builder("grpc.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("method", method)
+                .register(meterRegistry);
+        }
+        return limit;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ReqT> ServerCall.Listener<ReqT> noopListener() {
+        return (ServerCall.Listener<ReqT>) NOOP_LISTENER;
+    }
+
+    /**
+     * Whether a call ending with this status was dropped rather than answered, which suggests the server is overloaded.
+     */
+    private static boolean isDrop(Status.Code code) {
+        return code == Status.Code.DEADLINE_EXCEEDED || code == Status.Code.CANCELLED;
+    }
+
+    private static final class LimitedCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private static final AtomicIntegerFieldUpdater<LimitedCall> FINISHED =
+            AtomicIntegerFieldUpdater.newUpdater(LimitedCall.class, "finished");
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long start = System.nanoTime();
+        private volatile int finished;
+
+        private LimitedCall(ServerCall<ReqT, RespT> delegate, AdaptiveConcurrencyLimit limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(isDrop(status.getCode()));
+            super.close(status, trailers);
+        }
+
+        private void finish(boolean dropped) {
+            if (FINISHED.compareAndSet(this, 0, 1)) {
+                limit.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    private static final class LimitedListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final LimitedCall<ReqT, ?> call;
+
+        private LimitedListener(ServerCall.Listener<ReqT> delegate, LimitedCall<ReqT, ?> call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public void onCancel() {
+            call.finish(true);
+            super.onCancel();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.alexshamrai.config;
+
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import io.grpc.ServerBuilder;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the gzip and {@link Lz4Codec} message encodings with the gRPC server, so responses can be sent
+ * with either and compressed requests in either are accepted.
+ */
+@Component
+public class GrpcCompressionConfigurer implements GrpcServerConfigurer {
+
+    @Override
+    public void accept(ServerBuilder<?> serverBuilder) {
+        Lz4Codec lz4 = new Lz4Codec();
+
+        CompressorRegistry compressors = CompressorRegistry.newEmptyInstance();
+        compressors.register(new Codec.Gzip());
+        compressors.register(lz4);
+
+        serverBuilder
+            .compressorRegistry(compressors)
+            .decompressorRegistry(DecompressorRegistry.getDefaultInstance().with(lz4, true));
+    }
+}
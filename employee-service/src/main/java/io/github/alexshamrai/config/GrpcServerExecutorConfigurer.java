@@ -0,0 +1,96 @@
+package io.github.alexshamrai.config;
+
+import io.grpc.ServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the executor and Netty event-loop settings from {@code employee.server.*} to the gRPC server.
+ * <p>
+ * Executor modes:
+ * <ul>
+ *     <li>{@code default} - grpc-java's shared cached thread pool</li>
+ *     <li>{@code virtual} - a new virtual thread per call, so handlers may block without holding pool threads;
+ *     the repository and journal guard their I/O with {@code ReentrantLock}, never monitors, so that blocked
+ *     writers do not pin carrier threads</li>
+ *     <li>{@code bounded} - a fixed platform pool with a bounded queue; calls beyond the queue are rejected</li>
+ *     <li>{@code direct} - handlers run on the Netty event loop; only for handlers that never block</li>
+ * </ul>
+ */
+@Component
+public class GrpcServerExecutorConfigurer implements GrpcServerConfigurer, DisposableBean {
+
+    @Value("${employee.server.executor:default}")
+    private String executorMode;
+
+    @Value("${employee.server.bounded-pool-size:64}")
+    private int boundedPoolSize;
+
+    @Value("${employee.server.bounded-queue-capacity:10000}")
+    private int boundedQueueCapacity;
+
+    @Value("${employee.server.boss-threads:0}")
+    private int bossThreads;
+
+    @Value("${employee.server.worker-threads:0}")
+    private int workerThreads;
+
+    private ExecutorService executor;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+
+    @Override
+    public void accept(ServerBuilder<?> serverBuilder) {
+        switch (executorMode) {
+            case "default" -> {
+            }
+            case "virtual" -> {
+                executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-virtual-", 0).factory());
+                serverBuilder.executor(executor);
+            }
+            case "bounded" -> {
+                executor = new ThreadPoolExecutor(boundedPoolSize, boundedPoolSize, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(boundedQueueCapacity), new DefaultThreadFactory("grpc-bounded", true));
+                serverBuilder.executor(executor);
+            }
+            case "direct" -> serverBuilder.directExecutor();
+            default -> throw new IllegalArgumentException("Unknown employee.server.executor: " + executorMode);
+        }
+
+        // Netty requires the boss group, worker group and channel type to be replaced together.
+        if ((bossThreads > 0 || workerThreads > 0) && serverBuilder instanceof NettyServerBuilder nettyServerBuilder) {
+            bossGroup = new NioEventLoopGroup(Math.max(bossThreads, 1), new DefaultThreadFactory("grpc-boss", true));
+            workerGroup = new NioEventLoopGroup(workerThreads, new DefaultThreadFactory("grpc-worker", true));
+            nettyServerBuilder
+                .bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .channelType(NioServerSocketChannel.class);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+        }
+        if (workerGroup != null) {
+            workerGroup.shutdownGracefully();
+        }
+    }
+}
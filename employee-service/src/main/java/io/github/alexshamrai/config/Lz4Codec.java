@@ -0,0 +1,35 @@
+package io.github.alexshamrai.config;
+
+import io.grpc.Codec;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * LZ4 frame codec registered as message encoding {@code lz4}. It compresses less than gzip but several times
+ * faster, which suits links where CPU rather than bandwidth is the bottleneck. Clients opt in by adding it to
+ * their {@code DecompressorRegistry}.
+ */
+public final class Lz4Codec implements Codec {
+
+    public static final String ENCODING = "lz4";
+
+    @Override
+    public String getMessageEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        // The default 4 MB block would be allocated for every message.
+        return new LZ4FrameOutputStream(os, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return new LZ4FrameInputStream(is);
+    }
+}
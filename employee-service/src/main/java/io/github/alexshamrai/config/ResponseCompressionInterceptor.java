@@ -0,0 +1,144 @@
+package io.github.alexshamrai.config;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies {@code employee.compression.*} to responses and enforces {@code employee.server.max-outbound-message-size}.
+ * <p>
+ * Each method listed in {@code employee.compression.methods}, as {@code Name} or {@code Name=codec}, is answered
+ * with its codec if the client's {@code grpc-accept-encoding} lists it, with gzip if the client only accepts gzip,
+ * and uncompressed otherwise. Messages smaller than {@code employee.compression.min-message-size} are sent
+ * uncompressed even then, since framing overhead outweighs the saving on small unary responses.
+ */
+@GrpcGlobalServerInterceptor
+public class ResponseCompressionInterceptor implements ServerInterceptor, InitializingBean {
+
+    private static final String IDENTITY = "identity";
+    private static final String GZIP = "gzip";
+    private static final Set<String> CODECS = Set.of(IDENTITY, GZIP, Lz4Codec.ENCODING);
+    private static final Metadata.Key<String> ACCEPT_ENCODING =
+        Metadata.Key.of("grpc-accept-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Value("${employee.compression.codec:gzip}")
+    private String defaultCodec;
+
+    @Value("${employee.compression.methods:}")
+    private List<String> methods;
+
+    @Value("${employee.compression.min-message-size:1KB}")
+    private DataSize minMessageSize;
+
+    @Value("${employee.server.max-outbound-message-size:64MB}")
+    private DataSize maxOutboundMessageSize;
+
+    private final Map<String, String> codecsByMethod = new HashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        requireCodec(defaultCodec);
+        for (String method : methods) {
+            int separator = method.indexOf('=');
+            String name = separator < 0 ? method.trim() : method.substring(0, separator).trim();
+            String codec = separator < 0 ? defaultCodec : method.substring(separator + 1).trim();
+            requireCodec(codec);
+            if (!name.isEmpty() && !codec.equals(IDENTITY)) {
+                codecsByMethod.put(name, codec);
+            }
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String codec = negotiate(codecsByMethod.get(call.getMethodDescriptor().getBareMethodName()),
+            headers.get(ACCEPT_ENCODING));
+        if (codec != null) {
+            call.setCompression(codec);
+        }
+        return next.startCall(new ResponseCall<>(call, codec != null, minMessageSize.toBytes(),
+            maxOutboundMessageSize.toBytes()), headers);
+    }
+
+    /**
+     * @return The codec to compress with, or {@code null} to send the responses uncompressed.
+     */
+    private static String negotiate(String codec, String acceptEncoding) {
+        if (codec == null || acceptEncoding == null) {
+            return null;
+        }
+
+        boolean acceptsGzip = false;
+        for (String accepted : acceptEncoding.split(",")) {
+            String encoding = accepted.trim();
+            if (encoding.equals(codec)) {
+                return codec;
+            }
+            acceptsGzip |= encoding.equals(GZIP);
+        }
+        return acceptsGzip ? GZIP : null;
+    }
+
+    private static void requireCodec(String codec) {
+        if (!CODECS.contains(codec)) {
+            throw new IllegalArgumentException("Unknown employee.compression codec: " + codec);
+        }
+    }
+
+    private static final class ResponseCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final boolean compressed;
+        private final long minCompressedBytes;
+        private final long maxBytes;
+        private boolean closed;
+
+        private ResponseCall(ServerCall<ReqT, RespT> delegate, boolean compressed, long minCompressedBytes, long maxBytes) {
+            super(delegate);
+            this.compressed = compressed;
+            this.minCompressedBytes = minCompressedBytes;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            if (closed) {
+                return;
+            }
+
+            int size = message instanceof MessageLite messageLite ? messageLite.getSerializedSize() : 0;
+            if (size > maxBytes) {
+                close(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Response of " + size + " bytes exceeds the " + maxBytes + " byte limit"),
+                    new Metadata());
+                return;
+            }
+            if (compressed) {
+                super.setMessageCompression(size >= minCompressedBytes);
+            }
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            // A response rejected for its size has already closed the call; the handler's own close is dropped.
+            if (!closed) {
+                closed = true;
+                super.close(status, trailers);
+            }
+        }
+    }
+}
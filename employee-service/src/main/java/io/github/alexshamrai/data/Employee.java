@@ -1,17 +1,32 @@
 package io.github.alexshamrai.data;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 
-@Data
-@Builder
+/**
+ * An employee as saved in or read from {@link EmployeeRepository}.
+ * <p>
+ * Instances are immutable. The repository stores its own copy of what it is given, with the assigned ID and
+ * version, and {@link EmployeeRepository#update} writes a new instance instead of changing one, so readers may keep
+ * and share what they read. Use {@link #toBuilder()} to derive a changed employee.
+ */
+@Value
+@Builder(toBuilder = true)
 public class Employee {
 
-    private Integer id;
-    private String name;
-    private Integer age;
-    private String department;
-    private String position;
-    private Integer hiringYear;
-    private Double salary;
+    Integer id;
+    String name;
+    Integer age;
+    String department;
+    String position;
+    Integer hiringYear;
+    Double salary;
+
+    /**
+     * Identifies the stored version of the employee; every update assigns a higher one. 0 for an employee that
+     * has not been saved. Equal attributes make equal employees whatever version they were read at.
+     */
+    @EqualsAndHashCode.Exclude
+    long version;
 }
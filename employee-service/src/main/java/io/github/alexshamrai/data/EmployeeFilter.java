@@ -0,0 +1,104 @@
+package io.github.alexshamrai.data;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * Repository-level filter criteria. A {@code null} field means the criterion is not applied.
+ */
+@Value
+@Builder(toBuilder = true)
+public class EmployeeFilter {
+
+    Integer hiringYear;
+    String department;
+    Integer minAge;
+    Integer maxAge;
+    String position;
+    Double minSalary;
+    Double maxSalary;
+
+    /**
+     * Checks whether the employee satisfies every criterion of this filter.
+     *
+     * @param employee The employee to check.
+     * @return true if the employee matches.
+     */
+    public boolean matches(Employee employee) {
+        if (hiringYear != null && !hiringYear.equals(employee.getHiringYear())) {
+            return false;
+        }
+
+        if (department != null && !department.equals(employee.getDepartment())) {
+            return false;
+        }
+
+        if (minAge != null && employee.getAge() < minAge) {
+            return false;
+        }
+
+        if (maxAge != null && employee.getAge() > maxAge) {
+            return false;
+        }
+
+        if (position != null && !position.equals(employee.getPosition())) {
+            return false;
+        }
+
+        if (minSalary != null && employee.getSalary() < minSalary) {
+            return false;
+        }
+
+        if (maxSalary != null && employee.getSalary() > maxSalary) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Compiles the filter into a predicate for repeated evaluation. Absent numeric criteria become bounds every
+     * employee satisfies, so each row is checked with the same branch-free comparisons and no null checks.
+     *
+     * @return A predicate equivalent to {@link #matches(Employee)}.
+     */
+    public Predicate<Employee> compile() {
+        return new CompiledFilter(this);
+    }
+
+    private static final class CompiledFilter implements Predicate<Employee> {
+
+        private final int minAge;
+        private final int maxAge;
+        private final double minSalary;
+        private final double maxSalary;
+        private final boolean anyHiringYear;
+        private final int hiringYear;
+        private final String department;
+        private final String position;
+
+        private CompiledFilter(EmployeeFilter filter) {
+            minAge = filter.minAge == null ? Integer.MIN_VALUE : filter.minAge;
+            maxAge = filter.maxAge == null ? Integer.MAX_VALUE : filter.maxAge;
+            minSalary = filter.minSalary == null ? Double.NEGATIVE_INFINITY : filter.minSalary;
+            maxSalary = filter.maxSalary == null ? Double.POSITIVE_INFINITY : filter.maxSalary;
+            anyHiringYear = filter.hiringYear == null;
+            hiringYear = anyHiringYear ? 0 : filter.hiringYear;
+            department = filter.department;
+            position = filter.position;
+        }
+
+        @Override
+        public boolean test(Employee employee) {
+            int age = employee.getAge();
+            double salary = employee.getSalary();
+            return age >= minAge & age <= maxAge
+                & salary >= minSalary & salary <= maxSalary
+                & (anyHiringYear || employee.getHiringYear() == hiringYear)
+                && (department == null || department.equals(employee.getDepartment()))
+                && (position == null || position.equals(employee.getPosition()));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.alexshamrai.data;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of a repository scan.
+ */
+@Value
+public class EmployeePage {
+
+    List<Employee> employees;
+
+    /**
+     * Row number to resume the scan from, or {@code null} if this is the last page.
+     */
+    Integer nextRow;
+}
@@ -0,0 +1,148 @@
+package io.github.alexshamrai.data;
+
+import io.github.alexshamrai.data.index.HashIndex;
+import io.github.alexshamrai.data.index.PostingList;
+import io.github.alexshamrai.data.index.RangeIndex;
+import io.github.alexshamrai.data.index.RowCursor;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Maintains the secondary indexes of {@link EmployeeRepository} and picks the cheapest one for a filter.
+ * <p>
+ * The planner estimates how many rows each applicable index yields, reads only the smallest candidate set and
+ * leaves the remaining criteria to be checked against those candidates. Candidates are read lazily from the
+ * start row, so a page that fills up early never touches the candidates after it.
+ */
+class EmployeeQueryPlanner {
+
+    private final HashIndex<String> departmentIndex = new HashIndex<>();
+    private final HashIndex<String> positionIndex = new HashIndex<>();
+    private final HashIndex<Integer> hiringYearIndex = new HashIndex<>();
+    private final RangeIndex<Integer> ageIndex = new RangeIndex<>();
+    private final RangeIndex<Double> salaryIndex = new RangeIndex<>();
+
+    /**
+     * Adds a row to every index. Must be called by the single repository writer, in row order.
+     *
+     * @param employee The stored employee.
+     * @param row      The row number of the employee.
+     */
+    void index(Employee employee, int row) {
+        index(row, employee.getAge(), employee.getDepartment(), employee.getPosition(), employee.getHiringYear(),
+            employee.getSalary());
+    }
+
+    /**
+     * Adds a row given by its indexed attributes, under the same rules as {@link #index(Employee, int)}.
+     */
+    void index(int row, int age, String department, String position, int hiringYear, double salary) {
+        departmentIndex.add(department, row);
+        positionIndex.add(position, row);
+        hiringYearIndex.add(hiringYear, row);
+        ageIndex.add(age, row);
+        salaryIndex.add(salary, row);
+    }
+
+    /**
+     * Removes reclaimed rows from every index. Must be called by the single repository writer. Only the lists of
+     * the employees' values are visited, so the cost follows the lists the rows were in, not the index size.
+     *
+     * @param employees The employees stored in the removed rows.
+     * @param removed   Whether a row is removed.
+     */
+    void unindex(Collection<Employee> employees, IntPredicate removed) {
+        Set<String> departments = new HashSet<>();
+        Set<String> positions = new HashSet<>();
+        Set<Integer> hiringYears = new HashSet<>();
+        Set<Integer> ages = new HashSet<>();
+        Set<Double> salaries = new HashSet<>();
+        for (Employee employee : employees) {
+            departments.add(employee.getDepartment());
+            positions.add(employee.getPosition());
+            hiringYears.add(employee.getHiringYear());
+            ages.add(employee.getAge());
+            salaries.add(employee.getSalary());
+        }
+        departmentIndex.removeAll(departments, removed);
+        positionIndex.removeAll(positions, removed);
+        hiringYearIndex.removeAll(hiringYears, removed);
+        ageIndex.removeAll(ages, removed);
+        salaryIndex.removeAll(salaries, removed);
+    }
+
+    /**
+     * Finds the candidate rows for a filter using the most selective index.
+     *
+     * @param filter The filter to plan.
+     * @param from   Inclusive lower bound of row numbers to return.
+     * @param limit  Exclusive upper bound of visible row numbers.
+     * @return Cursor over the ascending candidate rows, or {@code null} if no index applies and all rows must be
+     * scanned.
+     */
+    RowCursor candidates(EmployeeFilter filter, int from, int limit) {
+        Collection<PostingList> best = null;
+        long bestEstimate = Long.MAX_VALUE;
+
+        if (filter.getDepartment() != null) {
+            best = List.of(departmentIndex.get(filter.getDepartment()));
+            bestEstimate = estimate(best, bestEstimate);
+        }
+
+        if (filter.getPosition() != null) {
+            Collection<PostingList> postings = List.of(positionIndex.get(filter.getPosition()));
+            long estimate = estimate(postings, bestEstimate);
+            if (estimate < bestEstimate) {
+                best = postings;
+                bestEstimate = estimate;
+            }
+        }
+
+        if (filter.getHiringYear() != null) {
+            Collection<PostingList> postings = List.of(hiringYearIndex.get(filter.getHiringYear()));
+            long estimate = estimate(postings, bestEstimate);
+            if (estimate < bestEstimate) {
+                best = postings;
+                bestEstimate = estimate;
+            }
+        }
+
+        if (filter.getMinAge() != null || filter.getMaxAge() != null) {
+            Collection<PostingList> postings = ageIndex.range(filter.getMinAge(), filter.getMaxAge());
+            long estimate = estimate(postings, bestEstimate);
+            if (estimate < bestEstimate) {
+                best = postings;
+                bestEstimate = estimate;
+            }
+        }
+
+        if (filter.getMinSalary() != null || filter.getMaxSalary() != null) {
+            Collection<PostingList> postings = salaryIndex.range(filter.getMinSalary(), filter.getMaxSalary());
+            long estimate = estimate(postings, bestEstimate);
+            if (estimate < bestEstimate) {
+                best = postings;
+                bestEstimate = estimate;
+            }
+        }
+
+        return best == null ? null : PostingList.union(best, from, limit);
+    }
+
+    /**
+     * Sums posting list sizes, giving up as soon as the sum reaches {@code cutoff}.
+     */
+    private static long estimate(Collection<PostingList> postings, long cutoff) {
+        long total = 0;
+        for (PostingList posting : postings) {
+            total += posting.size();
+            if (total >= cutoff) {
+                return total;
+            }
+        }
+        return total;
+    }
+}
@@ -1,28 +1,706 @@
 package io.github.alexshamrai.data;
 
+import io.github.alexshamrai.data.aggregate.AggregateField;
+import io.github.alexshamrai.data.aggregate.EmployeeAggregates;
+import io.github.alexshamrai.data.aggregate.Grouping;
+import io.github.alexshamrai.data.aggregate.HistogramBin;
+import io.github.alexshamrai.data.aggregate.SalaryStats;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+import io.github.alexshamrai.data.feed.EmployeeChangeFeed;
+import io.github.alexshamrai.data.id.IdAllocator;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.index.IntRowMap;
+import io.github.alexshamrai.data.index.RowCursor;
+import io.github.alexshamrai.data.index.TrigramIndex;
+import io.github.alexshamrai.data.persistence.DisabledEmployeeJournal;
+import io.github.alexshamrai.data.persistence.EmployeeJournal;
+import io.github.alexshamrai.data.store.EmployeeStore;
+import io.github.alexshamrai.data.store.HeapEmployeeStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
+/**
+ * In-memory employee table with lock-free readers and a single writer.
+ * <p>
+ * Rows are append-only and never change once published. Updates and deletes append a new version of the employee,
+ * or a tombstone, and mark the previous row dead from the new size on (see {@link RowVersions}), so a reader that
+ * reads the size once sees a consistent snapshot for as long as it keeps reading, without taking locks. Writers
+ * serialize on one lock, under which conditional updates and deletes compare the expected version with the
+ * current one before writing. Dead rows are reclaimed by {@link #reclaimVersions(Duration)} once they are older
+ * than the version retention.
+ */
 @Repository
 public class EmployeeRepository {
 
-    private static List<Employee> employees = new ArrayList<>();
-    private static Set<String> departments = new HashSet<>();
-    private final Random random = new Random();
+    private static final int SCAN_CHUNK_ROWS = 4096;
+    private static final int AGGREGATION_TASK_ROWS = 1 << 16;
+    private static final int PARALLEL_SCAN_ROWS = 1 << 16;
+    private static final int PARALLEL_CHUNK_ROWS = 1 << 14;
+    private static final int CHANGE_FEED_CAPACITY = 1 << 16;
+    private static final long NAME_INDEX_POLL_MILLIS = 10;
+    private static final EmployeeFilter NO_FILTER = EmployeeFilter.builder().build();
+    private static final BooleanSupplier NEVER_CANCELLED = () -> false;
 
-    static {
-        departments.add("IT");
-        departments.add("HR");
-        departments.add("Marketing");
-        departments.add("Finance");
+    private final IntRowMap rowsById = new IntRowMap();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final EmployeeQueryPlanner queryPlanner = new EmployeeQueryPlanner();
+    private final RowVersions rowVersions = new RowVersions();
+    /**
+     * Serializes writers. A lock rather than a monitor, because writers append to the journal while holding it,
+     * and a virtual thread blocked on I/O inside a monitor pins its carrier thread.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * Serializes reclamation and rebuilds of the aggregates, so that the rows a rebuild reads are not reclaimed
+     * under it. Taken before {@link #writeLock}.
+     */
+    private final ReentrantLock reclaimLock = new ReentrantLock();
+    private final IdAllocator idAllocator;
+    private final EmployeeJournal journal;
+    private final EmployeeChangeFeed changeFeed;
+
+    /**
+     * Sizes at earlier {@link #reclaimVersions} calls, oldest first, marking how far back each retention period
+     * reaches. Guarded by {@link #writeLock}.
+     */
+    private final Deque<SizeSample> sizeSamples = new ArrayDeque<>();
+
+    /**
+     * Append-only row storage. Writers fill the row before publishing the new size, so a reader that
+     * reads {@code size} first always sees a fully populated prefix of the store. The size a reader starts
+     * with is its snapshot.
+     */
+    private final EmployeeStore store;
+    private volatile int size;
+    /**
+     * The size and the number of employees it holds, packed as {@code size << 32 | employees} so that a reader gets
+     * both from one commit. Written with {@link #size}.
+     */
+    private volatile long sizeAndEmployees;
+    /**
+     * Number of employees neither superseded nor deleted. Written by the writer only.
+     */
+    private int employeeCount;
+    /**
+     * Snapshots smaller than this may have lost row versions to reclamation.
+     */
+    private volatile int oldestReadableSnapshot;
+    /**
+     * Replaced as a whole when it is rebuilt; updated in place by the writer otherwise.
+     */
+    private volatile EmployeeAggregates aggregates = new EmployeeAggregates();
+    /**
+     * Changes to {@link #aggregates} made while a rebuild runs, to be replayed on the rebuilt ones; {@code null}
+     * otherwise. Guarded by {@link #writeLock}.
+     */
+    private List<Consumer<EmployeeAggregates>> aggregateChanges;
+    /**
+     * IDs of every deleted employee, for journal snapshots. Guarded by {@link #writeLock}.
+     */
+    private int[] deletedIds = new int[16];
+    private int deletedCount;
+    /**
+     * Whether {@link #nameIndex} covers every row. The first search starts building it on a background thread, so
+     * that startup never decodes names and saves continue during the build; from then on every insert updates it.
+     */
+    private volatile boolean namesIndexed;
+    /**
+     * The background build of {@link #nameIndex}, once a search started it. Set while holding {@link #nameIndex};
+     * cleared again if the build fails, so that the next search retries it.
+     */
+    private final AtomicReference<CompletableFuture<Void>> nameIndexBuild = new AtomicReference<>();
+    private volatile long version;
+    private RepositoryTimings timings = RepositoryTimings.NONE;
+
+    public EmployeeRepository() {
+        this(new SequenceIdAllocator(), new HeapEmployeeStore());
+    }
+
+    public EmployeeRepository(IdAllocator idAllocator, EmployeeStore store) {
+        this(idAllocator, store, new DisabledEmployeeJournal());
+    }
+
+    @Autowired
+    public EmployeeRepository(IdAllocator idAllocator, EmployeeStore store, EmployeeJournal journal) {
+        this.idAllocator = idAllocator;
+        this.store = store;
+        this.journal = journal;
+
+        if (store.loadedRows() > 0) {
+            indexLoaded(store.loadedRows());
+        } else {
+            insertDefaults();
+        }
+        journal.recover(this::applyRecovered);
+        // Recovery renumbers rows, so sequences are not carried over; the feed's epoch marks them as this run's.
+        changeFeed = new EmployeeChangeFeed(CHANGE_FEED_CAPACITY);
+    }
+
+    /**
+     * Sets where the durations of lookups, saves and filters are reported.
+     *
+     * @param timings The timings receiver.
+     */
+    @Autowired(required = false)
+    public void setTimings(RepositoryTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * Retrieves all employees.
+     *
+     * @return Read-only snapshot of the employees stored at the time of the call. Reading an element fails with
+     *         {@link SnapshotTooOldException} once the snapshot is older than the version retention and rows it
+     *         sees have been reclaimed.
+     */
+    public List<Employee> getAllEmployees() {
+        long published = sizeAndEmployees;
+        return new EmployeeSnapshot((int) (published >>> 32), (int) published);
+    }
+
+    /**
+     * Retrieves all available departments.
+     *
+     * @return Read-only list of department names in the order they first appeared. The same instance is
+     *         returned until a new department is saved. Departments stay listed after their employees are
+     *         updated or deleted.
+     */
+    public List<String> getDepartments() {
+        return store.departments().values();
+    }
+
+    /**
+     * Finds all employees matching the filter, using the most selective secondary index to narrow the scan.
+     * Large scans that no index can narrow are split across cores.
+     *
+     * @param filter The filter criteria.
+     * @return Matching employees in storage order.
+     */
+    public List<Employee> filter(EmployeeFilter filter) {
+        return findPage(filter, 0, Integer.MAX_VALUE).getEmployees();
+    }
+
+    /**
+     * Lazily iterates over the employees matching the filter. Rows are checked only as the iterator advances,
+     * so callers can stream large results without collecting them first.
+     *
+     * @param filter The filter criteria.
+     * @return Iterator over matching employees in storage order, bound to the rows stored at the time of the call.
+     */
+    public Iterator<Employee> scan(EmployeeFilter filter) {
+        return scan(filter, NEVER_CANCELLED);
+    }
+
+    /**
+     * Lazily iterates over the employees matching the filter until the caller gives up.
+     *
+     * @param filter    The filter criteria.
+     * @param cancelled Checked between chunks of rows; once it returns {@code true} the iterator throws
+     *                  {@link CancellationException}.
+     * @return Iterator over matching employees in storage order, bound to the rows stored at the time of the call.
+     *         It fails with {@link SnapshotTooOldException} if it is still iterated after rows it sees have been
+     *         reclaimed.
+     */
+    public Iterator<Employee> scan(EmployeeFilter filter, BooleanSupplier cancelled) {
+        int snapshot = size;
+        MatchingRows matchingRows = new MatchingRows(store.matcher(filter),
+            queryPlanner.candidates(filter, 0, snapshot), 0, snapshot, cancelled);
+        return new Iterator<>() {
+            private int next = matchingRows.next();
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Employee next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Employee employee = read(next, snapshot);
+                next = matchingRows.next();
+                return employee;
+            }
+        };
+    }
 
-        employees.add(Employee.builder()
+    /**
+     * Returns up to {@code pageSize} matching employees starting at the given row. Rows are append-only, so a
+     * row number is a stable cursor; resuming seeks straight to it instead of skipping earlier matches. Each page
+     * is read from one snapshot; an employee updated between pages is found again at its new row.
+     *
+     * @param filter   The filter criteria.
+     * @param fromRow  Row number to resume from, 0 for the first page.
+     * @param pageSize Maximum number of employees to return.
+     * @return The page and the row to resume from, if more matches exist.
+     */
+    public EmployeePage findPage(EmployeeFilter filter, int fromRow, int pageSize) {
+        return findPage(filter, fromRow, pageSize, NEVER_CANCELLED);
+    }
+
+    /**
+     * Returns up to {@code pageSize} matching employees starting at the given row, abandoning the scan once
+     * the caller gives up.
+     *
+     * @param filter    The filter criteria.
+     * @param fromRow   Row number to resume from, 0 for the first page.
+     * @param pageSize  Maximum number of employees to return.
+     * @param cancelled Checked between chunks of rows, possibly from several threads.
+     * @return The page and the row to resume from, if more matches exist.
+     * @throws CancellationException if {@code cancelled} returned {@code true} before the scan finished.
+     * @throws SnapshotTooOldException if the scan outlived the version retention.
+     */
+    public EmployeePage findPage(EmployeeFilter filter, int fromRow, int pageSize, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        EmployeePage page = selectPage(filter, fromRow, pageSize, cancelled);
+        timings.record(RepositoryTimings.Operation.FILTER, System.nanoTime() - start);
+        return page;
+    }
+
+    private EmployeePage selectPage(EmployeeFilter filter, int fromRow, int pageSize, BooleanSupplier cancelled) {
+        int snapshot = size;
+        RowCursor candidates = queryPlanner.candidates(filter, fromRow, snapshot);
+        if (candidates == null && snapshot - fromRow >= PARALLEL_SCAN_ROWS && pageSize >= snapshot - fromRow) {
+            // The page holds every remaining row, so nothing is wasted by scanning all of them at once.
+            List<Employee> employees = Arrays.stream(selectParallel(filter, fromRow, snapshot, cancelled))
+                .parallel()
+                .mapToObj(row -> read(row, snapshot))
+                .toList();
+            checkReadable(snapshot);
+            return new EmployeePage(employees, null);
+        }
+
+        MatchingRows matchingRows = new MatchingRows(store.matcher(filter), candidates, fromRow, snapshot, cancelled);
+        List<Employee> employees = new ArrayList<>(Math.min(pageSize, 256));
+
+        for (int row = matchingRows.next(); row >= 0; row = matchingRows.next()) {
+            if (employees.size() == pageSize) {
+                checkReadable(snapshot);
+                return new EmployeePage(employees, row);
+            }
+            employees.add(read(row, snapshot));
+        }
+        return new EmployeePage(employees, null);
+    }
+
+    /**
+     * Finds employees whose name contains, or starts with, the query, ignoring case, and that match the filter.
+     * Candidates come from the trigram index of names, so the cost follows the rarest trigram of the query
+     * rather than the table size; substring queries shorter than three characters scan the rows instead.
+     *
+     * @param query     The text to look for.
+     * @param prefix    Whether names must start with the query rather than contain it.
+     * @param filter    Further criteria.
+     * @param fromRow   Row number to resume from, 0 for the first page.
+     * @param pageSize  Maximum number of employees to return.
+     * @param cancelled Checked between chunks of candidate rows.
+     * @return Matching employees in storage order and the row to resume from, if more matches exist.
+     * @throws CancellationException if {@code cancelled} returned {@code true} before the search finished.
+     * @throws SnapshotTooOldException if the search outlived the version retention.
+     * @throws IllegalStateException if the name index could not be built; a later search builds it again.
+     */
+    public EmployeePage search(String query, boolean prefix, EmployeeFilter filter, int fromRow, int pageSize,
+                               BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        if (!namesIndexed) {
+            awaitNameIndex(cancelled);
+        }
+
+        int snapshot = size;
+        String normalized = TrigramIndex.normalize(query);
+        TrigramIndex.Cursor candidates = nameIndex.search(normalized, prefix, fromRow, snapshot);
+        EmployeeStore.RowMatcher matcher = store.matcher(filter);
+        List<Employee> employees = new ArrayList<>(Math.min(pageSize, 256));
+        Integer nextRow = null;
+        int checked = 0;
+        for (int row = candidates.next(); row >= 0; row = candidates.next()) {
+            if (++checked % SCAN_CHUNK_ROWS == 0 && cancelled.getAsBoolean()) {
+                throw new CancellationException("Search cancelled");
+            }
+            if (!rowVersions.isVisible(row, snapshot) || !matcher.matches(row)) {
+                continue;
+            }
+            Employee employee = read(row, snapshot);
+            String name = TrigramIndex.normalize(employee.getName());
+            if (prefix ? name.startsWith(normalized) : name.contains(normalized)) {
+                if (employees.size() == pageSize) {
+                    nextRow = row;
+                    break;
+                }
+                employees.add(employee);
+            }
+        }
+        checkReadable(snapshot);
+        timings.record(RepositoryTimings.Operation.SEARCH, System.nanoTime() - start);
+        return new EmployeePage(employees, nextRow);
+    }
+
+    /**
+     * Computes salary statistics of the employees matching the filter. Without filter criteria the
+     * incrementally maintained aggregates answer in O(groups). If updates or deletes removed a group's lowest or
+     * highest salary since they were last rebuilt, the first call rebuilds them while writes continue. With filter
+     * criteria the matching rows are aggregated in parallel.
+     *
+     * @param filter      The filter criteria.
+     * @param grouping    How to group employees.
+     * @param percentiles Quantiles between 0 and 1 to estimate per group.
+     * @return Statistics per non-empty group, ordered by group.
+     */
+    public List<SalaryStats> salaryStatistics(EmployeeFilter filter, Grouping grouping, double[] percentiles) {
+        return aggregatesOf(filter, grouping, true).salaryStatistics(grouping, percentiles);
+    }
+
+    /**
+     * Builds an age or salary histogram of the employees matching the filter, from the maintained
+     * aggregates when the filter has no criteria.
+     *
+     * @param filter      The filter criteria.
+     * @param field       The attribute to bucket.
+     * @param bucketWidth Width of each bucket, greater than 0.
+     * @return Non-empty buckets in ascending order.
+     */
+    public List<HistogramBin> histogram(EmployeeFilter filter, AggregateField field, double bucketWidth) {
+        return aggregatesOf(filter, Grouping.NONE, false).histogram(field, bucketWidth);
+    }
+
+    /**
+     * Saves an employee to the repository by assigning them a unique ID.
+     *
+     * @param employee The employee to save.
+     * @return The stored employee, with a unique ID.
+     */
+    public Employee save(Employee employee) {
+        return saveAll(List.of(employee)).get(0);
+    }
+
+    /**
+     * Saves a batch of employees under a single lock acquisition. The whole batch becomes visible to readers
+     * at once and the department list is updated once per batch. The batch is journaled before it is applied;
+     * once the journal reports it durable, it is published to the change feed and the call returns.
+     *
+     * @param batch The employees to save.
+     * @return The stored employees, in the order of the batch, with unique IDs assigned.
+     */
+    public List<Employee> saveAll(List<Employee> batch) {
+        long start = System.nanoTime();
+        List<Employee> employees = new ArrayList<>(batch.size());
+        for (Employee employee : batch) {
+            employees.add(employee.toBuilder().id(idAllocator.nextId()).build());
+        }
+
+        long position;
+        long sequence;
+        List<Employee> saved;
+        writeLock.lock();
+        try {
+            for (int i = 0; i < employees.size(); i++) {
+                while (rowsById.containsKey(employees.get(i).getId())) {
+                    employees.set(i, employees.get(i).toBuilder().id(idAllocator.nextId()).build());
+                }
+            }
+            position = journal.append(EmployeeChange.Type.ADDED, employees);
+            saved = insertAll(employees);
+            sequence = changeFeed.append(EmployeeChange.Type.ADDED, saved);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(position);
+        changeFeed.publish(sequence);
+        timings.record(RepositoryTimings.Operation.SAVE, System.nanoTime() - start);
+        return saved;
+    }
+
+    /**
+     * Writes a new version of an employee. Readers that started before keep seeing the previous version. The
+     * update is journaled before it is applied; once the journal reports it durable, it is published to the change
+     * feed and the call returns.
+     *
+     * @param employee        The new attributes, with the ID of the employee to update.
+     * @param expectedVersion The version the caller based the update on, or 0 to update whatever version is
+     *                        current.
+     * @return The new version, or empty if there is no employee with the ID.
+     * @throws VersionConflictException if the current version is not the expected one.
+     * @throws UnsupportedOperationException if the store cannot reclaim the superseded version.
+     */
+    public Optional<Employee> update(Employee employee, long expectedVersion) {
+        checkReclaimsRows();
+        long start = System.nanoTime();
+        Employee updated;
+        long position;
+        long sequence;
+        writeLock.lock();
+        try {
+            int row = currentRow(employee.getId());
+            if (row < 0) {
+                return Optional.empty();
+            }
+            Employee current = store.read(row);
+            checkVersion(current, expectedVersion);
+            position = journal.append(EmployeeChange.Type.UPDATED, List.of(employee));
+            updated = replace(row, current, employee);
+            sequence = changeFeed.append(EmployeeChange.Type.UPDATED, List.of(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(position);
+        changeFeed.publish(sequence);
+        timings.record(RepositoryTimings.Operation.UPDATE, System.nanoTime() - start);
+        return Optional.of(updated);
+    }
+
+    /**
+     * Deletes an employee. Readers that started before keep seeing it, and its ID is never assigned again. The
+     * delete is journaled before it is applied; once the journal reports it durable, it is published to the change
+     * feed and the call returns.
+     *
+     * @param id              The ID of the employee to delete.
+     * @param expectedVersion The version the caller based the delete on, or 0 to delete whatever version is
+     *                        current.
+     * @return The deleted version, or empty if there is no employee with the ID.
+     * @throws VersionConflictException if the current version is not the expected one.
+     * @throws UnsupportedOperationException if the store cannot reclaim the deleted version.
+     */
+    public Optional<Employee> delete(int id, long expectedVersion) {
+        checkReclaimsRows();
+        long start = System.nanoTime();
+        Employee current;
+        long position;
+        long sequence;
+        writeLock.lock();
+        try {
+            int row = currentRow(id);
+            if (row < 0) {
+                return Optional.empty();
+            }
+            current = store.read(row);
+            checkVersion(current, expectedVersion);
+            position = journal.append(EmployeeChange.Type.DELETED, List.of(current));
+            remove(row, current);
+            sequence = changeFeed.append(EmployeeChange.Type.DELETED, List.of(current));
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(position);
+        changeFeed.publish(sequence);
+        timings.record(RepositoryTimings.Operation.DELETE, System.nanoTime() - start);
+        return Optional.of(current);
+    }
+
+    /**
+     * Writes a snapshot of all employees to the journal so that recovery no longer has to replay the log
+     * written so far. Only the log rotation happens under the write lock; rows are immutable once stored, so
+     * the snapshot is written while writes continue.
+     */
+    public void snapshot() {
+        long generation;
+        List<Employee> employees;
+        int[] deleted;
+        writeLock.lock();
+        try {
+            generation = journal.rotate();
+            employees = getAllEmployees();
+            deleted = Arrays.copyOf(deletedIds, deletedCount);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.writeSnapshot(generation, employees, deleted);
+    }
+
+    /**
+     * Reclaims the row versions that were superseded or deleted at least {@code retention} ago, which only reads
+     * that started before then can still see. Such reads fail with {@link SnapshotTooOldException} from then on
+     * rather than return incomplete results. The rows are released by the store and removed from the secondary
+     * indexes and the name index, so neither memory nor index scans keep growing with dead versions. The
+     * primary-key index keeps pointing deleted IDs at their tombstones, which is what keeps the IDs from being
+     * assigned again. If removals left the maintained aggregates without exact bounds, they are then rebuilt
+     * without holding up writers (see {@link #rebuildAggregates()}).
+     * <p>
+     * Retention is measured against the sizes recorded by earlier calls, so it takes effect with the granularity
+     * of the calling interval.
+     *
+     * @param retention How long a read is guaranteed to see its snapshot.
+     * @return Number of rows reclaimed.
+     */
+    public int reclaimVersions(Duration retention) {
+        long now = System.nanoTime();
+        int reclaimed;
+        reclaimLock.lock();
+        try {
+            reclaimed = reclaimVersions(now, retention);
+            if (!aggregates.hasExactBounds()) {
+                rebuildAggregates();
+            }
+        } finally {
+            reclaimLock.unlock();
+        }
+        return reclaimed;
+    }
+
+    private int reclaimVersions(long now, Duration retention) {
+        writeLock.lock();
+        try {
+            sizeSamples.addLast(new SizeSample(now, size));
+            int horizon = 0;
+            while (!sizeSamples.isEmpty() && now - sizeSamples.peekFirst().nanos() >= retention.toNanos()) {
+                horizon = sizeSamples.pollFirst().size();
+            }
+
+            int reclaimableUpTo = rowVersions.reclaimableUpTo(horizon);
+            if (reclaimableUpTo > oldestReadableSnapshot) {
+                // Published before any row goes, so a reader that sees a reclaimed row also sees that it is too old.
+                oldestReadableSnapshot = reclaimableUpTo;
+            }
+            List<Employee> employees = new ArrayList<>();
+            IntStream.Builder rows = IntStream.builder();
+            int reclaimed = rowVersions.reclaim(reclaimableUpTo, row -> {
+                // Tombstones are never indexed.
+                if (!rowVersions.isTombstone(row)) {
+                    employees.add(store.read(row));
+                    rows.add(row);
+                }
+                store.reclaim(row);
+            });
+            if (!employees.isEmpty()) {
+                int[] sorted = rows.build().sorted().toArray();
+                IntPredicate removed = row -> Arrays.binarySearch(sorted, row) >= 0;
+                queryPlanner.unindex(employees, removed);
+                if (namesIndexed) {
+                    // Rows reclaimed while a build was running may stay in the name index; searches skip them.
+                    nameIndex.removeAll(employees.stream().map(Employee::getName).toList(), removed);
+                }
+            }
+            return reclaimed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the maintained aggregates from the rows of a snapshot, without holding the write lock, and swaps
+     * them in once the changes written meanwhile are replayed on them. Concurrent callers wait for one rebuild.
+     *
+     * @return The maintained aggregates. They may already lack exact bounds again if a replayed change removed a
+     *         lowest or highest salary.
+     */
+    private EmployeeAggregates rebuildAggregates() {
+        reclaimLock.lock();
+        try {
+            int snapshot;
+            writeLock.lock();
+            try {
+                if (aggregates.hasExactBounds()) {
+                    return aggregates;
+                }
+                snapshot = size;
+                aggregateChanges = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            EmployeeAggregates rebuilt = null;
+            try {
+                rebuilt = ForkJoinPool.commonPool()
+                    .invoke(new AggregationTask(NO_FILTER, EnumSet.allOf(Grouping.class), 0, snapshot, snapshot));
+            } finally {
+                writeLock.lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Consumer<EmployeeAggregates> change : aggregateChanges) {
+                            change.accept(rebuilt);
+                        }
+                        aggregates = rebuilt;
+                    }
+                    aggregateChanges = null;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+            return rebuilt;
+        } finally {
+            reclaimLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the feed of employee changes. Each saved, updated or deleted employee is published once, in the
+     * order writes are applied, together with the rest of its batch.
+     *
+     * @return The change feed.
+     */
+    public EmployeeChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Returns a counter that changes whenever employees are saved, updated or deleted, so callers can tell whether
+     * data derived from an earlier read is still current.
+     *
+     * @return The current data version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Finds an employee by ID.
+     *
+     * @param id The ID of the employee to find.
+     * @return An Optional containing the current version of the found employee or empty if not found.
+     */
+    public Optional<Employee> findById(int id) {
+        long start = System.nanoTime();
+        Optional<Employee> employee = Optional.ofNullable(readCurrent(id));
+        timings.record(RepositoryTimings.Operation.FIND_BY_ID, System.nanoTime() - start);
+        return employee;
+    }
+
+    /**
+     * Finds the employees with the given IDs in one pass over the primary-key index.
+     *
+     * @param ids The IDs to find.
+     * @return One entry per ID, in the same order: the current version of the employee, or {@code null} if the
+     *         ID is not found.
+     */
+    public Employee[] findAllById(int[] ids) {
+        long start = System.nanoTime();
+        Employee[] employees = new Employee[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            employees[i] = readCurrent(ids[i]);
+        }
+        timings.record(RepositoryTimings.Operation.FIND_ALL_BY_ID, System.nanoTime() - start);
+        return employees;
+    }
+
+    private void insertDefaults() {
+        insert(Employee.builder()
             .id(1)
             .name("John Doe")
             .age(28)
@@ -32,7 +710,7 @@ public class EmployeeRepository {
             .salary(70000.0)
             .build());
 
-        employees.add(Employee.builder()
+        insert(Employee.builder()
             .id(2)
             .name("Jane Smith")
             .age(32)
@@ -42,7 +720,7 @@ public class EmployeeRepository {
             .salary(60000.0)
             .build());
 
-        employees.add(Employee.builder()
+        insert(Employee.builder()
             .id(3)
             .name("Alice Brown")
             .age(25)
@@ -52,7 +730,7 @@ public class EmployeeRepository {
             .salary(50000.0)
             .build());
 
-        employees.add(Employee.builder()
+        insert(Employee.builder()
             .id(4)
             .name("Bob Johnson")
             .age(30)
@@ -64,45 +742,580 @@ public class EmployeeRepository {
     }
 
     /**
-     * Retrieves all employees.
+     * Indexes the rows a store was created with. Only the indexed attributes are read, straight from the store's
+     * columns where it has them, so neither names nor {@link Employee} objects are materialized at startup.
+     */
+    private void indexLoaded(int rows) {
+        writeLock.lock();
+        try {
+            store.forEachLoaded((row, id, age, department, position, hiringYear, salary) -> {
+                idAllocator.observe(id);
+                rowsById.put(id, row);
+                queryPlanner.index(row, age, department, position, hiringYear, salary);
+                aggregates.add(age, department, position, hiringYear, salary);
+            });
+            employeeCount = rows;
+            publishSize(rows);
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void insert(Employee employee) {
+        // In a sharded deployment each built-in employee is kept by the shard owning its ID only.
+        if (!idAllocator.owns(employee.getId())) {
+            return;
+        }
+        idAllocator.observe(employee.getId());
+        insertAll(List.of(employee));
+    }
+
+    /**
+     * Applies a batch replayed by the journal. Snapshots include the built-in or dataset employees, which are
+     * already present at this point, so known IDs are skipped unless the snapshot holds a different version.
+     * Deleted IDs are observed even if they are unknown, so they are never assigned again.
+     */
+    private void applyRecovered(EmployeeChange.Type type, List<Employee> batch) {
+        writeLock.lock();
+        try {
+            List<Employee> missing = new ArrayList<>(batch.size());
+            for (Employee employee : batch) {
+                int id = employee.getId();
+                idAllocator.observe(id);
+                int row = currentRow(id);
+                if (row >= 0 && type != EmployeeChange.Type.ADDED) {
+                    checkReclaimsRows();
+                }
+                if (type == EmployeeChange.Type.DELETED) {
+                    if (row >= 0) {
+                        remove(row, store.read(row));
+                    } else if (!rowsById.containsKey(id)) {
+                        recordDeleted(id);
+                    }
+                } else if (row >= 0) {
+                    Employee current = store.read(row);
+                    if (!current.equals(employee)) {
+                        replace(row, current, employee);
+                    }
+                } else if (!rowsById.containsKey(id)) {
+                    missing.add(employee);
+                }
+            }
+            insertAll(missing);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return The row holding the current version of the employee, or -1 if the ID is unknown or deleted.
+     */
+    private int currentRow(int id) {
+        int row = rowsById.get(id);
+        return row < 0 || rowVersions.isTombstone(row) ? -1 : row;
+    }
+
+    /**
+     * Reads the current version of an employee without locking.
      *
-     * @return List of all employees.
+     * @return The employee, or {@code null} if the ID is unknown or deleted.
      */
-    public List<Employee> getAllEmployees() {
-        return employees;
+    private Employee readCurrent(int id) {
+        for (int row = rowsById.get(id); row >= 0 && !rowVersions.isTombstone(row); row = rowsById.get(id)) {
+            Employee employee = store.read(row);
+            if (employee != null) {
+                return employee;
+            }
+            // The row was superseded and reclaimed after the lookup; the index points to a newer one by now.
+        }
+        return null;
+    }
+
+    private static void checkVersion(Employee current, long expectedVersion) {
+        if (expectedVersion != 0 && current.getVersion() != expectedVersion) {
+            throw new VersionConflictException(current.getId(), expectedVersion, current.getVersion());
+        }
     }
 
     /**
-     * Retrieves all available departments.
+     * @return The stored employees.
+     */
+    private List<Employee> insertAll(List<Employee> batch) {
+        writeLock.lock();
+        try {
+            List<Employee> stored = new ArrayList<>(batch.size());
+            int row = size;
+            for (Employee employee : batch) {
+                Employee written = store.write(row, employee);
+                rowsById.put(written.getId(), row);
+                queryPlanner.index(written, row);
+                if (namesIndexed) {
+                    nameIndex.add(written.getName(), row);
+                }
+                stored.add(written);
+                row++;
+            }
+            updateAggregates(maintained -> maintained.addAll(stored));
+            employeeCount += stored.size();
+            publishSize(row);
+            version++;
+            return stored;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a new version of an employee and retires the row of the previous one. Called under the write lock.
      *
-     * @return List of department names.
+     * @return The stored new version.
      */
-    public List<String> getDepartments() {
-        return new ArrayList<>(departments);
+    private Employee replace(int previousRow, Employee previous, Employee employee) {
+        int row = size;
+        Employee updated = store.write(row, employee);
+        rowsById.put(updated.getId(), row);
+        queryPlanner.index(updated, row);
+        if (namesIndexed) {
+            nameIndex.add(updated.getName(), row);
+        }
+        rowVersions.supersede(previousRow, row + 1);
+        updateAggregates(maintained -> maintained.replace(previous, updated));
+        publishSize(row + 1);
+        version++;
+        return updated;
+    }
+
+    /**
+     * Appends a tombstone for an employee and retires the row of its current version. The tombstone keeps the
+     * attributes of the deleted version, which keeps the stores' rows complete; it is never indexed or visible.
+     * Called under the write lock.
+     */
+    private void remove(int previousRow, Employee previous) {
+        int row = size;
+        rowVersions.tombstone(row);
+        store.write(row, previous);
+        rowsById.put(previous.getId(), row);
+        rowVersions.supersede(previousRow, row + 1);
+        updateAggregates(maintained -> maintained.removeAll(List.of(previous)));
+        recordDeleted(previous.getId());
+        employeeCount--;
+        publishSize(row + 1);
+        version++;
+    }
+
+    /**
+     * Applies a change to the maintained aggregates, and records it for the rebuild in progress, if any. Called
+     * under the write lock.
+     */
+    private void updateAggregates(Consumer<EmployeeAggregates> change) {
+        change.accept(aggregates);
+        if (aggregateChanges != null) {
+            aggregateChanges.add(change);
+        }
+    }
+
+    /**
+     * Publishes a commit to readers. Called under the write lock once the rows, marks and indexes are written.
+     */
+    private void publishSize(int newSize) {
+        sizeAndEmployees = (long) newSize << 32 | employeeCount;
+        size = newSize;
+    }
+
+    /**
+     * Superseded and deleted rows are only ever released by stores that reclaim rows; elsewhere every update
+     * would leak its previous version for good.
+     */
+    private void checkReclaimsRows() {
+        if (!store.reclaimsRows()) {
+            throw new UnsupportedOperationException(
+                "Employees cannot be updated or deleted on a store that does not reclaim rows");
+        }
+    }
+
+    private void recordDeleted(int id) {
+        if (deletedCount == deletedIds.length) {
+            deletedIds = Arrays.copyOf(deletedIds, deletedCount * 2);
+        }
+        deletedIds[deletedCount++] = id;
     }
 
     /**
-     * Saves an employee to the repository by assigning them a random unique ID.
+     * Starts building the name index unless a build is running, and waits for it. A caller that gives up stops
+     * waiting; the build carries on for the next search. A failed build is dropped, and the next search starts
+     * another.
      *
-     * @param employee The employee to save.
-     * @return The created employee with a unique ID.
+     * @throws CancellationException if {@code cancelled} returned {@code true} before the index was ready.
+     * @throws IllegalStateException if the build failed.
      */
-    public Employee save(Employee employee) {
-        employee.setId(Math.abs(random.nextInt()));
-        employees.add(employee);
+    private void awaitNameIndex(BooleanSupplier cancelled) {
+        CompletableFuture<Void> build = nameIndexBuild.get();
+        if (build == null) {
+            synchronized (nameIndex) {
+                build = nameIndexBuild.get();
+                if (build == null) {
+                    build = CompletableFuture.runAsync(this::indexNames, task -> {
+                        Thread thread = new Thread(task, "employee-name-indexer");
+                        thread.setDaemon(true);
+                        thread.start();
+                    });
+                    nameIndexBuild.set(build);
+                }
+            }
+        }
+
+        while (true) {
+            try {
+                build.get(NAME_INDEX_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Search cancelled while names were being indexed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Search interrupted while names were being indexed");
+            } catch (ExecutionException e) {
+                nameIndexBuild.compareAndSet(build, null);
+                throw new IllegalStateException("Indexing names failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Indexes the names of the stored rows without holding the write lock, then, under the lock, the few rows
+     * saved meanwhile, and hands the index over to the writer. Until then this is the index's only writer.
+     */
+    private void indexNames() {
+        // A failed earlier build may have left some of the rows indexed.
+        nameIndex.clear();
+        int indexed = indexNames(0, size);
+        for (int stored = size; stored - indexed > SCAN_CHUNK_ROWS; stored = size) {
+            indexed = indexNames(indexed, stored);
+        }
+        writeLock.lock();
+        try {
+            indexNames(indexed, size);
+            namesIndexed = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code to}, the first row left to index.
+     */
+    private int indexNames(int from, int to) {
+        for (int row = from; row < to; row++) {
+            Employee employee = store.read(row);
+            // Reclaimed rows are visible to no current snapshot.
+            if (employee != null) {
+                nameIndex.add(employee.getName(), row);
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Reads a row that a snapshot sees.
+     *
+     * @throws SnapshotTooOldException if the row has been reclaimed.
+     */
+    private Employee read(int row, int snapshot) {
+        Employee employee = store.read(row);
+        if (employee == null) {
+            throw new SnapshotTooOldException(snapshot);
+        }
+        return employee;
+    }
 
-        departments.add(employee.getDepartment());
+    private Employee readIndexed(int row, int snapshot) {
+        Employee employee = store.readIndexed(row);
+        if (employee == null) {
+            throw new SnapshotTooOldException(snapshot);
+        }
         return employee;
     }
 
     /**
-     * Finds an employee by ID.
+     * Fails a read whose snapshot lost rows to reclamation while it ran. Matchers skip reclaimed rows rather than
+     * report them, so reads check this once they have selected their rows.
      *
-     * @param id The ID of the employee to find.
-     * @return An Optional containing the found employee or empty if not found.
+     * @throws SnapshotTooOldException if the snapshot is no longer readable.
      */
-    public Optional<Employee> findById(int id) {
-        return employees.stream().filter(employee -> employee.getId() == id).findFirst();
+    private void checkReadable(int snapshot) {
+        if (snapshot < oldestReadableSnapshot) {
+            throw new SnapshotTooOldException(snapshot);
+        }
+    }
+
+    /**
+     * @param needsBounds Whether the caller reports minimum and maximum salaries, which the maintained aggregates
+     *                    may no longer know exactly.
+     */
+    private EmployeeAggregates aggregatesOf(EmployeeFilter filter, Grouping grouping, boolean needsBounds) {
+        if (NO_FILTER.equals(filter)) {
+            EmployeeAggregates maintained = aggregates;
+            if (!needsBounds || maintained.hasExactBounds()) {
+                return maintained;
+            }
+            maintained = rebuildAggregates();
+            if (maintained.hasExactBounds()) {
+                return maintained;
+            }
+        }
+
+        int snapshot = size;
+        RowCursor candidates = queryPlanner.candidates(filter, 0, snapshot);
+        EmployeeAggregates result;
+        if (candidates == null) {
+            result = ForkJoinPool.commonPool()
+                .invoke(new AggregationTask(filter, EnumSet.of(grouping), 0, snapshot, snapshot));
+        } else {
+            // An index narrowed the rows down; checking them is cheaper than forking.
+            EmployeeStore.RowMatcher matcher = store.matcher(filter);
+            List<Employee> matching = new ArrayList<>();
+            for (int row = candidates.next(); row >= 0; row = candidates.next()) {
+                if (rowVersions.isVisible(row, snapshot) && matcher.matches(row)) {
+                    matching.add(readIndexed(row, snapshot));
+                }
+            }
+            result = new EmployeeAggregates(EnumSet.of(grouping));
+            result.addAll(matching);
+        }
+        checkReadable(snapshot);
+        return result;
+    }
+
+    /**
+     * Selects the rows of {@code [from, to)} that match and that the snapshot {@code to} sees, chunk by chunk on
+     * the common fork-join pool.
+     *
+     * @return Matching rows in ascending order.
+     */
+    private int[] selectParallel(EmployeeFilter filter, int from, int to, BooleanSupplier cancelled) {
+        int chunks = (to - from + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+        List<int[]> selections = IntStream.range(0, chunks)
+            .parallel()
+            .mapToObj(chunk -> {
+                int chunkFrom = from + chunk * PARALLEL_CHUNK_ROWS;
+                int chunkTo = Math.min(to, chunkFrom + PARALLEL_CHUNK_ROWS);
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Scan cancelled");
+                }
+                int[] selection = new int[chunkTo - chunkFrom];
+                int selected = store.matcher(filter).select(chunkFrom, chunkTo, selection);
+                selected = rowVersions.retainVisible(selection, selected, to);
+                return Arrays.copyOf(selection, selected);
+            })
+            .toList();
+
+        int[] rows = new int[selections.stream().mapToInt(selection -> selection.length).sum()];
+        int position = 0;
+        for (int[] selection : selections) {
+            System.arraycopy(selection, 0, rows, position, selection.length);
+            position += selection.length;
+        }
+        return rows;
+    }
+
+    /**
+     * Cursor over the row numbers matching a filter that a snapshot sees. Index candidates are checked one by one;
+     * without candidates the store selects matching rows chunk by chunk. Cancellation and whether the snapshot is
+     * still readable are checked once per chunk of rows or candidates.
+     */
+    private final class MatchingRows {
+
+        private final EmployeeStore.RowMatcher matcher;
+        private final RowCursor candidates;
+        /**
+         * End of the rows to scan, which is also the snapshot.
+         */
+        private final int end;
+        private final int[] selection;
+        private final BooleanSupplier cancelled;
+        private int position;
+        private int selected;
+        private int selectionPosition;
+
+        /**
+         * @param candidates Candidate rows from {@code fromRow} on, or {@code null} to scan every row from it.
+         */
+        private MatchingRows(EmployeeStore.RowMatcher matcher, RowCursor candidates, int fromRow, int end,
+                             BooleanSupplier cancelled) {
+            this.matcher = matcher;
+            this.candidates = candidates;
+            this.end = end;
+            this.cancelled = cancelled;
+            this.position = candidates == null ? fromRow : 0;
+            this.selection = candidates == null ? new int[SCAN_CHUNK_ROWS] : null;
+        }
+
+        /**
+         * @return The next matching row, or -1 when there are no more.
+         * @throws CancellationException if the scan was cancelled.
+         * @throws SnapshotTooOldException if the snapshot is no longer readable.
+         */
+        private int next() {
+            if (candidates != null) {
+                for (int row = candidates.next(); row >= 0; row = candidates.next()) {
+                    // Counts the candidates read, to check for cancellation once per chunk of them.
+                    if (position++ % SCAN_CHUNK_ROWS == 0) {
+                        checkChunk();
+                    }
+                    if (rowVersions.isVisible(row, end) && matcher.matches(row)) {
+                        return row;
+                    }
+                }
+                checkReadable(end);
+                return -1;
+            }
+
+            while (selectionPosition == selected) {
+                if (position >= end) {
+                    checkReadable(end);
+                    return -1;
+                }
+                checkChunk();
+                int to = Math.min(end, position + SCAN_CHUNK_ROWS);
+                selected = rowVersions.retainVisible(selection, matcher.select(position, to, selection), end);
+                selectionPosition = 0;
+                position = to;
+            }
+            return selection[selectionPosition++];
+        }
+
+        private void checkChunk() {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Scan cancelled");
+            }
+            checkReadable(end);
+        }
+    }
+
+    /**
+     * Aggregates the matching rows of {@code [from, to)} that a snapshot sees, splitting the range across the
+     * fork-join pool.
+     */
+    private final class AggregationTask extends RecursiveTask<EmployeeAggregates> {
+
+        private final EmployeeFilter filter;
+        private final Set<Grouping> groupings;
+        private final int from;
+        private final int to;
+        private final int snapshot;
+
+        private AggregationTask(EmployeeFilter filter, Set<Grouping> groupings, int from, int to, int snapshot) {
+            this.filter = filter;
+            this.groupings = groupings;
+            this.from = from;
+            this.to = to;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected EmployeeAggregates compute() {
+            if (to - from > AGGREGATION_TASK_ROWS) {
+                int middle = (from + to) >>> 1;
+                AggregationTask left = new AggregationTask(filter, groupings, from, middle, snapshot);
+                left.fork();
+                EmployeeAggregates result = new AggregationTask(filter, groupings, middle, to, snapshot).compute();
+                result.merge(left.join());
+                return result;
+            }
+
+            EmployeeAggregates result = new EmployeeAggregates(groupings);
+            EmployeeStore.RowMatcher matcher = store.matcher(filter);
+            int[] selection = new int[SCAN_CHUNK_ROWS];
+            List<Employee> matching = new ArrayList<>(SCAN_CHUNK_ROWS);
+            for (int chunk = from; chunk < to; chunk += SCAN_CHUNK_ROWS) {
+                int selected = matcher.select(chunk, Math.min(to, chunk + SCAN_CHUNK_ROWS), selection);
+                selected = rowVersions.retainVisible(selection, selected, snapshot);
+                for (int i = 0; i < selected; i++) {
+                    matching.add(readIndexed(selection[i], snapshot));
+                }
+                result.addAll(matching);
+                matching.clear();
+            }
+            return result;
+        }
     }
 
-}
\ No newline at end of file
+    /**
+     * The employees a snapshot sees, read lazily. While no row below the snapshot has died the list index is the row
+     * number. Otherwise rows are walked from the nearest known position, which is remembered, so iterating in order
+     * costs O(1) per element and nothing is collected up front.
+     */
+    private final class EmployeeSnapshot extends AbstractList<Employee> implements RandomAccess {
+
+        private final int snapshot;
+        private final int employees;
+        /**
+         * The last row read and its index. Replaced as a whole, so concurrent readers at worst walk further.
+         */
+        private Position last = new Position(0, 0);
+
+        private EmployeeSnapshot(int snapshot, int employees) {
+            this.snapshot = snapshot;
+            this.employees = employees;
+        }
+
+        @Override
+        public Employee get(int index) {
+            if (index < 0 || index >= employees) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + employees);
+            }
+            if (employees == snapshot) {
+                return read(index, snapshot);
+            }
+
+            // Walks from the closest of the remembered position and either end; the end is one row past the last.
+            Position from = last;
+            if (index < Math.abs(index - from.index())) {
+                from = new Position(0, 0);
+            } else if (employees - index < Math.abs(index - from.index())) {
+                from = new Position(employees, snapshot);
+            }
+            int row = from.row();
+            for (int i = from.index(); i < index; i++) {
+                row = nextVisible(row) + 1;
+            }
+            for (int i = from.index(); i > index; i--) {
+                row = previousVisible(row - 1);
+            }
+            row = nextVisible(row);
+            last = new Position(index, row);
+            return read(row, snapshot);
+        }
+
+        @Override
+        public int size() {
+            return employees;
+        }
+
+        private int nextVisible(int row) {
+            while (!rowVersions.isVisible(row, snapshot)) {
+                row++;
+            }
+            return row;
+        }
+
+        private int previousVisible(int row) {
+            while (!rowVersions.isVisible(row, snapshot)) {
+                row--;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * @param index Index in a snapshot list.
+     * @param row   Row from which the element at the index is the next visible one.
+     */
+    private record Position(int index, int row) {
+    }
+
+    private record SizeSample(long nanos, int size) {
+    }
+}
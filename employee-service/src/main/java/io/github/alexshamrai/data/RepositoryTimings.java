@@ -0,0 +1,32 @@
+package io.github.alexshamrai.data;
+
+/**
+ * Receives the duration of repository operations. Implementations are called on every lookup, save and
+ * filter, so they must not allocate or block.
+ */
+public interface RepositoryTimings {
+
+    /**
+     * Timings that are discarded.
+     */
+    RepositoryTimings NONE = (operation, nanos) -> {
+    };
+
+    /**
+     * Records the duration of one operation.
+     *
+     * @param operation The operation that completed.
+     * @param nanos     Its duration in nanoseconds.
+     */
+    void record(Operation operation, long nanos);
+
+    enum Operation {
+        FIND_BY_ID,
+        FIND_ALL_BY_ID,
+        SAVE,
+        UPDATE,
+        DELETE,
+        FILTER,
+        SEARCH
+    }
+}
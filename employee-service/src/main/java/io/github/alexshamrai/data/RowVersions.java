@@ -0,0 +1,182 @@
+package io.github.alexshamrai.data;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Lifetimes of the row versions behind {@code EmployeeRepository}'s snapshot reads.
+ * <p>
+ * A snapshot is the repository size a reader started with. Every commit appends at least one row, so a row that
+ * an update supersedes, or a delete removes, is marked dead from the size that commit publishes: snapshots taken
+ * before still see it, later ones do not. Tombstone rows written by deletes are never visible at all.
+ * <p>
+ * Marks are written by the single repository writer before it publishes the new size, into pages that are never
+ * moved once allocated, so a reader that reads the size first sees every mark that concerns its snapshot. Pages
+ * are only allocated once a row in them dies, and only published fully filled; rows of a missing page are alive.
+ * Dead rows are also queued in the order they died until they are reclaimed.
+ * <p>
+ * Marks stay after a row is reclaimed, but selections need not consult them any more: the store no longer matches a
+ * reclaimed row. So only rows that died and are not reclaimed yet make selections check visibility.
+ */
+final class RowVersions {
+
+    private static final int PAGE_SHIFT = 14;
+    private static final int PAGE_ROWS = 1 << PAGE_SHIFT;
+    private static final int LIVE = Integer.MAX_VALUE;
+    private static final int TOMBSTONE = 0;
+
+    private volatile int[][] pages = new int[64][];
+    /**
+     * Rows that died and are not reclaimed yet. Written by the single writer only.
+     */
+    private volatile int deadRows;
+
+    /**
+     * Dead rows waiting for reclamation, each packed as {@code deadFrom << 32 | row}, in the order they died and so
+     * in ascending {@code deadFrom}.
+     */
+    private long[] reclaimQueue = new long[1024];
+    private int queueHead;
+    private int queueSize;
+
+    /**
+     * Marks a row superseded by a commit. Must be called by the single writer before it publishes the size.
+     *
+     * @param row      The superseded row.
+     * @param deadFrom Size published by the commit; snapshots at least this large no longer see the row.
+     */
+    void supersede(int row, int deadFrom) {
+        mark(row, deadFrom, deadFrom);
+    }
+
+    /**
+     * Marks a row as a tombstone, which no snapshot sees. Must be called by the single writer before the row is
+     * published, in the primary-key index or through the size.
+     *
+     * @param row The tombstone row.
+     */
+    void tombstone(int row) {
+        mark(row, TOMBSTONE, row + 1);
+    }
+
+    /**
+     * @param row      A row below the snapshot.
+     * @param snapshot The reader's snapshot.
+     * @return true if the row holds the version of its employee that the snapshot sees.
+     */
+    boolean isVisible(int row, int snapshot) {
+        int[] page = page(row);
+        return page == null || page[row & (PAGE_ROWS - 1)] > snapshot;
+    }
+
+    /**
+     * @param row A row the primary-key index points to.
+     * @return true if the row records the deletion of its employee.
+     */
+    boolean isTombstone(int row) {
+        int[] page = page(row);
+        return page != null && page[row & (PAGE_ROWS - 1)] == TOMBSTONE;
+    }
+
+    /**
+     * Removes the rows a snapshot does not see from a selection, keeping the order of the others.
+     *
+     * @param rows     Rows below the snapshot, in ascending order.
+     * @param count    Number of rows in use.
+     * @param snapshot The reader's snapshot.
+     * @return The number of rows kept at the start of the array.
+     */
+    int retainVisible(int[] rows, int count, int snapshot) {
+        if (deadRows == 0) {
+            return count;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (isVisible(row, snapshot)) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @param horizon Snapshots below this size may lose rows.
+     * @return The largest {@code deadFrom} among the queued rows that {@link #reclaim} would hand out for the
+     *         horizon, or 0 if there are none.
+     */
+    synchronized int reclaimableUpTo(int horizon) {
+        int upTo = 0;
+        for (int i = 0; i < queueSize; i++) {
+            int deadFrom = (int) (reclaimQueue[(queueHead + i) & (reclaimQueue.length - 1)] >>> 32);
+            if (deadFrom > horizon) {
+                break;
+            }
+            upTo = deadFrom;
+        }
+        return upTo;
+    }
+
+    /**
+     * Takes the queued rows that died no later than the given size. Must be called by the single writer.
+     *
+     * @param upTo     Largest {@code deadFrom} to take.
+     * @param consumer Receives each row and must release it in the store, so that the store no longer matches it.
+     * @return Number of rows taken.
+     */
+    synchronized int reclaim(int upTo, IntConsumer consumer) {
+        int reclaimed = 0;
+        while (queueSize > 0) {
+            long entry = reclaimQueue[queueHead];
+            if ((int) (entry >>> 32) > upTo) {
+                break;
+            }
+            consumer.accept((int) entry);
+            queueHead = (queueHead + 1) & (reclaimQueue.length - 1);
+            queueSize--;
+            reclaimed++;
+        }
+        // Only after the store released the rows, so that a selection that skips the visibility check never sees them.
+        deadRows -= reclaimed;
+        return reclaimed;
+    }
+
+    private void mark(int row, int deadFrom, int queuedDeadFrom) {
+        int pageIndex = row >>> PAGE_SHIFT;
+        int[][] current = pages;
+        int[] page = pageIndex < current.length ? current[pageIndex] : null;
+        if (page == null) {
+            // A new page goes into a fresh copy of the outer array, so the volatile write that publishes the copy
+            // also publishes the filled page; readers of the previous array keep seeing no page, which means alive.
+            page = new int[PAGE_ROWS];
+            Arrays.fill(page, LIVE);
+            int length = pageIndex < current.length ? current.length : Math.max(current.length << 1, pageIndex + 1);
+            current = Arrays.copyOf(current, length);
+            current[pageIndex] = page;
+        }
+        page[row & (PAGE_ROWS - 1)] = deadFrom;
+        deadRows++;
+        pages = current;
+        enqueue(row, queuedDeadFrom);
+    }
+
+    private synchronized void enqueue(int row, int deadFrom) {
+        if (queueSize == reclaimQueue.length) {
+            long[] grown = new long[reclaimQueue.length << 1];
+            for (int i = 0; i < queueSize; i++) {
+                grown[i] = reclaimQueue[(queueHead + i) & (reclaimQueue.length - 1)];
+            }
+            reclaimQueue = grown;
+            queueHead = 0;
+        }
+        reclaimQueue[(queueHead + queueSize) & (reclaimQueue.length - 1)] = (long) deadFrom << 32 | row;
+        queueSize++;
+    }
+
+    private int[] page(int row) {
+        int[][] current = pages;
+        int pageIndex = row >>> PAGE_SHIFT;
+        return pageIndex < current.length ? current[pageIndex] : null;
+    }
+}
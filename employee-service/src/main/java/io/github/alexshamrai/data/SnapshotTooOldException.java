@@ -0,0 +1,12 @@
+package io.github.alexshamrai.data;
+
+/**
+ * Thrown when a read outlives the version retention: row versions its snapshot needs have been reclaimed since
+ * the read started. Retrying starts from a current snapshot.
+ */
+public class SnapshotTooOldException extends RuntimeException {
+
+    public SnapshotTooOldException(int snapshot) {
+        super("Snapshot " + snapshot + " is older than the retained row versions");
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.alexshamrai.data;
+
+/**
+ * Thrown when a conditional update or delete expected a different version of the employee than the current one.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public VersionConflictException(int id, long expectedVersion, long currentVersion) {
+        super("Employee " + id + " is at version " + currentVersion + ", not " + expectedVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
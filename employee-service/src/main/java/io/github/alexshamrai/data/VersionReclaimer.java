@@ -0,0 +1,63 @@
+package io.github.alexshamrai.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically reclaims the row versions that updates and deletes left behind once they are older than the
+ * retention, which bounds the memory they hold and how long reads may run before they fail as too old.
+ */
+@Slf4j
+@Component
+public class VersionReclaimer implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Value("${employee.versions.retention:1m}")
+    private Duration retention;
+
+    @Value("${employee.versions.reclaim-interval:10s}")
+    private Duration reclaimInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-version-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reclaimInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reclaim, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void reclaim() {
+        try {
+            int reclaimed = employeeRepository.reclaimVersions(retention);
+            if (reclaimed > 0) {
+                log.debug("Reclaimed {} employee row versions", reclaimed);
+            }
+        } catch (RuntimeException e) {
+            // Unreclaimed versions stay queued; try again next interval.
+            log.warn("Employee version reclamation failed", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.alexshamrai.data.aggregate;
+
+/**
+ * Numeric attribute a histogram is built over.
+ */
+public enum AggregateField {
+    AGE,
+    SALARY
+}
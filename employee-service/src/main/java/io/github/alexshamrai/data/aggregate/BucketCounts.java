@@ -0,0 +1,57 @@
+package io.github.alexshamrai.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Counts per int key over a dense, growable range of keys.
+ */
+final class BucketCounts {
+
+    private long[] counts = new long[0];
+    private int firstKey;
+
+    void add(int key, long count) {
+        if (counts.length == 0) {
+            counts = new long[1];
+            firstKey = key;
+        } else if (key < firstKey) {
+            long[] grown = new long[counts.length + (firstKey - key)];
+            System.arraycopy(counts, 0, grown, firstKey - key, counts.length);
+            counts = grown;
+            firstKey = key;
+        } else if (key >= firstKey + counts.length) {
+            counts = Arrays.copyOf(counts, key - firstKey + 1);
+        }
+        counts[key - firstKey] += count;
+    }
+
+    void merge(BucketCounts other) {
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                add(other.firstKey + i, other.counts[i]);
+            }
+        }
+    }
+
+    BucketCounts copy() {
+        BucketCounts copy = new BucketCounts();
+        copy.counts = counts.clone();
+        copy.firstKey = firstKey;
+        return copy;
+    }
+
+    int firstKey() {
+        return firstKey;
+    }
+
+    int keys() {
+        return counts.length;
+    }
+
+    /**
+     * @param index Offset from {@link #firstKey()}.
+     */
+    long countAt(int index) {
+        return counts[index];
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.alexshamrai.data.aggregate;
+
+import io.github.alexshamrai.data.Employee;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Salary statistics per group and age and salary histograms, updated as employees are added and removed so that
+ * queries cost O(groups) instead of a table scan.
+ * <p>
+ * Updates come from the single repository writer. Readers copy the state they need under an optimistic
+ * {@link StampedLock} read and only take the read lock if a write interleaved with the copy.
+ */
+public class EmployeeAggregates {
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<Grouping, Map<String, SalaryAccumulator>> groups = new EnumMap<>(Grouping.class);
+    private final BucketCounts ages = new BucketCounts();
+    private volatile boolean exactBounds = true;
+
+    /**
+     * Creates aggregates for every grouping.
+     */
+    public EmployeeAggregates() {
+        this(EnumSet.allOf(Grouping.class));
+    }
+
+    /**
+     * Creates aggregates for the given groupings. Ungrouped statistics are always kept, since the salary
+     * histogram is derived from them.
+     *
+     * @param groupings Groupings to maintain.
+     */
+    public EmployeeAggregates(Set<Grouping> groupings) {
+        groups.put(Grouping.NONE, new ConcurrentHashMap<>());
+        for (Grouping grouping : groupings) {
+            groups.put(grouping, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Adds employees to every aggregate. Must be called by a single writer.
+     *
+     * @param batch Employees to add.
+     */
+    public void addAll(List<Employee> batch) {
+        long stamp = lock.writeLock();
+        try {
+            for (Employee employee : batch) {
+                add(employee);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds one employee given by its aggregated attributes, for callers that hold no {@link Employee}, such as
+     * the indexing of a dataset at startup. Must be called by a single writer.
+     */
+    public void add(int age, String department, String position, int hiringYear, double salary) {
+        long stamp = lock.writeLock();
+        try {
+            addUnlocked(age, department, position, hiringYear, salary);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes employees added before, such as the previous versions of updated employees. Must be called by the
+     * single writer. Groups left without employees disappear.
+     *
+     * @param batch Employees to remove.
+     */
+    public void removeAll(List<Employee> batch) {
+        long stamp = lock.writeLock();
+        try {
+            for (Employee employee : batch) {
+                remove(employee);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces one employee by another in a single step, so readers never see neither or both. Must be called by
+     * the single writer.
+     *
+     * @param previous An employee added before.
+     * @param next     The employee to add instead.
+     */
+    public void replace(Employee previous, Employee next) {
+        long stamp = lock.writeLock();
+        try {
+            remove(previous);
+            add(next);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return false once a removal took away the lowest or highest salary of a group that still has employees.
+     *         Counts, sums, percentiles and histograms stay exact, but the minimum and maximum of such a group can
+     *         only be restored by aggregating its rows again.
+     */
+    public boolean hasExactBounds() {
+        return exactBounds;
+    }
+
+    /**
+     * Adds everything aggregated by another instance, which must not be modified concurrently.
+     *
+     * @param other Aggregates to merge into this one.
+     */
+    public void merge(EmployeeAggregates other) {
+        long stamp = lock.writeLock();
+        try {
+            for (var entry : groups.entrySet()) {
+                Map<String, SalaryAccumulator> otherGroups = other.groups.get(entry.getKey());
+                if (otherGroups != null) {
+                    otherGroups.forEach((key, accumulator) -> entry.getValue()
+                        .computeIfAbsent(key, k -> new SalaryAccumulator())
+                        .merge(accumulator));
+                }
+            }
+            ages.merge(other.ages);
+            exactBounds &= other.exactBounds;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param grouping    How to group employees; must be one of the maintained groupings.
+     * @param percentiles Quantiles between 0 and 1 to estimate.
+     * @return Statistics per non-empty group, ordered by group.
+     */
+    public List<SalaryStats> salaryStatistics(Grouping grouping, double[] percentiles) {
+        Map<String, SalaryAccumulator> source = groups.get(grouping);
+        if (source == null) {
+            throw new IllegalArgumentException("Grouping " + grouping + " is not maintained");
+        }
+
+        Map<String, SalaryAccumulator> copy = read(() -> {
+            Map<String, SalaryAccumulator> accumulators = new TreeMap<>();
+            source.forEach((key, accumulator) -> accumulators.put(key, accumulator.copy()));
+            return accumulators;
+        });
+
+        List<SalaryStats> statistics = new ArrayList<>(copy.size());
+        copy.forEach((key, accumulator) -> statistics.add(accumulator.toStats(key, percentiles)));
+        return statistics;
+    }
+
+    /**
+     * Builds a histogram with buckets starting at multiples of {@code bucketWidth}. Age buckets are exact;
+     * salary buckets are derived from the quantile sketch, so a salary within
+     * {@value QuantileSketch#RELATIVE_ACCURACY} relative distance of a bucket boundary may be counted in the
+     * neighbouring bucket.
+     *
+     * @param field       The attribute to bucket.
+     * @param bucketWidth Width of each bucket, greater than 0.
+     * @return Non-empty buckets in ascending order.
+     */
+    public List<HistogramBin> histogram(AggregateField field, double bucketWidth) {
+        TreeMap<Long, Long> bins = new TreeMap<>();
+        if (field == AggregateField.AGE) {
+            BucketCounts counts = read(ages::copy);
+            for (int i = 0; i < counts.keys(); i++) {
+                if (counts.countAt(i) > 0) {
+                    bins.merge((long) Math.floor((counts.firstKey() + i) / bucketWidth), counts.countAt(i), Long::sum);
+                }
+            }
+        } else {
+            SalaryAccumulator all = read(() -> {
+                SalaryAccumulator accumulator = groups.get(Grouping.NONE).get("");
+                return accumulator == null ? new SalaryAccumulator() : accumulator.copy();
+            });
+            all.sketch().forEachBucket((value, count) ->
+                bins.merge((long) Math.floor(value / bucketWidth), count, Long::sum));
+        }
+
+        return bins.entrySet().stream()
+            .map(bin -> new HistogramBin(bin.getKey() * bucketWidth, bin.getValue()))
+            .toList();
+    }
+
+    private void add(Employee employee) {
+        addUnlocked(employee.getAge(), employee.getDepartment(), employee.getPosition(), employee.getHiringYear(),
+            employee.getSalary());
+    }
+
+    private void addUnlocked(int age, String department, String position, int hiringYear, double salary) {
+        for (var entry : groups.entrySet()) {
+            entry.getValue()
+                .computeIfAbsent(entry.getKey().key(department, position, hiringYear), key -> new SalaryAccumulator())
+                .add(salary);
+        }
+        ages.add(age, 1);
+    }
+
+    private void remove(Employee employee) {
+        for (var entry : groups.entrySet()) {
+            String key = entry.getKey().key(employee);
+            SalaryAccumulator accumulator = entry.getValue().get(key);
+            accumulator.remove(employee.getSalary());
+            if (accumulator.count() == 0) {
+                entry.getValue().remove(key);
+            } else if (!accumulator.hasExactBounds()) {
+                exactBounds = false;
+            }
+        }
+        ages.add(employee.getAge(), -1);
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A concurrent write left the state inconsistent mid-copy; retry under the read lock.
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.alexshamrai.data.aggregate;
+
+import io.github.alexshamrai.data.Employee;
+
+/**
+ * Attribute employees are grouped by for salary statistics.
+ */
+public enum Grouping {
+
+    NONE((department, position, hiringYear) -> ""),
+    DEPARTMENT((department, position, hiringYear) -> department),
+    POSITION((department, position, hiringYear) -> position),
+    HIRING_YEAR((department, position, hiringYear) -> String.valueOf(hiringYear));
+
+    private final GroupKey key;
+
+    Grouping(GroupKey key) {
+        this.key = key;
+    }
+
+    String key(Employee employee) {
+        return key(employee.getDepartment(), employee.getPosition(), employee.getHiringYear());
+    }
+
+    String key(String department, String position, int hiringYear) {
+        return key.of(department, position, hiringYear);
+    }
+
+    private interface GroupKey {
+
+        String of(String department, String position, int hiringYear);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.alexshamrai.data.aggregate;
+
+import lombok.Value;
+
+/**
+ * Number of employees whose value falls into {@code [lowerBound, lowerBound + bucketWidth)}.
+ */
+@Value
+public class HistogramBin {
+
+    double lowerBound;
+    long count;
+}
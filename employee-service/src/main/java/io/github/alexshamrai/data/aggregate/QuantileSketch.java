@@ -0,0 +1,94 @@
+package io.github.alexshamrai.data.aggregate;
+
+/**
+ * Approximate quantiles of positive values in logarithmic buckets: every value in a bucket is within
+ * {@value #RELATIVE_ACCURACY} relative error of the bucket's representative value, so memory grows with the
+ * log of the value range rather than with the number of values.
+ */
+final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final BucketCounts buckets;
+    private long nonPositive;
+
+    QuantileSketch() {
+        this(new BucketCounts(), 0);
+    }
+
+    private QuantileSketch(BucketCounts buckets, long nonPositive) {
+        this.buckets = buckets;
+        this.nonPositive = nonPositive;
+    }
+
+    void add(double value) {
+        if (value > 0) {
+            buckets.add((int) Math.ceil(Math.log(value) / LOG_GAMMA), 1);
+        } else {
+            nonPositive++;
+        }
+    }
+
+    void remove(double value) {
+        if (value > 0) {
+            buckets.add((int) Math.ceil(Math.log(value) / LOG_GAMMA), -1);
+        } else {
+            nonPositive--;
+        }
+    }
+
+    void merge(QuantileSketch other) {
+        buckets.merge(other.buckets);
+        nonPositive += other.nonPositive;
+    }
+
+    QuantileSketch copy() {
+        return new QuantileSketch(buckets.copy(), nonPositive);
+    }
+
+    /**
+     * @param quantile A quantile between 0 and 1.
+     * @param count    Total number of values added.
+     * @return The estimated value at the quantile; 0 stands for every non-positive value.
+     */
+    double quantile(double quantile, long count) {
+        long rank = (long) (quantile * (count - 1));
+        if (rank < nonPositive) {
+            return 0;
+        }
+        long seen = nonPositive;
+        for (int i = 0; i < buckets.keys(); i++) {
+            seen += buckets.countAt(i);
+            if (seen > rank) {
+                return representative(buckets.firstKey() + i);
+            }
+        }
+        return representative(buckets.firstKey() + buckets.keys() - 1);
+    }
+
+    /**
+     * Calls the consumer with the representative value and count of every non-empty bucket.
+     */
+    void forEachBucket(BucketConsumer consumer) {
+        if (nonPositive > 0) {
+            consumer.accept(0, nonPositive);
+        }
+        for (int i = 0; i < buckets.keys(); i++) {
+            if (buckets.countAt(i) > 0) {
+                consumer.accept(representative(buckets.firstKey() + i), buckets.countAt(i));
+            }
+        }
+    }
+
+    private static double representative(int key) {
+        return 2 * Math.pow(GAMMA, key) / (GAMMA + 1);
+    }
+
+    interface BucketConsumer {
+
+        void accept(double value, long count);
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.alexshamrai.data.aggregate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running salary count, sum, bounds and quantile sketch of one group. Count, sum and sketch also support removal;
+ * the bounds cannot be recomputed without the remaining salaries, so removing a bound leaves them inexact.
+ */
+final class SalaryAccumulator {
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private boolean exactBounds = true;
+    private final QuantileSketch sketch;
+
+    SalaryAccumulator() {
+        this(new QuantileSketch());
+    }
+
+    private SalaryAccumulator(QuantileSketch sketch) {
+        this.sketch = sketch;
+    }
+
+    void add(double salary) {
+        count++;
+        sum += salary;
+        min = Math.min(min, salary);
+        max = Math.max(max, salary);
+        sketch.add(salary);
+    }
+
+    void remove(double salary) {
+        count--;
+        sketch.remove(salary);
+        if (count == 0) {
+            sum = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            exactBounds = true;
+            return;
+        }
+        sum -= salary;
+        if (salary <= min || salary >= max) {
+            exactBounds = false;
+        }
+    }
+
+    void merge(SalaryAccumulator other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        exactBounds &= other.exactBounds;
+        sketch.merge(other.sketch);
+    }
+
+    SalaryAccumulator copy() {
+        SalaryAccumulator copy = new SalaryAccumulator(sketch.copy());
+        copy.count = count;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        copy.exactBounds = exactBounds;
+        return copy;
+    }
+
+    long count() {
+        return count;
+    }
+
+    boolean hasExactBounds() {
+        return exactBounds;
+    }
+
+    QuantileSketch sketch() {
+        return sketch;
+    }
+
+    SalaryStats toStats(String group, double[] percentiles) {
+        List<Double> estimates = new ArrayList<>(percentiles.length);
+        for (double percentile : percentiles) {
+            // The exact bounds are known, so estimates never leave them.
+            estimates.add(Math.min(max, Math.max(min, sketch.quantile(percentile, count))));
+        }
+        return new SalaryStats(group, count, sum, min, max, sum / count, estimates);
+    }
+}
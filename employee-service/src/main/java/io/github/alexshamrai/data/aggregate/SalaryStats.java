@@ -0,0 +1,27 @@
+package io.github.alexshamrai.data.aggregate;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Salary statistics of one group of employees.
+ */
+@Value
+public class SalaryStats {
+
+    /**
+     * Department, position or hiring year; empty when employees are not grouped.
+     */
+    String group;
+    long count;
+    double sum;
+    double min;
+    double max;
+    double mean;
+
+    /**
+     * Estimated salaries, one per requested percentile in request order.
+     */
+    List<Double> percentiles;
+}
@@ -0,0 +1,11 @@
+package io.github.alexshamrai.data.feed;
+
+/**
+ * Thrown when a reader asks for a change that has already been overwritten in the feed's ring buffer.
+ */
+public class ChangeFeedOverrunException extends RuntimeException {
+
+    public ChangeFeedOverrunException(long sequence) {
+        super("Sequence " + sequence + " is no longer retained");
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.alexshamrai.data.feed;
+
+import io.github.alexshamrai.data.Employee;
+import lombok.Value;
+
+/**
+ * One entry of the {@link EmployeeChangeFeed}.
+ */
+@Value
+public class EmployeeChange {
+
+    long sequence;
+    Type type;
+    Employee employee;
+
+    /**
+     * The kind of change. An update carries the new version of the employee, a delete the version it removed.
+     */
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.alexshamrai.data.feed;
+
+import io.github.alexshamrai.data.Employee;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded ring buffer of the most recent employee changes, numbered by a sequence that increases by one per
+ * change.
+ * <p>
+ * Changes are appended by a single writer at a time, in the order they are journaled, but become readable only
+ * once they are published, after the journal reports them durable. Publishing a sequence publishes every earlier
+ * one too, so writers that finish waiting out of order never expose a gap. Readers never lock and keep their own
+ * cursor, so a slow reader cannot hold up the writer; once the writer laps it, the reader gets a
+ * {@link ChangeFeedOverrunException} instead of a wrong change. Listeners are notified after every publish and
+ * must only schedule work, never perform it.
+ * <p>
+ * Sequences start from 1 in every feed and are not recovered from the journal, so each feed has a random epoch
+ * that tells its sequences apart from those of an earlier run.
+ */
+public final class EmployeeChangeFeed {
+
+    private final EmployeeChange[] slots;
+    private final int mask;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final AtomicLong lastSequence = new AtomicLong();
+    /**
+     * Sequence of the last appended change. Only accessed by the writer.
+     */
+    private long appendedSequence;
+
+    /**
+     * @param capacity Number of changes retained, a power of two.
+     */
+    public EmployeeChangeFeed(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new EmployeeChange[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Appends one change per employee without making them readable. Callers must not append concurrently.
+     *
+     * @param type      The kind of change.
+     * @param employees The changed employees, in the order they were applied.
+     * @return The sequence of the last appended change, to {@link #publish} once it is durable.
+     */
+    public long append(EmployeeChange.Type type, List<Employee> employees) {
+        long sequence = appendedSequence;
+        for (Employee employee : employees) {
+            sequence++;
+            slots[(int) (sequence & mask)] = new EmployeeChange(sequence, type, employee);
+        }
+        appendedSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Makes the changes up to {@code sequence} readable and notifies the listeners. May be called concurrently
+     * and out of order.
+     *
+     * @param sequence A sequence returned by {@link #append}.
+     */
+    public void publish(long sequence) {
+        if (lastSequence.getAndAccumulate(sequence, Math::max) >= sequence) {
+            return;
+        }
+
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Returns the change with the given sequence.
+     *
+     * @param sequence The sequence to read.
+     * @return The change, or {@code null} if it has not been published yet.
+     * @throws ChangeFeedOverrunException if the change is older than the retained ones.
+     */
+    public EmployeeChange get(long sequence) {
+        if (sequence > lastSequence.get()) {
+            return null;
+        }
+
+        // The slot holds this sequence or, if the writer has lapped the reader since, a later one.
+        EmployeeChange change = slots[(int) (sequence & mask)];
+        if (change == null || change.getSequence() != sequence) {
+            throw new ChangeFeedOverrunException(sequence);
+        }
+        return change;
+    }
+
+    /**
+     * @return The sequence of the most recently published change.
+     */
+    public long getLastSequence() {
+        return lastSequence.get();
+    }
+
+    /**
+     * @return The epoch of this feed's sequences, a random positive number.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.alexshamrai.data.id;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Allocator that reserves ranges of IDs for a few stripes, so threads touch the shared counter once per block
+ * instead of once per ID. A thread takes IDs from the stripe its identity hashes to, but a range belongs to the
+ * stripe, not the thread: short-lived threads, such as one virtual thread per call, reserve nothing of their own.
+ * IDs are unique, dense up to the unused rest of one block per stripe, and only increasing within each stripe.
+ */
+public class BlockIdAllocator implements IdAllocator {
+
+    private final AtomicInteger nextBlockStart = new AtomicInteger(1);
+    private final int blockSize;
+    /**
+     * The range of each stripe, packed as {@code next << 32 | end}; exhausted once {@code next == end}.
+     */
+    private final AtomicLongArray ranges;
+
+    public BlockIdAllocator(int blockSize) {
+        this(blockSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes Minimum number of ranges reserved at a time; rounded up to a power of two.
+     */
+    BlockIdAllocator(int blockSize, int stripes) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.blockSize = blockSize;
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+        this.ranges = new AtomicLongArray(count);
+    }
+
+    @Override
+    public int nextId() {
+        int hash = System.identityHashCode(Thread.currentThread());
+        int stripe = (hash ^ (hash >>> 16)) & (ranges.length() - 1);
+        while (true) {
+            long range = ranges.get(stripe);
+            int next = (int) (range >>> 32);
+            if (next == (int) range) {
+                refill(stripe);
+            } else if (ranges.compareAndSet(stripe, range, range + (1L << 32))) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void observe(int id) {
+        nextBlockStart.accumulateAndGet(id, (current, observed) -> current > 0 && observed >= current ? observed + 1 : current);
+    }
+
+    /**
+     * Reserves a new block for an exhausted stripe, unless another thread already did. Refills are serialized so
+     * that a race never reserves a block that is then dropped.
+     */
+    private synchronized void refill(int stripe) {
+        long range = ranges.get(stripe);
+        if ((int) (range >>> 32) != (int) range) {
+            return;
+        }
+        int start = nextBlockStart.getAndUpdate(current -> current <= 0 || current > Integer.MAX_VALUE - blockSize
+            ? Integer.MIN_VALUE
+            : current + blockSize);
+        if (start <= 0) {
+            throw new IllegalStateException("Employee ID space exhausted");
+        }
+        ranges.set(stripe, (long) start << 32 | (start + blockSize));
+    }
+}
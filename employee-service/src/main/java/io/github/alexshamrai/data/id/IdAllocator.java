@@ -0,0 +1,30 @@
+package io.github.alexshamrai.data.id;
+
+/**
+ * Hands out unique, positive employee IDs. Implementations must be safe for concurrent use.
+ */
+public interface IdAllocator {
+
+    /**
+     * @return A positive ID that has never been returned before by this allocator.
+     * @throws IllegalStateException if the ID space is exhausted.
+     */
+    int nextId();
+
+    /**
+     * Records an ID that was assigned elsewhere, for example a seeded or recovered employee, so that it is
+     * never handed out again.
+     *
+     * @param id The ID already in use.
+     */
+    void observe(int id);
+
+    /**
+     * @param id An employee ID.
+     * @return true if employees with this ID belong to this service instance. Every ID does unless the
+     *         deployment is sharded, in which case {@link #nextId()} only hands out owned IDs.
+     */
+    default boolean owns(int id) {
+        return true;
+    }
+}
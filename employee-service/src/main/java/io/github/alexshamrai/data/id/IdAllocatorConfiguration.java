@@ -0,0 +1,34 @@
+package io.github.alexshamrai.data.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdAllocatorConfiguration {
+
+    /**
+     * Creates the ID allocator selected by {@code employee.id-allocator.mode}: {@code sequence} (default),
+     * {@code block} or {@code snowflake}. With more than one {@code employee.sharding.shards}, it only hands out
+     * the IDs that the ring assigns to {@code employee.sharding.shard-index}.
+     */
+    @Bean
+    public IdAllocator idAllocator(@Value("${employee.id-allocator.mode:sequence}") String mode,
+                                   @Value("${employee.id-allocator.block-size:1024}") int blockSize,
+                                   @Value("${employee.id-allocator.node-id:0}") int nodeId,
+                                   @Value("${employee.id-allocator.node-bits:5}") int nodeBits,
+                                   @Value("${employee.sharding.shards:1}") int shards,
+                                   @Value("${employee.sharding.shard-index:0}") int shardIndex,
+                                   @Value("${employee.sharding.virtual-nodes:128}") int virtualNodes) {
+        IdAllocator allocator = switch (mode) {
+            case "sequence" -> new SequenceIdAllocator();
+            case "block" -> new BlockIdAllocator(blockSize);
+            case "snowflake" -> new SnowflakeIdAllocator(nodeId, nodeBits);
+            default -> throw new IllegalArgumentException("Unknown employee.id-allocator.mode: " + mode);
+        };
+        if (shards == 1 && shardIndex == 0) {
+            return allocator;
+        }
+        return new ShardedIdAllocator(allocator, new ShardRing(shards, virtualNodes), shardIndex);
+    }
+}
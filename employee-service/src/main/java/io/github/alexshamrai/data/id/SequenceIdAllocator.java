@@ -0,0 +1,25 @@
+package io.github.alexshamrai.data.id;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free allocator handing out consecutive IDs from a single shared counter.
+ */
+public class SequenceIdAllocator implements IdAllocator {
+
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    @Override
+    public int nextId() {
+        int id = lastId.incrementAndGet();
+        if (id <= 0) {
+            throw new IllegalStateException("Employee ID space exhausted");
+        }
+        return id;
+    }
+
+    @Override
+    public void observe(int id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.alexshamrai.data.id;
+
+import java.util.Arrays;
+
+/**
+ * Consistent-hash ring assigning every employee ID to one of {@code shards} shards.
+ * <p>
+ * Each shard is placed on the ring at {@code virtualNodes} points, and an ID belongs to the shard of the first
+ * point at or after the ID's hash, wrapping around. Adding a shard therefore moves only the IDs that fall just
+ * before its points, about {@code 1 / shards} of them, and the virtual nodes keep the shares close to even.
+ * Shards are identified by their index, and the hash depends on nothing else, so servers and clients configured
+ * with the same shard count and virtual nodes agree on every owner.
+ */
+public final class ShardRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int shards;
+    private final long[] points;
+    private final int[] owners;
+
+    public ShardRing(int shards) {
+        this(shards, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param shards       Number of shards, at least 1.
+     * @param virtualNodes Ring points per shard, at least 1.
+     */
+    public ShardRing(int shards, int virtualNodes) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be at least 1");
+        }
+        this.shards = shards;
+
+        long[] hashes = new long[shards * virtualNodes];
+        Integer[] order = new Integer[hashes.length];
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                int point = shard * virtualNodes + node;
+                // The upper half is never that of an ID, which is 0 or all ones, so no ID hashes onto a point.
+                hashes[point] = mix((long) (shard + 1) << 32 | node);
+                order[point] = point;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(hashes[a], hashes[b]));
+
+        points = new long[order.length];
+        owners = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * @param id An employee ID.
+     * @return Index of the shard that owns the ID, between 0 and {@link #shards()} - 1.
+     */
+    public int shardOf(int id) {
+        long hash = mix(id);
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[middle], hash) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * SplitMix64 finalizer: fixed across JVMs and versions, unlike {@code hashCode}, and spreads consecutive
+     * IDs evenly.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
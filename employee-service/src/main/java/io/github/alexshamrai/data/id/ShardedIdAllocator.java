@@ -0,0 +1,48 @@
+package io.github.alexshamrai.data.id;
+
+/**
+ * Allocator for one shard of a sharded deployment: hands out only the IDs that the {@link ShardRing} assigns to
+ * this shard, skipping the others, so that a router can find every employee by its ID alone.
+ * <p>
+ * Each shard draws from its own delegate, so the delegate's IDs need not be unique across shards; the ring
+ * makes them so. With {@code N} evenly weighted shards, about {@code N} delegate IDs are drawn per ID handed out.
+ */
+public class ShardedIdAllocator implements IdAllocator {
+
+    private final IdAllocator delegate;
+    private final ShardRing ring;
+    private final int shard;
+
+    /**
+     * @param delegate Source of candidate IDs.
+     * @param ring     The deployment's ring.
+     * @param shard    Index of this shard on the ring.
+     */
+    public ShardedIdAllocator(IdAllocator delegate, ShardRing ring, int shard) {
+        if (shard < 0 || shard >= ring.shards()) {
+            throw new IllegalArgumentException("Shard index must be between 0 and " + (ring.shards() - 1));
+        }
+        this.delegate = delegate;
+        this.ring = ring;
+        this.shard = shard;
+    }
+
+    @Override
+    public int nextId() {
+        int id = delegate.nextId();
+        while (!owns(id)) {
+            id = delegate.nextId();
+        }
+        return id;
+    }
+
+    @Override
+    public void observe(int id) {
+        delegate.observe(id);
+    }
+
+    @Override
+    public boolean owns(int id) {
+        return ring.shardOf(id) == shard;
+    }
+}
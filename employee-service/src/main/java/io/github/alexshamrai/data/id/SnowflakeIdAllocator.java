@@ -0,0 +1,48 @@
+package io.github.alexshamrai.data.id;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node-aware allocator for multi-instance deployments. Each ID carries the node ID in its high bits and a
+ * per-node sequence in the low bits, so instances configured with different node IDs never collide.
+ * <p>
+ * Employee IDs are 31-bit positive integers, so unlike 64-bit Snowflake IDs there is no timestamp component:
+ * {@code nodeBits} bits identify the node and the remaining {@code 31 - nodeBits} bits count IDs.
+ */
+public class SnowflakeIdAllocator implements IdAllocator {
+
+    private static final int ID_BITS = 31;
+
+    private final int nodePrefix;
+    private final int sequenceBits;
+    private final int maxSequence;
+    private final AtomicInteger lastSequence = new AtomicInteger();
+
+    public SnowflakeIdAllocator(int nodeId, int nodeBits) {
+        if (nodeBits < 1 || nodeBits > 15) {
+            throw new IllegalArgumentException("Node bits must be between 1 and 15");
+        }
+        if (nodeId < 0 || nodeId >= 1 << nodeBits) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + ((1 << nodeBits) - 1));
+        }
+        this.sequenceBits = ID_BITS - nodeBits;
+        this.nodePrefix = nodeId << sequenceBits;
+        this.maxSequence = (1 << sequenceBits) - 1;
+    }
+
+    @Override
+    public int nextId() {
+        int sequence = lastSequence.incrementAndGet();
+        if (sequence > maxSequence || sequence <= 0) {
+            throw new IllegalStateException("Employee ID space exhausted for this node");
+        }
+        return nodePrefix | sequence;
+    }
+
+    @Override
+    public void observe(int id) {
+        if (id > 0 && (id & ~maxSequence) == nodePrefix) {
+            lastSequence.accumulateAndGet(id & maxSequence, Math::max);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.alexshamrai.data.index;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Equality index mapping each distinct value to the rows that hold it.
+ *
+ * @param <K> Indexed value type.
+ */
+public final class HashIndex<K> {
+
+    private final Map<K, PostingList> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a row under the given value. Must be called by the single repository writer.
+     *
+     * @param key The indexed value.
+     * @param row The row number.
+     */
+    public void add(K key, int row) {
+        postings.computeIfAbsent(key, k -> new PostingList()).add(row);
+    }
+
+    /**
+     * Removes rows from the lists of the given values, and drops lists left empty. Must be called by the single
+     * repository writer.
+     *
+     * @param keys    The values whose lists hold removed rows.
+     * @param removed Whether a row is removed.
+     */
+    public void removeAll(Collection<K> keys, IntPredicate removed) {
+        for (K key : keys) {
+            PostingList posting = postings.get(key);
+            if (posting != null && posting.removeIf(removed)) {
+                postings.remove(key, posting);
+            }
+        }
+    }
+
+    /**
+     * @param key The value to look up.
+     * @return Rows holding the value, or an empty list.
+     */
+    public PostingList get(K key) {
+        return postings.getOrDefault(key, PostingList.EMPTY);
+    }
+}
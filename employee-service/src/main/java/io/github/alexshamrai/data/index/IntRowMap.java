@@ -0,0 +1,105 @@
+package io.github.alexshamrai.data.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Open-addressing hash map from a positive int key to a row number, without boxing.
+ * <p>
+ * Each entry is packed into one {@code long} slot and written with release semantics, so lock-free readers
+ * always see a complete key/row pair. Writes must come from a single writer; resizing builds a new table
+ * and publishes it in one volatile write.
+ */
+public final class IntRowMap {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long EMPTY = 0L;
+
+    private volatile long[] table = new long[1 << 12];
+    private int size;
+
+    /**
+     * Maps a key to a row, replacing any previous row. Must be called by the single writer.
+     *
+     * @param key Positive key.
+     * @param row Row number.
+     */
+    public void put(int key, int row) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+
+        long[] current = table;
+        if ((size + 1) * 2L > current.length) {
+            current = resize(current);
+            table = current;
+        }
+        if (insert(current, key, row)) {
+            size++;
+        }
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return The row mapped to the key, or -1 if there is none.
+     */
+    public int get(int key) {
+        long[] current = table;
+        int mask = current.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long slot = (long) SLOTS.getAcquire(current, i);
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (keyOf(slot) == key) {
+                return rowOf(slot);
+            }
+        }
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return true if the key is mapped.
+     */
+    public boolean containsKey(int key) {
+        return get(key) >= 0;
+    }
+
+    private static boolean insert(long[] slots, int key, int row) {
+        int mask = slots.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long slot = (long) SLOTS.getAcquire(slots, i);
+            if (slot == EMPTY || keyOf(slot) == key) {
+                SLOTS.setRelease(slots, i, pack(key, row));
+                return slot == EMPTY;
+            }
+        }
+    }
+
+    private static long[] resize(long[] slots) {
+        long[] resized = new long[slots.length << 1];
+        for (long slot : slots) {
+            if (slot != EMPTY) {
+                insert(resized, keyOf(slot), rowOf(slot));
+            }
+        }
+        return resized;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static long pack(int key, int row) {
+        return ((long) key << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    private static int keyOf(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static int rowOf(long slot) {
+        return (int) slot;
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.alexshamrai.data.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * List of row numbers in ascending order.
+ * <p>
+ * A single writer appends and removes rows under the repository write lock; readers never lock. The rows and
+ * their count are published together: an append writes the slot before the count, and a removal publishes a
+ * compacted copy, so a reader always sees a consistent prefix of the list as it was at some point.
+ */
+public final class PostingList {
+
+    static final PostingList EMPTY = new PostingList(0);
+
+    private volatile Rows rows;
+
+    public PostingList() {
+        this(4);
+    }
+
+    private PostingList(int capacity) {
+        this.rows = new Rows(new int[capacity], 0);
+    }
+
+    /**
+     * Appends a row. Rows must be added in ascending order by a single writer.
+     *
+     * @param row The row number to append.
+     */
+    public void add(int row) {
+        Rows current = rows;
+        int count = current.size;
+        if (count == current.values.length) {
+            current = new Rows(Arrays.copyOf(current.values, Math.max(4, count << 1)), count);
+            rows = current;
+        }
+        current.values[count] = row;
+        current.size = count + 1;
+    }
+
+    /**
+     * Removes the rows matching a predicate. Must be called by the single writer. Cursors created before keep
+     * returning the removed rows.
+     *
+     * @param removed Whether a row is removed.
+     * @return true if the list is empty afterwards.
+     */
+    public boolean removeIf(IntPredicate removed) {
+        Rows current = rows;
+        int count = current.size;
+        int first = 0;
+        while (first < count && !removed.test(current.values[first])) {
+            first++;
+        }
+        if (first == count) {
+            return count == 0;
+        }
+
+        int[] kept = Arrays.copyOf(current.values, Math.max(4, count - 1));
+        int keptCount = first;
+        for (int i = first + 1; i < count; i++) {
+            int row = current.values[i];
+            if (!removed.test(row)) {
+                kept[keptCount++] = row;
+            }
+        }
+        rows = new Rows(kept, keptCount);
+        return keptCount == 0;
+    }
+
+    /**
+     * @return Number of rows currently published, including rows above any reader's limit.
+     */
+    public int size() {
+        return rows.size;
+    }
+
+    /**
+     * @return The currently published rows.
+     */
+    Rows rows() {
+        return rows;
+    }
+
+    /**
+     * Returns a cursor over the rows in {@code [from, limit)}. The start is found by binary search, so resuming
+     * from a cursor does not walk the rows before it.
+     *
+     * @param from  Inclusive lower bound of row numbers to return.
+     * @param limit Exclusive upper bound of row numbers to return.
+     * @return Cursor over the rows published when it was created.
+     */
+    public Cursor cursor(int from, int limit) {
+        Rows current = rows;
+        int count = current.size;
+        int start = Arrays.binarySearch(current.values, 0, count, from);
+        return new Cursor(current.values, start < 0 ? -start - 1 : start, count, limit);
+    }
+
+    /**
+     * Returns a cursor over the rows in {@code [from, limit)} of several posting lists, merged into ascending order
+     * as it advances.
+     *
+     * @param postings Lists with distinct rows.
+     * @param from     Inclusive lower bound of row numbers to return.
+     * @param limit    Exclusive upper bound of row numbers to return.
+     */
+    public static RowCursor union(Collection<PostingList> postings, int from, int limit) {
+        if (postings.size() == 1) {
+            return postings.iterator().next().cursor(from, limit);
+        }
+        return new UnionCursor(postings, from, limit);
+    }
+
+    /**
+     * A row array and the number of rows in use. Slots at and above the count may be written later, but never
+     * those below it.
+     */
+    static final class Rows {
+
+        final int[] values;
+        volatile int size;
+
+        private Rows(int[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+    }
+
+    public static final class Cursor implements RowCursor {
+
+        private final int[] rows;
+        private final int end;
+        private final int limit;
+        private int position;
+
+        private Cursor(int[] rows, int position, int end, int limit) {
+            this.rows = rows;
+            this.position = position;
+            this.end = end;
+            this.limit = limit;
+        }
+
+        @Override
+        public int next() {
+            if (position == end || rows[position] >= limit) {
+                return -1;
+            }
+            return rows[position++];
+        }
+    }
+
+    /**
+     * K-way merge of posting list cursors on a binary min-heap of their current rows.
+     */
+    private static final class UnionCursor implements RowCursor {
+
+        private final Cursor[] cursors;
+        private final int[] heads;
+        private int count;
+
+        private UnionCursor(Collection<PostingList> postings, int from, int limit) {
+            cursors = new Cursor[postings.size()];
+            heads = new int[postings.size()];
+            for (PostingList posting : postings) {
+                Cursor cursor = posting.cursor(from, limit);
+                int head = cursor.next();
+                if (head >= 0) {
+                    cursors[count] = cursor;
+                    heads[count] = head;
+                    count++;
+                }
+            }
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        @Override
+        public int next() {
+            if (count == 0) {
+                return -1;
+            }
+            int row = heads[0];
+            int head = cursors[0].next();
+            if (head >= 0) {
+                heads[0] = head;
+            } else {
+                count--;
+                cursors[0] = cursors[count];
+                heads[0] = heads[count];
+                cursors[count] = null;
+            }
+            siftDown(0);
+            return row;
+        }
+
+        private void siftDown(int i) {
+            Cursor cursor = cursors[i];
+            int head = heads[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= count) {
+                    break;
+                }
+                if (child + 1 < count && heads[child + 1] < heads[child]) {
+                    child++;
+                }
+                if (heads[child] >= head) {
+                    break;
+                }
+                cursors[i] = cursors[child];
+                heads[i] = heads[child];
+                i = child;
+            }
+            cursors[i] = cursor;
+            heads[i] = head;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.alexshamrai.data.index;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Sorted index answering inclusive range queries over a comparable value.
+ *
+ * @param <K> Indexed value type.
+ */
+public final class RangeIndex<K extends Comparable<K>> {
+
+    private final ConcurrentSkipListMap<K, PostingList> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a row under the given value. Must be called by the single repository writer.
+     *
+     * @param key The indexed value.
+     * @param row The row number.
+     */
+    public void add(K key, int row) {
+        postings.computeIfAbsent(key, k -> new PostingList()).add(row);
+    }
+
+    /**
+     * Removes rows from the lists of the given values, and drops lists left empty so that ranges do not visit
+     * them. Must be called by the single repository writer.
+     *
+     * @param keys    The values whose lists hold removed rows.
+     * @param removed Whether a row is removed.
+     */
+    public void removeAll(Collection<K> keys, IntPredicate removed) {
+        for (K key : keys) {
+            PostingList posting = postings.get(key);
+            if (posting != null && posting.removeIf(removed)) {
+                postings.remove(key, posting);
+            }
+        }
+    }
+
+    /**
+     * Returns the posting lists of all values within the inclusive range.
+     *
+     * @param from Lower bound, or {@code null} for an open lower bound.
+     * @param to   Upper bound, or {@code null} for an open upper bound.
+     * @return Posting lists ordered by value.
+     */
+    public Collection<PostingList> range(K from, K to) {
+        NavigableMap<K, PostingList> view;
+        if (from != null && to != null) {
+            if (from.compareTo(to) > 0) {
+                return List.of();
+            }
+            view = postings.subMap(from, true, to, true);
+        } else if (from != null) {
+            view = postings.tailMap(from, true);
+        } else if (to != null) {
+            view = postings.headMap(to, true);
+        } else {
+            view = postings;
+        }
+        return view.values();
+    }
+}
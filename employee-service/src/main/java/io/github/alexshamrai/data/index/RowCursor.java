@@ -0,0 +1,12 @@
+package io.github.alexshamrai.data.index;
+
+/**
+ * Ascending row numbers read lazily from posting lists, so a reader that stops early never touches the rest.
+ */
+public interface RowCursor {
+
+    /**
+     * @return The next row number, or -1 when there are no more.
+     */
+    int next();
+}
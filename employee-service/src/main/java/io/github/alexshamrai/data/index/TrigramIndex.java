@@ -0,0 +1,199 @@
+package io.github.alexshamrai.data.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Substring index mapping every three-character sequence of a text to the rows whose text contains it.
+ * <p>
+ * Texts are lower-cased and prefixed with two start markers, so a prefix query of any length has at least one
+ * trigram. A search intersects the posting lists of the query's trigrams without copying them; the rows it
+ * yields are candidates that the caller must still verify, since sharing every trigram does not guarantee the
+ * query occurs as a whole.
+ */
+public final class TrigramIndex {
+
+    private static final char START = '\u0001';
+    private static final String PADDING = "" + START + START;
+
+    private final Map<Long, PostingList> postings = new ConcurrentHashMap<>();
+
+    /**
+     * @param text Text as stored or queried.
+     * @return The form texts and queries are compared in.
+     */
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a row under every trigram of the text. Must be called by the single repository writer, in row order.
+     *
+     * @param text The indexed text.
+     * @param row  The row number.
+     */
+    public void add(String text, int row) {
+        for (long trigram : trigrams(PADDING + normalize(text))) {
+            postings.computeIfAbsent(trigram, t -> new PostingList()).add(row);
+        }
+    }
+
+    /**
+     * Removes every row. Must be called by the single repository writer.
+     */
+    public void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Removes rows from the lists of every trigram of the given texts, and drops lists left empty. Must be called
+     * by the single repository writer.
+     *
+     * @param texts   The texts of the removed rows.
+     * @param removed Whether a row is removed.
+     */
+    public void removeAll(Collection<String> texts, IntPredicate removed) {
+        Set<Long> affected = new HashSet<>();
+        for (String text : texts) {
+            for (long trigram : trigrams(PADDING + normalize(text))) {
+                affected.add(trigram);
+            }
+        }
+        for (Long trigram : affected) {
+            PostingList posting = postings.get(trigram);
+            if (posting != null && posting.removeIf(removed)) {
+                postings.remove(trigram, posting);
+            }
+        }
+    }
+
+    /**
+     * Finds the candidate rows for a query.
+     *
+     * @param query  The normalized query.
+     * @param prefix Whether the query must start the text rather than occur anywhere in it.
+     * @param from   Inclusive lower bound of row numbers to return.
+     * @param limit  Exclusive upper bound of visible row numbers.
+     * @return Cursor over candidate rows in ascending order. A substring query shorter than three characters
+     *         has no trigrams, so every row in range is a candidate.
+     */
+    public Cursor search(String query, boolean prefix, int from, int limit) {
+        long[] trigrams = trigrams(prefix ? PADDING + query : query);
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.getOrDefault(trigrams[i], PostingList.EMPTY);
+        }
+        // The rarest trigram leads the intersection and bounds its work.
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        return new Cursor(lists, from, limit);
+    }
+
+    /**
+     * @return The distinct trigrams of the text, in ascending order.
+     */
+    private static long[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return distinct == count ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * Leapfrog intersection of posting lists: each list in turn skips ahead to the current target row by
+     * galloping search, so lists much longer than the rarest one are touched only near its rows.
+     */
+    public static final class Cursor {
+
+        private final int[][] rows;
+        private final int[] sizes;
+        private final int[] positions;
+        private final int limit;
+        private int next;
+
+        private Cursor(PostingList[] lists, int from, int limit) {
+            this.rows = new int[lists.length][];
+            this.sizes = new int[lists.length];
+            this.positions = new int[lists.length];
+            this.limit = limit;
+            this.next = from;
+            for (int i = 0; i < lists.length; i++) {
+                PostingList.Rows published = lists[i].rows();
+                sizes[i] = published.size;
+                rows[i] = published.values;
+            }
+        }
+
+        /**
+         * @return The next candidate row, or -1 when there are no more.
+         */
+        public int next() {
+            if (next >= limit) {
+                return -1;
+            }
+            if (rows.length == 0) {
+                return next++;
+            }
+
+            int target = next;
+            int agreeing = 0;
+            for (int list = 0; ; list = (list + 1) % rows.length) {
+                int row = seek(list, target);
+                if (row < 0 || row >= limit) {
+                    next = limit;
+                    return -1;
+                }
+                if (row != target) {
+                    target = row;
+                    agreeing = 0;
+                }
+                if (++agreeing == rows.length) {
+                    next = row + 1;
+                    return row;
+                }
+            }
+        }
+
+        /**
+         * Advances a list to its first row at or above the target.
+         *
+         * @return That row, or -1 if the list has none.
+         */
+        private int seek(int list, int target) {
+            int[] listRows = rows[list];
+            int size = sizes[list];
+            int low = positions[list];
+            if (low >= size || listRows[low] >= target) {
+                return low < size ? listRows[low] : -1;
+            }
+
+            int step = 1;
+            int high = low + step;
+            while (high < size && listRows[high] < target) {
+                low = high;
+                step <<= 1;
+                high = low + step;
+            }
+            int found = Arrays.binarySearch(listRows, low + 1, Math.min(high, size - 1) + 1, target);
+            int position = found >= 0 ? found : -found - 1;
+            positions[list] = position;
+            return position < size ? listRows[position] : -1;
+        }
+    }
+}
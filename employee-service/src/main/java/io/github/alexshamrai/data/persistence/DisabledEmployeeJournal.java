@@ -0,0 +1,39 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Journal used when persistence is disabled; data lives only in memory.
+ */
+public class DisabledEmployeeJournal implements EmployeeJournal {
+
+    @Override
+    public void recover(BiConsumer<EmployeeChange.Type, List<Employee>> consumer) {
+    }
+
+    @Override
+    public long append(EmployeeChange.Type type, List<Employee> batch) {
+        return 0;
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+    }
+
+    @Override
+    public long rotate() {
+        return 0;
+    }
+
+    @Override
+    public void writeSnapshot(long generation, List<Employee> employees, int[] deletedIds) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
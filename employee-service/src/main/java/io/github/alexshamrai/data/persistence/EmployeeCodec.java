@@ -0,0 +1,81 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of an employee shared by the log and snapshot files.
+ * <p>
+ * Layout: {@code int id, int age, int hiringYear, double salary} followed by name, department and position,
+ * each as an {@code int} byte length and UTF-8 bytes.
+ */
+final class EmployeeCodec {
+
+    private static final int FIXED_BYTES = 3 * Integer.BYTES + Double.BYTES + 3 * Integer.BYTES;
+
+    private EmployeeCodec() {
+    }
+
+    /**
+     * @return Upper bound of the encoded size of the employee.
+     */
+    static int maxEncodedSize(Employee employee) {
+        return FIXED_BYTES + utf8Length(employee.getName()) + utf8Length(employee.getDepartment())
+            + utf8Length(employee.getPosition());
+    }
+
+    static void encode(Employee employee, ByteBuffer buffer) {
+        buffer.putInt(employee.getId())
+            .putInt(employee.getAge())
+            .putInt(employee.getHiringYear())
+            .putDouble(employee.getSalary());
+        putString(employee.getName(), buffer);
+        putString(employee.getDepartment(), buffer);
+        putString(employee.getPosition(), buffer);
+    }
+
+    static Employee decode(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        int age = buffer.getInt();
+        int hiringYear = buffer.getInt();
+        double salary = buffer.getDouble();
+        return Employee.builder()
+            .id(id)
+            .name(getString(buffer))
+            .age(age)
+            .department(getString(buffer))
+            .position(getString(buffer))
+            .hiringYear(hiringYear)
+            .salary(salary)
+            .build();
+    }
+
+    /**
+     * Upper bound of the UTF-8 length, used only to size buffers.
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            length += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return length;
+    }
+
+    private static void putString(String value, ByteBuffer buffer) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
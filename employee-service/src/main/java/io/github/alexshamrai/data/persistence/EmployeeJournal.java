@@ -0,0 +1,62 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Durability hook of {@code EmployeeRepository}. Every write is appended to the journal before it is applied
+ * in memory, and the journal replays the persisted state on startup.
+ */
+public interface EmployeeJournal extends Closeable {
+
+    /**
+     * Replays all persisted changes, oldest first. Called once at startup before any append. A snapshot replays
+     * as the addition of every employee it holds followed by the deletion of the IDs deleted before it.
+     *
+     * @param consumer Receives the kind and the employees of each recovered batch; deleted employees carry only
+     *                 their ID.
+     */
+    void recover(BiConsumer<EmployeeChange.Type, List<Employee>> consumer);
+
+    /**
+     * Appends a batch of changes of one kind. Called under the repository write lock.
+     *
+     * @param type  The kind of change. Only the IDs of deleted employees are persisted.
+     * @param batch New employees with their IDs assigned, new versions of updated employees or deleted employees.
+     * @return Log position to pass to {@link #awaitDurable(long)}.
+     */
+    long append(EmployeeChange.Type type, List<Employee> batch);
+
+    /**
+     * Blocks until everything up to the position is durable according to the configured fsync policy.
+     * Called outside the repository write lock so that concurrent writers share one fsync.
+     *
+     * @param position Position returned by {@link #append(EmployeeChange.Type, List)}.
+     */
+    void awaitDurable(long position);
+
+    /**
+     * Starts a new log generation. Called under the repository write lock right before a snapshot is taken.
+     *
+     * @return The generation the snapshot should be written for.
+     */
+    long rotate();
+
+    /**
+     * Persists a snapshot covering every write made before {@code generation} and drops the log files and
+     * snapshots it supersedes.
+     *
+     * @param generation Generation returned by {@link #rotate()}.
+     * @param employees  All employees at the time of the rotation.
+     * @param deletedIds IDs deleted before the rotation, so that recovery does not bring back employees the
+     *                   repository starts with.
+     */
+    void writeSnapshot(long generation, List<Employee> employees, int[] deletedIds);
+
+    @Override
+    void close();
+}
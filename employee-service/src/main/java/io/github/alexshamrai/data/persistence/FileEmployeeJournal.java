@@ -0,0 +1,339 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only binary write-ahead log with periodic snapshots, stored as {@code wal-<generation>.log} and
+ * {@code snapshot-<generation>.bin} files in one directory.
+ * <p>
+ * A snapshot of generation {@code g} holds every write made before log generation {@code g}, so recovery
+ * loads the newest snapshot and replays the log files from its generation onwards. Log positions are
+ * logical byte counts across generations; they only ever grow.
+ */
+public class FileEmployeeJournal implements EmployeeJournal {
+
+    /**
+     * When appended frames are forced to disk.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Every write waits for an fsync. Concurrent writers share one fsync (group commit).
+         */
+        ALWAYS,
+        /**
+         * A background thread forces the log periodically; a crash may lose the last interval of writes.
+         */
+        INTERVAL,
+        /**
+         * The operating system decides; the log is forced only on rotation and shutdown.
+         */
+        NONE
+    }
+
+    private static final Pattern LOG_FILE = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final int SNAPSHOT_FRAME_ROWS = 4096;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final LogOpener logOpener;
+    /**
+     * Serializes forcing and rotating the log. Not a monitor, so that virtual threads waiting for an fsync do not
+     * pin their carriers.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Encoding buffer of the single writer, which appends under the repository write lock.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+    private volatile FileChannel channel;
+    private long generation;
+    private volatile long writtenPosition;
+    private volatile long durablePosition;
+    /**
+     * The write error that left a torn frame in the log which could not be truncated away; appends are rejected
+     * from then on, since frames after it would not be recovered.
+     */
+    private IOException failure;
+
+    public FileEmployeeJournal(Path directory, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this(directory, fsyncPolicy, fsyncInterval,
+            path -> FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * @param logOpener Creates the channel of a new log file.
+     */
+    FileEmployeeJournal(Path directory, FsyncPolicy fsyncPolicy, Duration fsyncInterval, LogOpener logOpener) {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && (fsyncInterval.isZero() || fsyncInterval.isNegative())) {
+            throw new IllegalArgumentException("Fsync interval must be positive, not " + fsyncInterval);
+        }
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.logOpener = logOpener;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "employee-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = fsyncInterval.toNanos();
+            flusher.scheduleWithFixedDelay(() -> flush(writtenPosition), intervalNanos, intervalNanos,
+                TimeUnit.NANOSECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    @Override
+    public void recover(BiConsumer<EmployeeChange.Type, List<Employee>> consumer) {
+        try {
+            TreeMap<Long, Path> snapshots = list(SNAPSHOT_FILE);
+            TreeMap<Long, Path> logs = list(LOG_FILE);
+
+            long lastGeneration = 0;
+            if (!snapshots.isEmpty()) {
+                lastGeneration = snapshots.lastKey();
+                // Snapshots are renamed into place once complete, so they are never torn.
+                JournalFormat.read(snapshots.lastEntry().getValue(), JournalFormat.SNAPSHOT_MAGIC, false, consumer);
+            }
+            for (var log : logs.tailMap(lastGeneration, true).entrySet()) {
+                Path path = log.getValue();
+                // Earlier generations were forced before the next one was opened; only the last can be torn.
+                boolean last = log.getKey().equals(logs.lastKey());
+                long validBytes = JournalFormat.read(path, JournalFormat.LOG_MAGIC, last, consumer);
+                if (validBytes < Files.size(path)) {
+                    try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                        file.truncate(validBytes);
+                    }
+                }
+                lastGeneration = log.getKey();
+            }
+
+            // Appends always go to a fresh generation, never after a possibly torn tail.
+            generation = lastGeneration + 1;
+            channel = openLog(generation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the batch as one frame. A frame that fails partway is truncated away, so that the frames appended after
+     * it stay recoverable.
+     *
+     * @throws UncheckedIOException if the frame could not be written.
+     * @throws IllegalStateException if an earlier torn frame could not be truncated.
+     */
+    @Override
+    public long append(EmployeeChange.Type type, List<Employee> batch) {
+        if (failure != null) {
+            throw new IllegalStateException("Journal rejects writes after a failed write could not be undone",
+                failure);
+        }
+        byte frameType = JournalFormat.frameType(type);
+        int frameSize = JournalFormat.maxFrameSize(frameType, batch, 0, batch.size());
+        if (buffer.capacity() < frameSize) {
+            buffer = ByteBuffer.allocateDirect(Math.max(frameSize, buffer.capacity() * 2));
+        }
+        JournalFormat.encodeFrame(frameType, batch, 0, batch.size(), buffer);
+        int bytes = buffer.remaining();
+        long frameStart;
+        try {
+            frameStart = channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            JournalFormat.writeFully(channel, buffer);
+        } catch (IOException e) {
+            try {
+                channel.truncate(frameStart);
+                channel.position(frameStart);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+                failure = e;
+            }
+            throw new UncheckedIOException(e);
+        }
+        long position = writtenPosition + bytes;
+        writtenPosition = position;
+        return position;
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            flush(position);
+        }
+    }
+
+    @Override
+    public long rotate() {
+        flushLock.lock();
+        try {
+            channel.force(false);
+            durablePosition = writtenPosition;
+            channel.close();
+            generation++;
+            channel = openLog(generation);
+            return generation;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void writeSnapshot(long generation, List<Employee> employees, int[] deletedIds) {
+        Path target = directory.resolve(snapshotName(generation));
+        Path temp = directory.resolve(snapshotName(generation) + ".tmp");
+        snapshotLock.lock();
+        try {
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                JournalFormat.writeFully(file, JournalFormat.header(JournalFormat.SNAPSHOT_MAGIC, generation));
+                List<Employee> deleted = Arrays.stream(deletedIds)
+                    .mapToObj(id -> Employee.builder().id(id).build())
+                    .toList();
+                writeFrames(file, JournalFormat.INSERT, employees);
+                writeFrames(file, JournalFormat.DELETE, deleted);
+                file.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            for (Path snapshot : list(SNAPSHOT_FILE).headMap(generation).values()) {
+                Files.deleteIfExists(snapshot);
+            }
+            for (Path log : list(LOG_FILE).headMap(generation).values()) {
+                Files.deleteIfExists(log);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flushLock.lock();
+        try {
+            if (channel == null || !channel.isOpen()) {
+                return;
+            }
+            channel.force(false);
+            durablePosition = writtenPosition;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the log up to at least {@code position}. Whoever holds the lock forces everything written so far,
+     * so writers queued behind it usually find their frames already durable and return without an fsync.
+     */
+    private void flush(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (durablePosition >= position) {
+                return;
+            }
+            long target = writtenPosition;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durablePosition = target;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static void writeFrames(FileChannel file, byte type, List<Employee> employees) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+        for (int from = 0; from < employees.size(); from += SNAPSHOT_FRAME_ROWS) {
+            int to = Math.min(employees.size(), from + SNAPSHOT_FRAME_ROWS);
+            int frameSize = JournalFormat.maxFrameSize(type, employees, from, to);
+            if (frame.capacity() < frameSize) {
+                frame = ByteBuffer.allocateDirect(Math.max(frameSize, frame.capacity() * 2));
+            }
+            JournalFormat.encodeFrame(type, employees, from, to, frame);
+            JournalFormat.writeFully(file, frame);
+        }
+    }
+
+    private FileChannel openLog(long generation) throws IOException {
+        FileChannel log = logOpener.open(directory.resolve("wal-%016d.log".formatted(generation)));
+        JournalFormat.writeFully(log, JournalFormat.header(JournalFormat.LOG_MAGIC, generation));
+        return log;
+    }
+
+    private static String snapshotName(long generation) {
+        return "snapshot-%016d.bin".formatted(generation);
+    }
+
+    private TreeMap<Long, Path> list(Pattern pattern) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                Matcher matcher = pattern.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), path);
+                }
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Opens the channel of a new log file; replaced by tests to inject write errors.
+     */
+    interface LogOpener {
+
+        FileChannel open(Path path) throws IOException;
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * File layout shared by log and snapshot files: a 16-byte header ({@code int magic, int formatVersion,
+ * long generation}) followed by frames. Each frame is {@code int length, int crc32c} and a payload of
+ * {@code byte type, int count} plus {@code count} encoded employees, or employee IDs for deletions. A write torn by
+ * a crash can only leave an incomplete or corrupt last frame, which is dropped as a whole; a corrupt frame followed
+ * by more data means the file was damaged after it was written, and fails the read.
+ */
+final class JournalFormat {
+
+    static final int LOG_MAGIC = 0x454D504C;
+    static final int SNAPSHOT_MAGIC = 0x454D5053;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int FRAME_HEADER_BYTES = 8;
+    static final int PAYLOAD_HEADER_BYTES = 5;
+    static final int MAX_FRAME_BYTES = 256 << 20;
+
+    static final byte INSERT = 1;
+    static final byte UPDATE = 2;
+    static final byte DELETE = 3;
+
+    /**
+     * Files are mapped in windows of at most this size; a mapping cannot exceed 2 GB.
+     */
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private JournalFormat() {
+    }
+
+    static ByteBuffer header(int magic, long generation) {
+        return ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(magic)
+            .putInt(FORMAT_VERSION)
+            .putLong(generation)
+            .flip();
+    }
+
+    static byte frameType(EmployeeChange.Type type) {
+        return switch (type) {
+            case ADDED -> INSERT;
+            case UPDATED -> UPDATE;
+            case DELETED -> DELETE;
+        };
+    }
+
+    /**
+     * @return Upper bound of the frame size for the employees.
+     */
+    static int maxFrameSize(byte type, List<Employee> employees, int from, int to) {
+        long bytes = FRAME_HEADER_BYTES + PAYLOAD_HEADER_BYTES;
+        for (int i = from; i < to; i++) {
+            bytes += type == DELETE ? Integer.BYTES : EmployeeCodec.maxEncodedSize(employees.get(i));
+        }
+        if (bytes > MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Batch of " + (to - from) + " employees exceeds the journal frame limit");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Encodes the employees as one frame into the buffer, which must have room for
+     * {@link #maxFrameSize(byte, List, int, int)} bytes. The buffer is flipped and ready to be written.
+     */
+    static void encodeFrame(byte type, List<Employee> employees, int from, int to, ByteBuffer buffer) {
+        buffer.clear().position(FRAME_HEADER_BYTES);
+        buffer.put(type).putInt(to - from);
+        for (int i = from; i < to; i++) {
+            if (type == DELETE) {
+                buffer.putInt(employees.get(i).getId());
+            } else {
+                EmployeeCodec.encode(employees.get(i), buffer);
+            }
+        }
+        int end = buffer.position();
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.flip().position(FRAME_HEADER_BYTES));
+        buffer.putInt(0, end - FRAME_HEADER_BYTES)
+            .putInt(4, (int) crc.getValue())
+            .position(0)
+            .limit(end);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads the frames of a file through read-only memory mappings, decoding employees lazily frame by frame.
+     *
+     * @param path          The file to read.
+     * @param magic         Expected file magic.
+     * @param tailMayBeTorn Whether the file may end in a frame torn by a crash, as the last log file may. Reading
+     *                      then stops at an incomplete last frame, a last frame that fails its checksum or a
+     *                      zero-filled tail.
+     * @param consumer      Receives the kind of change and the employees of each frame; deleted employees carry
+     *                      only their ID.
+     * @return Offset just past the last valid frame.
+     * @throws IllegalStateException if the file is corrupt anywhere but in a torn tail.
+     */
+    static long read(Path path, int magic, boolean tailMayBeTorn,
+                     BiConsumer<EmployeeChange.Type, List<Employee>> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return tornTail(path, 0, tailMayBeTorn);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != magic || header.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Unrecognized journal file " + path);
+            }
+
+            long offset = HEADER_BYTES;
+            while (offset < size) {
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(size - offset, MAX_WINDOW_BYTES));
+                while (window.remaining() >= FRAME_HEADER_BYTES) {
+                    int start = window.position();
+                    int length = window.getInt(start);
+                    if (length < PAYLOAD_HEADER_BYTES || length > MAX_FRAME_BYTES) {
+                        // Space the file system allocated but the crashed write never filled reads as zeros.
+                        return tornTail(path, offset + start, tailMayBeTorn && isZero(channel, offset + start, size));
+                    }
+                    if (window.remaining() - FRAME_HEADER_BYTES < length) {
+                        break;
+                    }
+                    ByteBuffer payload = window.slice(start + FRAME_HEADER_BYTES, length);
+                    CRC32C crc = new CRC32C();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != window.getInt(start + 4)) {
+                        long end = offset + start + FRAME_HEADER_BYTES + length;
+                        return tornTail(path, offset + start, tailMayBeTorn && end == size);
+                    }
+                    decodeFrame(payload, consumer);
+                    window.position(start + FRAME_HEADER_BYTES + length);
+                }
+                if (window.position() == 0) {
+                    // The remaining bytes hold no complete frame: a write torn at the end of the file.
+                    return tornTail(path, offset, tailMayBeTorn);
+                }
+                offset += window.position();
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * @return The offset where the valid frames end, if the invalid rest of the file is a torn tail.
+     * @throws IllegalStateException otherwise.
+     */
+    private static long tornTail(Path path, long offset, boolean torn) {
+        if (!torn) {
+            throw new IllegalStateException("Corrupt journal file " + path + " at offset " + offset);
+        }
+        return offset;
+    }
+
+    private static boolean isZero(FileChannel channel, long from, long to) throws IOException {
+        for (long offset = from; offset < to; offset += MAX_WINDOW_BYTES) {
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(to - offset, MAX_WINDOW_BYTES));
+            while (window.hasRemaining()) {
+                if (window.get() != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void decodeFrame(ByteBuffer payload, BiConsumer<EmployeeChange.Type, List<Employee>> consumer) {
+        byte type = payload.get();
+        EmployeeChange.Type changeType = switch (type) {
+            case INSERT -> EmployeeChange.Type.ADDED;
+            case UPDATE -> EmployeeChange.Type.UPDATED;
+            case DELETE -> EmployeeChange.Type.DELETED;
+            default -> throw new IllegalStateException("Unknown journal frame type " + type);
+        };
+        int count = payload.getInt();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(type == DELETE
+                ? Employee.builder().id(payload.getInt()).build()
+                : EmployeeCodec.decode(payload));
+        }
+        consumer.accept(changeType, employees);
+    }
+}
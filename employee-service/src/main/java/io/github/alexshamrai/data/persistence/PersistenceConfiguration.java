@@ -0,0 +1,34 @@
+package io.github.alexshamrai.data.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class PersistenceConfiguration {
+
+    /**
+     * Creates the journal behind the repository. Persistence is off unless {@code employee.persistence.enabled}
+     * is set; {@code employee.persistence.fsync} selects {@code always} (default), {@code interval} or
+     * {@code none}.
+     */
+    @Bean
+    public EmployeeJournal employeeJournal(@Value("${employee.persistence.enabled:false}") boolean enabled,
+                                           @Value("${employee.persistence.directory:data}") String directory,
+                                           @Value("${employee.persistence.fsync:always}") String fsync,
+                                           @Value("${employee.persistence.fsync-interval:10ms}") Duration fsyncInterval) {
+        if (!enabled) {
+            return new DisabledEmployeeJournal();
+        }
+        FileEmployeeJournal.FsyncPolicy policy = switch (fsync) {
+            case "always" -> FileEmployeeJournal.FsyncPolicy.ALWAYS;
+            case "interval" -> FileEmployeeJournal.FsyncPolicy.INTERVAL;
+            case "none" -> FileEmployeeJournal.FsyncPolicy.NONE;
+            default -> throw new IllegalArgumentException("Unknown employee.persistence.fsync: " + fsync);
+        };
+        return new FileEmployeeJournal(Path.of(directory), policy, fsyncInterval);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically snapshots the repository when persistence is enabled, which bounds how much log recovery has
+ * to replay.
+ */
+@Slf4j
+@Component
+public class SnapshotScheduler implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Value("${employee.persistence.enabled:false}")
+    private boolean enabled;
+
+    @Value("${employee.persistence.snapshot-interval:10m}")
+    private Duration snapshotInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void snapshot() {
+        try {
+            employeeRepository.snapshot();
+        } catch (RuntimeException e) {
+            // A failed snapshot leaves the previous snapshot and the log intact; try again next interval.
+            log.warn("Employee snapshot failed", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.alexshamrai.data.store;
+
+/**
+ * Filter scan over the columns of a {@link ColumnarEmployeeStore}, implemented outside the main sources. The Vector
+ * API implementation lives in the {@code vector} source set, which the build compiles and packages only when run
+ * with {@code -PvectorApi}, so the store loads it by name.
+ */
+interface ColumnScan {
+
+    /**
+     * Same contract as {@link EmployeeStore.RowMatcher#select(int, int, int[])} over the given columns.
+     */
+    int select(int[] ages, double[] salaries, int[] hiringYears, int[] departments, int[] positions,
+               int from, int to, int[] selection);
+
+    /**
+     * Creates the scan of one filter. Implementations have a no-argument constructor.
+     */
+    interface Factory {
+
+        /**
+         * @param anyHiringYear Whether the hiring year is not filtered; {@code hiringYear} is ignored if so.
+         * @param anyDepartment Whether the department is not filtered; {@code department} is ignored if so.
+         * @param anyPosition   Whether the position is not filtered; {@code position} is ignored if so.
+         */
+        ColumnScan create(int minAge, int maxAge, double minSalary, double maxSalary, boolean anyHiringYear,
+                          int hiringYear, boolean anyDepartment, int department, boolean anyPosition, int position);
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays row storage. Numeric fields live in primitive arrays, department and position are
+ * dictionary-encoded into int codes and names are packed as UTF-8 into a shared byte arena, so a row costs a
+ * few dozen bytes and no object headers. {@link #read(int)} builds an {@link Employee} on demand.
+ * <p>
+ * Filter scans run over the primitive columns in a branch-free loop the JIT can unroll and vectorize, or
+ * explicitly on the JDK Vector API when the store is created with vectorization enabled and the build includes
+ * the vectorized scan.
+ */
+public class ColumnarEmployeeStore implements EmployeeStore {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int ANY = -1;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_SCAN_FACTORY = "io.github.alexshamrai.data.store.VectorizedColumnScan$Factory";
+
+    private final StringDictionary departments;
+    private final StringDictionary positions;
+    private final ColumnScan.Factory vectorScans;
+    /**
+     * Repository row number of this store's row 0, which versions are numbered from.
+     */
+    private final int firstRow;
+
+    /**
+     * Current column arrays. Replaced as a whole when any column grows, so readers always see one consistent
+     * set of arrays.
+     */
+    private volatile Columns columns = new Columns(INITIAL_ROWS, INITIAL_ROWS * 16);
+
+    public ColumnarEmployeeStore() {
+        this(false);
+    }
+
+    /**
+     * @param vectorized Whether filter scans use the JDK Vector API. Requires a build with {@code -PvectorApi} and
+     *                   the JVM to run with {@code --add-modules jdk.incubator.vector}.
+     */
+    public ColumnarEmployeeStore(boolean vectorized) {
+        this(vectorized, new StringDictionary(), new StringDictionary(), 0);
+    }
+
+    /**
+     * Creates a store that encodes into existing dictionaries, so its codes agree with another store's, and whose
+     * rows follow the {@code firstRow} rows of that store.
+     */
+    ColumnarEmployeeStore(boolean vectorized, StringDictionary departments, StringDictionary positions, int firstRow) {
+        this.vectorScans = vectorized ? loadVectorScans() : null;
+        this.departments = departments;
+        this.positions = positions;
+        this.firstRow = firstRow;
+    }
+
+    private static ColumnScan.Factory loadVectorScans() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            throw new IllegalStateException("Vectorized scans require --add-modules " + VECTOR_MODULE);
+        }
+        try {
+            return (ColumnScan.Factory) Class.forName(VECTOR_SCAN_FACTORY).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Vectorized scans require a build with -PvectorApi", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the vectorized scan", e);
+        }
+    }
+
+    @Override
+    public Employee write(int row, Employee employee) {
+        byte[] name = employee.getName().getBytes(StandardCharsets.UTF_8);
+        Columns current = columns;
+        int nameStart = row == 0 ? 0 : current.nameEnds[row - 1];
+        if (row >= current.ids.length || nameStart + name.length > current.names.length) {
+            current = current.grow(row + 1, nameStart + name.length);
+        }
+
+        current.ids[row] = employee.getId();
+        current.ages[row] = employee.getAge();
+        current.hiringYears[row] = employee.getHiringYear();
+        current.salaries[row] = employee.getSalary();
+        current.departments[row] = departments.encode(employee.getDepartment());
+        current.positions[row] = positions.encode(employee.getPosition());
+        System.arraycopy(name, 0, current.names, nameStart, name.length);
+        current.nameEnds[row] = nameStart + name.length;
+        columns = current;
+        return employee.toBuilder()
+            .department(departments.decode(current.departments[row]))
+            .position(positions.decode(current.positions[row]))
+            .version(firstRow + row + 1L)
+            .build();
+    }
+
+    @Override
+    public Employee read(int row) {
+        Columns current = columns;
+        int nameStart = row == 0 ? 0 : current.nameEnds[row - 1];
+        return Employee.builder()
+            .id(current.ids[row])
+            .name(new String(current.names, nameStart, current.nameEnds[row] - nameStart, StandardCharsets.UTF_8))
+            .age(current.ages[row])
+            .department(departments.decode(current.departments[row]))
+            .position(positions.decode(current.positions[row]))
+            .hiringYear(current.hiringYears[row])
+            .salary(current.salaries[row])
+            .version(firstRow + row + 1L)
+            .build();
+    }
+
+    @Override
+    public StringDictionary departments() {
+        return departments;
+    }
+
+    @Override
+    public StringDictionary positions() {
+        return positions;
+    }
+
+    @Override
+    public RowMatcher matcher(EmployeeFilter filter) {
+        return new ColumnarMatcher(filter);
+    }
+
+    /**
+     * Filter criteria translated to column values. Absent criteria become bounds every row satisfies, so the
+     * scan loop evaluates the same branch-free expression for every filter.
+     */
+    private final class ColumnarMatcher implements RowMatcher {
+
+        private final boolean impossible;
+        private final int minAge;
+        private final int maxAge;
+        private final double minSalary;
+        private final double maxSalary;
+        private final boolean anyHiringYear;
+        private final int hiringYear;
+        private final int department;
+        private final int position;
+        private final ColumnScan vectorScan;
+
+        private ColumnarMatcher(EmployeeFilter filter) {
+            minAge = filter.getMinAge() == null ? Integer.MIN_VALUE : filter.getMinAge();
+            maxAge = filter.getMaxAge() == null ? Integer.MAX_VALUE : filter.getMaxAge();
+            minSalary = filter.getMinSalary() == null ? Double.NEGATIVE_INFINITY : filter.getMinSalary();
+            maxSalary = filter.getMaxSalary() == null ? Double.POSITIVE_INFINITY : filter.getMaxSalary();
+            anyHiringYear = filter.getHiringYear() == null;
+            hiringYear = anyHiringYear ? 0 : filter.getHiringYear();
+            department = filter.getDepartment() == null ? ANY : departments.lookup(filter.getDepartment());
+            position = filter.getPosition() == null ? ANY : positions.lookup(filter.getPosition());
+            // A value missing from its dictionary cannot match any row.
+            impossible = (filter.getDepartment() != null && department == ANY)
+                || (filter.getPosition() != null && position == ANY);
+            vectorScan = vectorScans == null ? null : vectorScans.create(minAge, maxAge, minSalary, maxSalary,
+                anyHiringYear, hiringYear, department == ANY, department, position == ANY, position);
+        }
+
+        @Override
+        public boolean matches(int row) {
+            return !impossible && test(columns, row);
+        }
+
+        @Override
+        public int select(int from, int to, int[] selection) {
+            if (impossible) {
+                return 0;
+            }
+
+            Columns current = columns;
+            if (vectorScan != null) {
+                return vectorScan.select(current.ages, current.salaries, current.hiringYears, current.departments,
+                    current.positions, from, to, selection);
+            }
+
+            int[] ages = current.ages;
+            double[] salaries = current.salaries;
+            int[] hiringYears = current.hiringYears;
+            int[] departmentCodes = current.departments;
+            int[] positionCodes = current.positions;
+            boolean anyDepartment = department == ANY;
+            boolean anyPosition = position == ANY;
+
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                boolean match = ages[row] >= minAge & ages[row] <= maxAge
+                    & salaries[row] >= minSalary & salaries[row] <= maxSalary
+                    & (anyHiringYear | hiringYears[row] == hiringYear)
+                    & (anyDepartment | departmentCodes[row] == department)
+                    & (anyPosition | positionCodes[row] == position);
+                selection[count] = row;
+                count += match ? 1 : 0;
+            }
+            return count;
+        }
+
+        private boolean test(Columns current, int row) {
+            return current.ages[row] >= minAge && current.ages[row] <= maxAge
+                && current.salaries[row] >= minSalary && current.salaries[row] <= maxSalary
+                && (anyHiringYear || current.hiringYears[row] == hiringYear)
+                && (department == ANY || current.departments[row] == department)
+                && (position == ANY || current.positions[row] == position);
+        }
+    }
+
+    private static final class Columns {
+
+        private final int[] ids;
+        private final int[] ages;
+        private final int[] hiringYears;
+        private final double[] salaries;
+        private final int[] departments;
+        private final int[] positions;
+        private final int[] nameEnds;
+        private final byte[] names;
+
+        private Columns(int rows, int nameBytes) {
+            this(new int[rows], new int[rows], new int[rows], new double[rows], new int[rows], new int[rows],
+                new int[rows], new byte[nameBytes]);
+        }
+
+        private Columns(int[] ids, int[] ages, int[] hiringYears, double[] salaries, int[] departments,
+                        int[] positions, int[] nameEnds, byte[] names) {
+            this.ids = ids;
+            this.ages = ages;
+            this.hiringYears = hiringYears;
+            this.salaries = salaries;
+            this.departments = departments;
+            this.positions = positions;
+            this.nameEnds = nameEnds;
+            this.names = names;
+        }
+
+        private Columns grow(int minRows, int minNameBytes) {
+            int rows = ids.length < minRows ? Math.max(ids.length << 1, minRows) : ids.length;
+            int nameBytes = names.length < minNameBytes ? Math.max(names.length << 1, minNameBytes) : names.length;
+            return new Columns(
+                rows == ids.length ? ids : Arrays.copyOf(ids, rows),
+                rows == ids.length ? ages : Arrays.copyOf(ages, rows),
+                rows == ids.length ? hiringYears : Arrays.copyOf(hiringYears, rows),
+                rows == ids.length ? salaries : Arrays.copyOf(salaries, rows),
+                rows == ids.length ? departments : Arrays.copyOf(departments, rows),
+                rows == ids.length ? positions : Arrays.copyOf(positions, rows),
+                rows == ids.length ? nameEnds : Arrays.copyOf(nameEnds, rows),
+                nameBytes == names.length ? names : Arrays.copyOf(names, nameBytes));
+        }
+    }
+}
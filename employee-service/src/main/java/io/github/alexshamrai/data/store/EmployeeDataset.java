@@ -0,0 +1,173 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only employee dataset file served by {@link MappedEmployeeStore}.
+ * <p>
+ * The file is columnar and little-endian. A {@value #HEADER_BYTES}-byte header ({@code int magic,
+ * int formatVersion, int rows, int departments, int positions, int reserved} and the {@code long} offsets of
+ * each section) is followed by the sections: {@code double} salaries, {@code int} ids, ages, hiring years,
+ * department codes, position codes and name end offsets, the UTF-8 name bytes, and finally the department and
+ * position dictionaries as {@code int} byte length plus UTF-8 bytes per value. Sections are mapped
+ * separately, so each must stay below 2 GB.
+ */
+public final class EmployeeDataset {
+
+    static final int MAGIC = 0x454D5044;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 128;
+
+    static final int SALARIES = 0;
+    static final int IDS = 1;
+    static final int AGES = 2;
+    static final int HIRING_YEARS = 3;
+    static final int DEPARTMENTS = 4;
+    static final int POSITIONS = 5;
+    static final int NAME_ENDS = 6;
+    static final int NAMES = 7;
+    static final int DICTIONARY = 8;
+    static final int END = 9;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private EmployeeDataset() {
+    }
+
+    /**
+     * Writes employees to a dataset file. The file is written next to the target and moved into place, so a
+     * reader never sees a partial dataset.
+     *
+     * @param path      The dataset file to create or replace.
+     * @param employees Employees with unique IDs, stored in list order.
+     */
+    public static void write(Path path, List<Employee> employees) throws IOException {
+        int rows = employees.size();
+        StringDictionary departments = new StringDictionary();
+        StringDictionary positions = new StringDictionary();
+        Set<Integer> ids = new HashSet<>();
+        long nameBytes = 0;
+        for (Employee employee : employees) {
+            if (!ids.add(employee.getId())) {
+                throw new IllegalArgumentException("Duplicate employee ID " + employee.getId());
+            }
+            departments.encode(employee.getDepartment());
+            positions.encode(employee.getPosition());
+            nameBytes += employee.getName().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (nameBytes > Integer.MAX_VALUE || (long) rows * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dataset sections must stay below 2 GB");
+        }
+
+        long[] offsets = new long[END + 1];
+        offsets[SALARIES] = HEADER_BYTES;
+        offsets[IDS] = offsets[SALARIES] + (long) rows * Double.BYTES;
+        for (int section = AGES; section <= NAMES; section++) {
+            offsets[section] = offsets[section - 1] + (long) rows * Integer.BYTES;
+        }
+        offsets[DICTIONARY] = offsets[NAMES] + nameBytes;
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(file);
+            writer.buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(rows)
+                .putInt(departments.size()).putInt(positions.size()).putInt(0);
+            // The dictionary end is only known once it has been written; it is patched below.
+            for (int section = SALARIES; section <= DICTIONARY; section++) {
+                writer.buffer.putLong(offsets[section]);
+            }
+            writer.buffer.position(HEADER_BYTES);
+
+            for (Employee employee : employees) {
+                writer.ensure(Double.BYTES).putDouble(employee.getSalary());
+            }
+            for (Employee employee : employees) {
+                writer.ensure(Integer.BYTES).putInt(employee.getId());
+            }
+            for (Employee employee : employees) {
+                writer.ensure(Integer.BYTES).putInt(employee.getAge());
+            }
+            for (Employee employee : employees) {
+                writer.ensure(Integer.BYTES).putInt(employee.getHiringYear());
+            }
+            for (Employee employee : employees) {
+                writer.ensure(Integer.BYTES).putInt(departments.lookup(employee.getDepartment()));
+            }
+            for (Employee employee : employees) {
+                writer.ensure(Integer.BYTES).putInt(positions.lookup(employee.getPosition()));
+            }
+            int nameEnd = 0;
+            for (Employee employee : employees) {
+                nameEnd += employee.getName().getBytes(StandardCharsets.UTF_8).length;
+                writer.ensure(Integer.BYTES).putInt(nameEnd);
+            }
+            for (Employee employee : employees) {
+                writer.putBytes(employee.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            for (StringDictionary dictionary : List.of(departments, positions)) {
+                for (int code = 0; code < dictionary.size(); code++) {
+                    byte[] value = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+                    writer.ensure(Integer.BYTES).putInt(value.length);
+                    writer.putBytes(value);
+                }
+            }
+            writer.flush();
+
+            file.write(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, file.size()),
+                24 + END * Long.BYTES);
+            file.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Sequential writer over a reusable buffer.
+     */
+    private static final class Writer {
+
+        private final FileChannel file;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        private Writer(FileChannel file) {
+            this.file = file;
+        }
+
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        private void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int length = Math.min(bytes.length - offset, ensure(1).remaining());
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+
+/**
+ * Row storage behind {@code EmployeeRepository}.
+ * <p>
+ * Rows are addressed by consecutive row numbers and written by a single writer holding the repository lock.
+ * The repository publishes a row to readers only after {@link #write(int, Employee)} returns, so reads of
+ * published rows need no locking. A row is never rewritten; updates append a new row. The version of the employee
+ * in a row is the row number plus one, which stores that do not keep {@link Employee} objects derive on read.
+ */
+public interface EmployeeStore {
+
+    /**
+     * Stores a row. Called by the single repository writer with consecutive row numbers.
+     *
+     * @param row      The row number.
+     * @param employee The employee to store. It is not modified.
+     * @return The employee as stored: with version {@code row + 1} and the dictionaries' canonical department and
+     *         position.
+     */
+    Employee write(int row, Employee employee);
+
+    /**
+     * @param row A published row number.
+     * @return The employee stored in the row, or {@code null} if the row has been reclaimed.
+     */
+    Employee read(int row);
+
+    /**
+     * Reads only the attributes the repository indexes: ID, age, department, position, hiring year and salary.
+     * Stores that decode rows lazily can skip the name here.
+     *
+     * @param row A stored row number.
+     * @return The employee stored in the row, possibly without its name, or {@code null} if the row has been
+     *         reclaimed.
+     */
+    default Employee readIndexed(int row) {
+        return read(row);
+    }
+
+    /**
+     * @return true if the store can release superseded and deleted rows through {@link #reclaim(int)}. Stores
+     *         with fixed-width columns cannot without renumbering rows, so the repository rejects updates and
+     *         deletes on them rather than let dead rows pile up.
+     */
+    default boolean reclaimsRows() {
+        return false;
+    }
+
+    /**
+     * Releases a row version that no reader can see any more. Called by the single repository writer, and only on
+     * stores that {@link #reclaimsRows() reclaim rows}. Once reclaimed, a row must not match any filter and reads
+     * of it return {@code null}.
+     *
+     * @param row A superseded or deleted row.
+     */
+    default void reclaim(int row) {
+        throw new UnsupportedOperationException("Store does not reclaim rows");
+    }
+
+    /**
+     * @return Number of rows the store already holds when it is created, for example from a pre-built dataset.
+     *         The repository indexes these rows at startup and appends new rows after them.
+     */
+    default int loadedRows() {
+        return 0;
+    }
+
+    /**
+     * Passes the indexed attributes of the first {@link #loadedRows()} rows to a visitor in row order. Stores
+     * backed by columns read them in place, so indexing a large dataset at startup builds no {@link Employee}
+     * objects.
+     *
+     * @param visitor Receives each row.
+     */
+    default void forEachLoaded(IndexedRowVisitor visitor) {
+        for (int row = 0; row < loadedRows(); row++) {
+            Employee employee = readIndexed(row);
+            visitor.visit(row, employee.getId(), employee.getAge(), employee.getDepartment(), employee.getPosition(),
+                employee.getHiringYear(), employee.getSalary());
+        }
+    }
+
+    /**
+     * Department names of the stored rows, in the order they were first written. Rows holding the same
+     * department share the dictionary's canonical string.
+     *
+     * @return The store's department dictionary.
+     */
+    StringDictionary departments();
+
+    /**
+     * @return The store's position dictionary, shared the same way as {@link #departments()}.
+     */
+    StringDictionary positions();
+
+    /**
+     * Prepares a matcher for the filter so that per-row checks do not re-inspect the filter.
+     *
+     * @param filter The filter criteria.
+     * @return A matcher over this store's rows.
+     */
+    RowMatcher matcher(EmployeeFilter filter);
+
+    interface IndexedRowVisitor {
+
+        /**
+         * Receives the attributes of one row. Department and position are the dictionaries' canonical strings.
+         */
+        void visit(int row, int id, int age, String department, String position, int hiringYear, double salary);
+    }
+
+    interface RowMatcher {
+
+        /**
+         * @param row A published row number.
+         * @return true if the row matches the filter.
+         */
+        boolean matches(int row);
+
+        /**
+         * Writes the matching row numbers of {@code [from, to)} into {@code selection} in ascending order.
+         *
+         * @param from      Inclusive first row.
+         * @param to        Exclusive last row.
+         * @param selection Output array with room for at least {@code to - from} rows.
+         * @return Number of matching rows written.
+         */
+        int select(int from, int to, int[] selection);
+    }
+}
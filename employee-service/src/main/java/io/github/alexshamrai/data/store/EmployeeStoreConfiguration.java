@@ -0,0 +1,34 @@
+package io.github.alexshamrai.data.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class EmployeeStoreConfiguration {
+
+    /**
+     * Creates the row store selected by {@code employee.store.backend}: {@code heap} (default),
+     * {@code columnar} or {@code mapped}, which serves the dataset file at {@code employee.store.dataset}.
+     * {@code employee.store.vectorized} switches columnar scans to the JDK Vector API.
+     */
+    @Bean
+    public EmployeeStore employeeStore(@Value("${employee.store.backend:heap}") String backend,
+                                       @Value("${employee.store.dataset:}") String dataset,
+                                       @Value("${employee.store.vectorized:false}") boolean vectorized) throws IOException {
+        return switch (backend) {
+            case "heap" -> new HeapEmployeeStore();
+            case "columnar" -> new ColumnarEmployeeStore(vectorized);
+            case "mapped" -> {
+                if (dataset.isEmpty()) {
+                    throw new IllegalArgumentException("employee.store.dataset is required for the mapped backend");
+                }
+                yield MappedEmployeeStore.open(Path.of(dataset));
+            }
+            default -> throw new IllegalArgumentException("Unknown employee.store.backend: " + backend);
+        };
+    }
+}
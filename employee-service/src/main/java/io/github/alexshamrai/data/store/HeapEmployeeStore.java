@@ -0,0 +1,147 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Stores rows as {@link Employee} objects in an append-only array. Department and position are replaced by
+ * their canonical dictionary strings on write, so equal values are held once however many rows share them,
+ * and their codes are kept alongside the rows so filters compare ints instead of strings.
+ */
+public class HeapEmployeeStore implements EmployeeStore {
+
+    private static final int ANY = -1;
+
+    private final StringDictionary departments = new StringDictionary();
+    private final StringDictionary positions = new StringDictionary();
+
+    /**
+     * Current row arrays. Replaced as a whole when they grow, so readers always see one consistent set.
+     */
+    private volatile Rows rows = new Rows(1024);
+
+    @Override
+    public Employee write(int row, Employee employee) {
+        Rows current = rows;
+        if (row >= current.employees.length) {
+            current = current.grow(row + 1);
+        }
+
+        int department = departments.encode(employee.getDepartment());
+        int position = positions.encode(employee.getPosition());
+        Employee stored = employee.toBuilder()
+            .department(departments.decode(department))
+            .position(positions.decode(position))
+            .version(row + 1L)
+            .build();
+        current.employees[row] = stored;
+        current.departments[row] = department;
+        current.positions[row] = position;
+        rows = current;
+        return stored;
+    }
+
+    @Override
+    public Employee read(int row) {
+        return rows.employees[row];
+    }
+
+    @Override
+    public boolean reclaimsRows() {
+        return true;
+    }
+
+    /**
+     * Drops the reference to the row's employee, so the old version can be garbage collected.
+     */
+    @Override
+    public void reclaim(int row) {
+        rows.employees[row] = null;
+    }
+
+    @Override
+    public StringDictionary departments() {
+        return departments;
+    }
+
+    @Override
+    public StringDictionary positions() {
+        return positions;
+    }
+
+    @Override
+    public RowMatcher matcher(EmployeeFilter filter) {
+        int department = filter.getDepartment() == null ? ANY : departments.lookup(filter.getDepartment());
+        int position = filter.getPosition() == null ? ANY : positions.lookup(filter.getPosition());
+        // A value missing from its dictionary cannot match any row.
+        boolean impossible = (filter.getDepartment() != null && department == ANY)
+            || (filter.getPosition() != null && position == ANY);
+        boolean anyDepartment = department == ANY;
+        boolean anyPosition = position == ANY;
+        Predicate<Employee> predicate = filter.toBuilder()
+            .department(null)
+            .position(null)
+            .build()
+            .compile();
+
+        return new RowMatcher() {
+            @Override
+            public boolean matches(int row) {
+                Rows current = rows;
+                Employee employee = current.employees[row];
+                return !impossible
+                    && employee != null
+                    && (anyDepartment || current.departments[row] == department)
+                    && (anyPosition || current.positions[row] == position)
+                    && predicate.test(employee);
+            }
+
+            @Override
+            public int select(int from, int to, int[] selection) {
+                if (impossible) {
+                    return 0;
+                }
+
+                Rows current = rows;
+                int count = 0;
+                for (int row = from; row < to; row++) {
+                    // The codes are checked first so that rows of other departments are never dereferenced.
+                    if ((anyDepartment | current.departments[row] == department)
+                        & (anyPosition | current.positions[row] == position)) {
+                        Employee employee = current.employees[row];
+                        if (employee != null && predicate.test(employee)) {
+                            selection[count++] = row;
+                        }
+                    }
+                }
+                return count;
+            }
+        };
+    }
+
+    private static final class Rows {
+
+        private final Employee[] employees;
+        private final int[] departments;
+        private final int[] positions;
+
+        private Rows(int rows) {
+            this(new Employee[rows], new int[rows], new int[rows]);
+        }
+
+        private Rows(Employee[] employees, int[] departments, int[] positions) {
+            this.employees = employees;
+            this.departments = departments;
+            this.positions = positions;
+        }
+
+        private Rows grow(int minRows) {
+            int rows = Math.max(employees.length << 1, minRows);
+            return new Rows(Arrays.copyOf(employees, rows), Arrays.copyOf(departments, rows),
+                Arrays.copyOf(positions, rows));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves a pre-built {@link EmployeeDataset} file directly from read-only memory mappings. Nothing is decoded
+ * at startup except the two small dictionaries; a row becomes an {@link Employee} only when it is read, and
+ * filters scan the mapped columns in place. Pages are loaded by the operating system on first access and can
+ * be dropped again under memory pressure, so the dataset does not count against the Java heap.
+ * <p>
+ * Rows written after startup are appended to a {@link ColumnarEmployeeStore} and numbered, versions included, after
+ * the dataset. It encodes into the dataset's dictionaries, so a code means the same value in both parts.
+ */
+public class MappedEmployeeStore implements EmployeeStore {
+
+    private static final int ANY = -1;
+
+    private final int rows;
+    private final DoubleBuffer salaries;
+    private final IntBuffer ids;
+    private final IntBuffer ages;
+    private final IntBuffer hiringYears;
+    private final IntBuffer departmentCodes;
+    private final IntBuffer positionCodes;
+    private final IntBuffer nameEnds;
+    private final ByteBuffer names;
+    private final StringDictionary departments = new StringDictionary();
+    private final StringDictionary positions = new StringDictionary();
+    private final ColumnarEmployeeStore appended;
+
+    private MappedEmployeeStore(FileChannel file) throws IOException {
+        ByteBuffer header = file.map(FileChannel.MapMode.READ_ONLY, 0, EmployeeDataset.HEADER_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != EmployeeDataset.MAGIC) {
+            throw new IllegalArgumentException("Not an employee dataset");
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion != EmployeeDataset.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported employee dataset version " + formatVersion);
+        }
+        rows = header.getInt();
+        int departmentCount = header.getInt();
+        int positionCount = header.getInt();
+        header.getInt();
+        long[] offsets = new long[EmployeeDataset.END + 1];
+        for (int section = 0; section <= EmployeeDataset.END; section++) {
+            offsets[section] = header.getLong();
+        }
+        if (offsets[EmployeeDataset.END] != file.size()) {
+            throw new IllegalArgumentException("Truncated employee dataset");
+        }
+
+        salaries = map(file, offsets, EmployeeDataset.SALARIES).asDoubleBuffer();
+        ids = map(file, offsets, EmployeeDataset.IDS).asIntBuffer();
+        ages = map(file, offsets, EmployeeDataset.AGES).asIntBuffer();
+        hiringYears = map(file, offsets, EmployeeDataset.HIRING_YEARS).asIntBuffer();
+        departmentCodes = map(file, offsets, EmployeeDataset.DEPARTMENTS).asIntBuffer();
+        positionCodes = map(file, offsets, EmployeeDataset.POSITIONS).asIntBuffer();
+        nameEnds = map(file, offsets, EmployeeDataset.NAME_ENDS).asIntBuffer();
+        names = map(file, offsets, EmployeeDataset.NAMES);
+
+        ByteBuffer dictionary = map(file, offsets, EmployeeDataset.DICTIONARY);
+        for (int i = 0; i < departmentCount; i++) {
+            departments.encode(readString(dictionary));
+        }
+        for (int i = 0; i < positionCount; i++) {
+            positions.encode(readString(dictionary));
+        }
+        appended = new ColumnarEmployeeStore(false, departments, positions, rows);
+    }
+
+    /**
+     * Maps a dataset file. The mappings stay valid after the file channel is closed.
+     *
+     * @param path The dataset file written by {@link EmployeeDataset#write}.
+     * @return A store holding the dataset rows.
+     */
+    public static MappedEmployeeStore open(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedEmployeeStore(file);
+        }
+    }
+
+    @Override
+    public int loadedRows() {
+        return rows;
+    }
+
+    @Override
+    public void forEachLoaded(IndexedRowVisitor visitor) {
+        for (int row = 0; row < rows; row++) {
+            visitor.visit(row, ids.get(row), ages.get(row), departments.decode(departmentCodes.get(row)),
+                positions.decode(positionCodes.get(row)), hiringYears.get(row), salaries.get(row));
+        }
+    }
+
+    @Override
+    public Employee write(int row, Employee employee) {
+        return appended.write(row - rows, employee);
+    }
+
+    @Override
+    public Employee read(int row) {
+        if (row >= rows) {
+            return appended.read(row - rows);
+        }
+        int nameStart = row == 0 ? 0 : nameEnds.get(row - 1);
+        byte[] name = new byte[nameEnds.get(row) - nameStart];
+        names.get(nameStart, name);
+        return readAttributes(row).toBuilder()
+            .name(new String(name, StandardCharsets.UTF_8))
+            .build();
+    }
+
+    @Override
+    public Employee readIndexed(int row) {
+        return row >= rows ? appended.read(row - rows) : readAttributes(row);
+    }
+
+    @Override
+    public StringDictionary departments() {
+        return departments;
+    }
+
+    @Override
+    public StringDictionary positions() {
+        return positions;
+    }
+
+    @Override
+    public RowMatcher matcher(EmployeeFilter filter) {
+        return new MappedMatcher(filter);
+    }
+
+    private Employee readAttributes(int row) {
+        return Employee.builder()
+            .id(ids.get(row))
+            .age(ages.get(row))
+            .department(departments.decode(departmentCodes.get(row)))
+            .position(positions.decode(positionCodes.get(row)))
+            .hiringYear(hiringYears.get(row))
+            .salary(salaries.get(row))
+            .version(row + 1L)
+            .build();
+    }
+
+    private static ByteBuffer map(FileChannel file, long[] offsets, int section) throws IOException {
+        return file.map(FileChannel.MapMode.READ_ONLY, offsets[section], offsets[section + 1] - offsets[section])
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evaluates the filter against the mapped columns the same way the columnar store does against its arrays;
+     * appended rows are delegated to the columnar store's own matcher.
+     */
+    private final class MappedMatcher implements RowMatcher {
+
+        private final RowMatcher appendedMatcher;
+        private final boolean impossible;
+        private final int minAge;
+        private final int maxAge;
+        private final double minSalary;
+        private final double maxSalary;
+        private final boolean anyHiringYear;
+        private final int hiringYear;
+        private final int department;
+        private final int position;
+        private int[] appendedSelection = new int[0];
+
+        private MappedMatcher(EmployeeFilter filter) {
+            appendedMatcher = appended.matcher(filter);
+            minAge = filter.getMinAge() == null ? Integer.MIN_VALUE : filter.getMinAge();
+            maxAge = filter.getMaxAge() == null ? Integer.MAX_VALUE : filter.getMaxAge();
+            minSalary = filter.getMinSalary() == null ? Double.NEGATIVE_INFINITY : filter.getMinSalary();
+            maxSalary = filter.getMaxSalary() == null ? Double.POSITIVE_INFINITY : filter.getMaxSalary();
+            anyHiringYear = filter.getHiringYear() == null;
+            hiringYear = anyHiringYear ? 0 : filter.getHiringYear();
+            department = filter.getDepartment() == null ? ANY : departments.lookup(filter.getDepartment());
+            position = filter.getPosition() == null ? ANY : positions.lookup(filter.getPosition());
+            impossible = (filter.getDepartment() != null && department == ANY)
+                || (filter.getPosition() != null && position == ANY);
+        }
+
+        @Override
+        public boolean matches(int row) {
+            if (row >= rows) {
+                return appendedMatcher.matches(row - rows);
+            }
+            return !impossible
+                && ages.get(row) >= minAge && ages.get(row) <= maxAge
+                && salaries.get(row) >= minSalary && salaries.get(row) <= maxSalary
+                && (anyHiringYear || hiringYears.get(row) == hiringYear)
+                && (department == ANY || departmentCodes.get(row) == department)
+                && (position == ANY || positionCodes.get(row) == position);
+        }
+
+        @Override
+        public int select(int from, int to, int[] selection) {
+            int count = 0;
+            int mappedTo = Math.min(to, rows);
+            if (!impossible && from < mappedTo) {
+                boolean anyDepartment = department == ANY;
+                boolean anyPosition = position == ANY;
+                for (int row = from; row < mappedTo; row++) {
+                    int age = ages.get(row);
+                    double salary = salaries.get(row);
+                    boolean match = age >= minAge & age <= maxAge
+                        & salary >= minSalary & salary <= maxSalary
+                        & (anyHiringYear | hiringYears.get(row) == hiringYear)
+                        & (anyDepartment | departmentCodes.get(row) == department)
+                        & (anyPosition | positionCodes.get(row) == position);
+                    selection[count] = row;
+                    count += match ? 1 : 0;
+                }
+            }
+
+            if (to > rows) {
+                int appendedFrom = Math.max(from, rows) - rows;
+                int appendedTo = to - rows;
+                if (appendedSelection.length < appendedTo - appendedFrom) {
+                    appendedSelection = new int[appendedTo - appendedFrom];
+                }
+                int selected = appendedMatcher.select(appendedFrom, appendedTo, appendedSelection);
+                for (int i = 0; i < selected; i++) {
+                    selection[count++] = appendedSelection[i] + rows;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.alexshamrai.data.store;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding of low-cardinality strings into dense int codes. Every distinct value is stored once
+ * and decoding returns that canonical instance, so rows holding the same value share one string and can be
+ * compared by code.
+ * <p>
+ * New values are added by the single repository writer; lookups and decoding never lock.
+ */
+public final class StringDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private volatile List<String> valueList = List.of();
+    private int size;
+
+    /**
+     * Returns the code of a value, adding it to the dictionary if needed. Must be called by the single writer.
+     *
+     * @param value The value to encode.
+     * @return The code of the value.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size << 1);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        valueList = new Values(current, size + 1);
+        return size++;
+    }
+
+    /**
+     * @param value The value to look up.
+     * @return The code of the value, or -1 if the dictionary does not contain it.
+     */
+    public int lookup(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    /**
+     * @return Number of distinct values. Must be called by the single writer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param code A code returned by {@link #encode(String)}.
+     * @return The canonical value for the code.
+     */
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * Returns every value in code order. The list is immutable and replaced only when a value is added, so
+     * callers may cache anything derived from it for as long as they get the same instance back.
+     *
+     * @return Read-only list of the distinct values.
+     */
+    public List<String> values() {
+        return valueList;
+    }
+
+    /**
+     * View of a prefix of the values array. Entries below {@code size} are never written again, and a grown
+     * array is a new copy, so the view needs no copying of its own.
+     */
+    private static final class Values extends AbstractList<String> implements RandomAccess {
+
+        private final String[] values;
+        private final int size;
+
+        private Values(String[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.alexshamrai.metrics;
+
+import io.github.alexshamrai.service.EmployeeMessageCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the hit, miss and eviction counters of {@link EmployeeMessageCache} as {@code employee.cache}, tagged by
+ * cache so that the per-employee hit rate is not mixed with whole responses.
+ */
+@Component
+public class EmployeeCacheMetrics implements MeterBinder {
+
+    @Autowired
+    private EmployeeMessageCache messageCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EmployeeMessageCache.Cache cache : EmployeeMessageCache.Cache.values()) {
+            String name = cache.name().toLowerCase();
+            FunctionCounter.builder("employee.cache", messageCache, counted -> counted.getHits(cache))
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("employee.cache", messageCache, counted -> counted.getMisses(cache))
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("employee.cache.evictions", messageCache, counted -> counted.getEvictions(cache))
+                .tag("cache", name)
+                .register(registry);
+        }
+    }
+}
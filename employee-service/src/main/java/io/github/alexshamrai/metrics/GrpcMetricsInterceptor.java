@@ -0,0 +1,198 @@
+package io.github.alexshamrai.metrics;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records per-method call metrics on the server:
+ * <ul>
+ *     <li>{@code grpc.server.calls} - latency timer tagged by method and status code, with percentiles; for
+ *     streaming calls, the time until the stream is closed or cancelled</li>
+ *     <li>{@code grpc.server.calls.first.response} - for methods streaming responses, time from the start of the
+ *     call to its first response message, which is what a client of a stream waits for</li>
+ *     <li>{@code grpc.server.calls.active} - calls started but not yet closed or cancelled</li>
+ *     <li>{@code grpc.server.request.size} and {@code grpc.server.response.size} - serialized message bytes</li>
+ * </ul>
+ * Meters are registered the first time a method or status is seen; after that a call only allocates its
+ * forwarding wrappers. The interceptor runs before the other global interceptors, so calls they reject are
+ * recorded too. The starter's own call metrics are disabled in {@code application.yml}, so calls are counted once.
+ */
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+
+    private static final Status.Code[] CODES = Status.Code.values();
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public GrpcMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MetricsCall<ReqT, RespT> metricsCall = new MetricsCall<>(call, metricsFor(call.getMethodDescriptor()));
+        try {
+            return new MetricsListener<>(next.startCall(metricsCall, headers), metricsCall);
+        } catch (RuntimeException e) {
+            metricsCall.finish(Status.fromThrowable(e).getCode());
+            throw e;
+        }
+    }
+
+    private MethodMetrics metricsFor(MethodDescriptor<?, ?> method) {
+        MethodMetrics metrics = methods.get(method.getFullMethodName());
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method.getFullMethodName(), name -> new MethodMetrics(name, method.getType()));
+        }
+        return metrics;
+    }
+
+    private static long serializedSize(Object message) {
+        return message instanceof MessageLite messageLite ? messageLite.getSerializedSize() : 0;
+    }
+
+    private final class MethodMetrics {
+
+        private final String method;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(CODES.length);
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final Timer firstResponse;
+
+        private MethodMetrics(String method, MethodDescriptor.MethodType type) {
+            this.method = method;
+            Gauge.builder("grpc.server.calls.active", active, AtomicInteger::get)
+                .description("Calls in progress")
+                .tag("method", method)
+                .register(meterRegistry);
+            requestSize = messageSize("grpc.server.request.size", "Serialized size of received messages");
+            responseSize = messageSize("grpc.server.response.size", "Serialized size of sent messages");
+            firstResponse = type.serverSendsOneMessage() ? null : Timer.builder("grpc.server.calls.first.response")
+                .description("Time from the start of a streaming call to its first response")
+                .tag("method", method)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+
+        private DistributionSummary messageSize(String name, String description) {
+            return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("method", method)
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        }
+
+        private Timer timer(Status.Code code) {
+            Timer timer = timers.get(code.ordinal());
+            if (timer == null) {
+                // Registration is idempotent, so a racing thread just gets the same timer back.
+                timer = Timer.builder("grpc.server.calls")
+                    .description("Duration of server calls")
+                    .tag("method", method)
+                    .tag("status", code.name())
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+                timers.set(code.ordinal(), timer);
+            }
+            return timer;
+        }
+    }
+
+    private static final class MetricsCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private static final AtomicIntegerFieldUpdater<MetricsCall> FINISHED =
+            AtomicIntegerFieldUpdater.newUpdater(MetricsCall.class, "finished");
+
+        private final MethodMetrics metrics;
+        private final long start = System.nanoTime();
+        private volatile int finished;
+        /**
+         * Whether a response was sent. Only accessed from {@link #sendMessage}, which calls never invoke concurrently.
+         */
+        private boolean responded;
+
+        private MetricsCall(ServerCall<ReqT, RespT> delegate, MethodMetrics metrics) {
+            super(delegate);
+            this.metrics = metrics;
+            metrics.active.incrementAndGet();
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            if (!responded) {
+                responded = true;
+                if (metrics.firstResponse != null) {
+                    metrics.firstResponse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            metrics.responseSize.record(serializedSize(message));
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(status.getCode());
+            super.close(status, trailers);
+        }
+
+        private void finish(Status.Code code) {
+            if (FINISHED.compareAndSet(this, 0, 1)) {
+                metrics.active.decrementAndGet();
+                metrics.timer(code).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class MetricsListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final MetricsCall<ReqT, ?> call;
+
+        private MetricsListener(ServerCall.Listener<ReqT> delegate, MetricsCall<ReqT, ?> call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            call.metrics.requestSize.record(serializedSize(message));
+            super.onMessage(message);
+        }
+
+        @Override
+        public void onCancel() {
+            call.finish(Status.Code.CANCELLED);
+            super.onCancel();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.alexshamrai.metrics;
+
+import io.github.alexshamrai.data.RepositoryTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes repository timings as the {@code employee.repository} timer, tagged by operation. The timers are
+ * registered up front so that recording is a plain array lookup.
+ */
+@Component
+public class MicrometerRepositoryTimings implements RepositoryTimings {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final Timer[] timers = new Timer[OPERATIONS.length];
+
+    @Autowired
+    public MicrometerRepositoryTimings(MeterRegistry meterRegistry) {
+        for (Operation operation : OPERATIONS) {
+            timers[operation.ordinal()] = Timer.builder("employee.repository")
+                .description("Duration of repository operations")
+                .tag("operation", operation.name().toLowerCase())
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long nanos) {
+        timers[operation.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.data.feed.ChangeFeedOverrunException;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+import io.github.alexshamrai.data.feed.EmployeeChangeFeed;
+import io.github.alexshamrai.grpc.EmployeeEvent;
+import io.github.alexshamrai.grpc.EmployeeEventType;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams one subscriber's view of the {@link EmployeeChangeFeed}.
+ * <p>
+ * New changes and transport readiness only signal the stream; the changes are sent by a drain task on the
+ * executor, never on the writing thread. Signals that arrive while a drain runs are counted, so exactly one
+ * drain runs at a time and none are lost. A subscriber that falls behind by more than the feed retains is
+ * closed with {@code OUT_OF_RANGE} rather than blocking writers.
+ */
+final class ChangeFeedStream implements Runnable {
+
+    private final EmployeeChangeFeed feed;
+    private final ServerCallStreamObserver<EmployeeEvent> observer;
+    private final EmployeeMessageCache messageCache;
+    private final Executor executor;
+    private final AtomicInteger signals = new AtomicInteger();
+    private long nextSequence;
+    private boolean closed;
+
+    ChangeFeedStream(EmployeeChangeFeed feed, ServerCallStreamObserver<EmployeeEvent> observer,
+                     EmployeeMessageCache messageCache, Executor executor, long fromSequence) {
+        this.feed = feed;
+        this.observer = observer;
+        this.messageCache = messageCache;
+        this.executor = executor;
+        this.nextSequence = fromSequence;
+    }
+
+    void start() {
+        observer.setOnCancelHandler(() -> feed.removeListener(this));
+        observer.setOnReadyHandler(this);
+        feed.addListener(this);
+        run();
+    }
+
+    /**
+     * Schedules a drain unless one is already scheduled or running.
+     */
+    @Override
+    public void run() {
+        if (signals.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int pending = signals.get();
+        do {
+            send();
+            pending = signals.addAndGet(-pending);
+        } while (pending != 0);
+    }
+
+    private void send() {
+        while (!closed) {
+            if (observer.isCancelled()) {
+                close();
+                return;
+            }
+            if (!observer.isReady()) {
+                return;
+            }
+
+            EmployeeChange change;
+            try {
+                change = feed.get(nextSequence);
+            } catch (ChangeFeedOverrunException e) {
+                close();
+                observer.onError(Status.OUT_OF_RANGE
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+                return;
+            }
+            if (change == null) {
+                return;
+            }
+
+            observer.onNext(EmployeeEvent.newBuilder()
+                .setSequence(change.getSequence())
+                .setEpoch(feed.getEpoch())
+                .setType(toEventType(change.getType()))
+                .setEmployee(messageCache.getEmployee(change.getEmployee()))
+                .build());
+            nextSequence++;
+        }
+    }
+
+    private void close() {
+        closed = true;
+        feed.removeListener(this);
+    }
+
+    private static EmployeeEventType toEventType(EmployeeChange.Type type) {
+        return switch (type) {
+            case ADDED -> EmployeeEventType.EMPLOYEE_EVENT_TYPE_ADDED;
+            case UPDATED -> EmployeeEventType.EMPLOYEE_EVENT_TYPE_UPDATED;
+            case DELETED -> EmployeeEventType.EMPLOYEE_EVENT_TYPE_DELETED;
+        };
+    }
+}
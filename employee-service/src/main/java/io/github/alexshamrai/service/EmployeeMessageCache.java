@@ -0,0 +1,293 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.github.alexshamrai.grpc.GetDepartmentsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Caches protobuf messages built from repository data.
+ * <p>
+ * Individual {@code Employee} messages are kept per employee ID, for the newest version seen, and evicted with the
+ * CLOCK policy once {@code employee.cache.max-employees} are cached: messages hit since the clock hand last passed
+ * them get a second chance, so frequently read employees stay cached. Whole {@code GetAllEmployees} and
+ * {@code GetDepartments} responses are kept together with their encoded bytes and rebuilt only after the
+ * repository changes; {@link PreEncodedMarshaller} writes those bytes to the wire without re-encoding. Rebuilding
+ * a response reuses the employee messages that are cached, but caches no new ones, so that it neither floods the
+ * per-employee cache nor skews its statistics.
+ */
+@Component
+public class EmployeeMessageCache {
+
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+    /**
+     * The parts of the cache whose hits, misses and evictions are counted apart.
+     */
+    public enum Cache {
+        /**
+         * Individual {@code Employee} messages.
+         */
+        EMPLOYEES,
+        /**
+         * Whole {@code GetAllEmployees} and {@code GetDepartments} responses.
+         */
+        RESPONSES
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Value("${employee.cache.max-employees:100000}")
+    private int maxEmployees;
+
+    private final Map<Integer, CachedEmployee> employees = new ConcurrentHashMap<>();
+    /**
+     * IDs of the cached employees in the order the clock hand visits them, each once.
+     */
+    private final Queue<Integer> clock = new ConcurrentLinkedQueue<>();
+    private final Counters employeeCounters = new Counters();
+    private final Counters responseCounters = new Counters();
+
+    private volatile EncodedEmployees allEmployees;
+    private volatile EncodedDepartments departments;
+
+    /**
+     * Returns the protobuf message for an employee, building and caching it on first use of its version.
+     *
+     * @param employee The stored employee.
+     * @return The protobuf representation.
+     */
+    public io.github.alexshamrai.grpc.Employee getEmployee(Employee employee) {
+        CachedEmployee cached = employees.get(employee.getId());
+        if (cached != null) {
+            io.github.alexshamrai.grpc.Employee message = cached.message;
+            if (message.getVersion() == employee.getVersion()) {
+                cached.referenced = true;
+                employeeCounters.hits.increment();
+                return message;
+            }
+        }
+
+        employeeCounters.misses.increment();
+        io.github.alexshamrai.grpc.Employee built = toGrpcEmployee(employee);
+        CachedEmployee entry = employees.computeIfAbsent(employee.getId(), id -> new CachedEmployee(built));
+        if (entry.message == built) {
+            clock.offer(employee.getId());
+            if (employees.size() > maxEmployees) {
+                evictOne();
+            }
+        } else {
+            entry.offer(built);
+        }
+        return built;
+    }
+
+    /**
+     * Returns the protobuf message for an employee restricted to a projection. Only full messages are cached.
+     *
+     * @param employee The stored employee.
+     * @param projection The fields to include.
+     * @return The protobuf representation.
+     */
+    io.github.alexshamrai.grpc.Employee getEmployee(Employee employee, EmployeeProjection projection) {
+        return projection.isAll() ? getEmployee(employee) : projection.apply(employee);
+    }
+
+    /**
+     * Returns the response listing every employee, rebuilt only if the repository changed since the last call. A
+     * rebuild that is cancelled caches nothing.
+     *
+     * @param cancelled Checked between chunks of employees while the response is rebuilt.
+     * @return The cached response.
+     * @throws CancellationException if {@code cancelled} returned {@code true} before the response was rebuilt.
+     */
+    public GetAllEmployeesResponse getAllEmployees(BooleanSupplier cancelled) {
+        long version = employeeRepository.getVersion();
+        EncodedEmployees cached = allEmployees;
+        if (cached != null && cached.version() == version) {
+            responseCounters.hits.increment();
+            return cached.message();
+        }
+
+        responseCounters.misses.increment();
+        if (cached != null) {
+            responseCounters.evictions.increment();
+        }
+        List<Employee> source = employeeRepository.getAllEmployees();
+        GetAllEmployeesResponse.Builder builder = GetAllEmployeesResponse.newBuilder();
+        for (int i = 0; i < source.size(); i++) {
+            if (i % CANCELLATION_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                throw new CancellationException("Call cancelled");
+            }
+            builder.addEmployees(peekEmployee(source.get(i)));
+        }
+        GetAllEmployeesResponse message = builder.build();
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Call cancelled");
+        }
+        allEmployees = new EncodedEmployees(version, message, message.toByteArray());
+        return message;
+    }
+
+    /**
+     * Returns the response listing every department, rebuilt only if the department list changed.
+     *
+     * @return The cached response.
+     */
+    public GetDepartmentsResponse getDepartments() {
+        List<String> source = employeeRepository.getDepartments();
+        EncodedDepartments cached = departments;
+        if (cached != null && cached.source() == source) {
+            responseCounters.hits.increment();
+            return cached.message();
+        }
+
+        responseCounters.misses.increment();
+        if (cached != null) {
+            responseCounters.evictions.increment();
+        }
+        GetDepartmentsResponse message = GetDepartmentsResponse.newBuilder()
+            .addAllDepartments(source.stream()
+                .map(departmentName -> Department.newBuilder()
+                    .setDepartmentName(departmentName)
+                    .build())
+                .toList())
+            .build();
+        departments = new EncodedDepartments(source, message, message.toByteArray());
+        return message;
+    }
+
+    /**
+     * Returns the pre-encoded bytes of a message previously returned by this cache.
+     *
+     * @param message Any response message.
+     * @return The encoded bytes, or {@code null} if the message is not a currently cached response.
+     */
+    byte[] getEncoded(Object message) {
+        EncodedEmployees cachedEmployees = allEmployees;
+        if (cachedEmployees != null && cachedEmployees.message() == message) {
+            return cachedEmployees.bytes();
+        }
+
+        EncodedDepartments cachedDepartments = departments;
+        if (cachedDepartments != null && cachedDepartments.message() == message) {
+            return cachedDepartments.bytes();
+        }
+        return null;
+    }
+
+    public long getHits(Cache cache) {
+        return counters(cache).hits.sum();
+    }
+
+    public long getMisses(Cache cache) {
+        return counters(cache).misses.sum();
+    }
+
+    public long getEvictions(Cache cache) {
+        return counters(cache).evictions.sum();
+    }
+
+    private Counters counters(Cache cache) {
+        return switch (cache) {
+            case EMPLOYEES -> employeeCounters;
+            case RESPONSES -> responseCounters;
+        };
+    }
+
+    /**
+     * Returns the cached message for an employee's version without marking it hit, or builds one without caching
+     * it.
+     */
+    private io.github.alexshamrai.grpc.Employee peekEmployee(Employee employee) {
+        CachedEmployee cached = employees.get(employee.getId());
+        if (cached != null) {
+            io.github.alexshamrai.grpc.Employee message = cached.message;
+            if (message.getVersion() == employee.getVersion()) {
+                return message;
+            }
+        }
+        return toGrpcEmployee(employee);
+    }
+
+    /**
+     * Advances the clock hand to the first employee not hit since the hand last passed it, clearing the hits of the
+     * ones passed over, and evicts it.
+     */
+    private void evictOne() {
+        for (Integer id = clock.poll(); id != null; id = clock.poll()) {
+            CachedEmployee cached = employees.get(id);
+            if (cached == null) {
+                continue;
+            }
+            if (cached.referenced) {
+                cached.referenced = false;
+                clock.offer(id);
+            } else {
+                employees.remove(id);
+                employeeCounters.evictions.increment();
+                return;
+            }
+        }
+    }
+
+    static io.github.alexshamrai.grpc.Employee toGrpcEmployee(Employee employee) {
+        return io.github.alexshamrai.grpc.Employee.newBuilder()
+            .setId(employee.getId())
+            .setName(employee.getName())
+            .setAge(employee.getAge())
+            .setDepartment(employee.getDepartment())
+            .setPosition(employee.getPosition())
+            .setHiringYear(employee.getHiringYear())
+            .setSalary(employee.getSalary())
+            .setVersion(employee.getVersion())
+            .build();
+    }
+
+    private static final class CachedEmployee {
+
+        private volatile io.github.alexshamrai.grpc.Employee message;
+        private volatile boolean referenced;
+
+        private CachedEmployee(io.github.alexshamrai.grpc.Employee message) {
+            this.message = message;
+        }
+
+        /**
+         * Replaces the message if the candidate is newer: a reader of an older snapshot must not displace the
+         * version current readers ask for.
+         */
+        private synchronized void offer(io.github.alexshamrai.grpc.Employee candidate) {
+            if (candidate.getVersion() > message.getVersion()) {
+                message = candidate;
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+    }
+
+    private record EncodedEmployees(long version, GetAllEmployeesResponse message, byte[] bytes) {
+    }
+
+    private record EncodedDepartments(List<String> source, GetDepartmentsResponse message, byte[] bytes) {
+    }
+}
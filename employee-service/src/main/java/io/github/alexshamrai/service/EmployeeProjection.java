@@ -0,0 +1,101 @@
+package io.github.alexshamrai.service;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.FieldMask;
+import io.github.alexshamrai.data.Employee;
+
+import static io.github.alexshamrai.grpc.Employee.AGE_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.DEPARTMENT_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.HIRING_YEAR_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.ID_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.NAME_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.POSITION_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.SALARY_FIELD_NUMBER;
+import static io.github.alexshamrai.grpc.Employee.VERSION_FIELD_NUMBER;
+
+/**
+ * The {@code Employee} fields selected by a request's {@code read_mask}.
+ * <p>
+ * An empty mask, or one naming every field, selects the full message, which is served from
+ * {@link EmployeeMessageCache}. Any other mask builds a message with only the selected fields, reading nothing else
+ * from the stored employee.
+ */
+final class EmployeeProjection {
+
+    private static final int ALL_FIELDS = bit(ID_FIELD_NUMBER) | bit(NAME_FIELD_NUMBER) | bit(AGE_FIELD_NUMBER)
+        | bit(DEPARTMENT_FIELD_NUMBER) | bit(POSITION_FIELD_NUMBER) | bit(HIRING_YEAR_FIELD_NUMBER)
+        | bit(SALARY_FIELD_NUMBER) | bit(VERSION_FIELD_NUMBER);
+
+    static final EmployeeProjection ALL = new EmployeeProjection(ALL_FIELDS);
+
+    private final int fields;
+
+    private EmployeeProjection(int fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param mask Paths of top-level {@code Employee} fields, e.g. {@code id}, {@code name} and {@code hiring_year}.
+     * @return The projection; {@link #ALL} for an empty mask.
+     * @throws IllegalArgumentException if a path is not an {@code Employee} field.
+     */
+    static EmployeeProjection of(FieldMask mask) {
+        if (mask.getPathsCount() == 0) {
+            return ALL;
+        }
+
+        int fields = 0;
+        for (String path : mask.getPathsList()) {
+            Descriptors.FieldDescriptor field = io.github.alexshamrai.grpc.Employee.getDescriptor().findFieldByName(path);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field in read_mask: " + path);
+            }
+            fields |= bit(field.getNumber());
+        }
+        return fields == ALL_FIELDS ? ALL : new EmployeeProjection(fields);
+    }
+
+    boolean isAll() {
+        return fields == ALL_FIELDS;
+    }
+
+    /**
+     * Builds the message with the selected fields only; cached full messages are not consulted.
+     */
+    io.github.alexshamrai.grpc.Employee apply(Employee employee) {
+        io.github.alexshamrai.grpc.Employee.Builder message = io.github.alexshamrai.grpc.Employee.newBuilder();
+        if (selects(ID_FIELD_NUMBER)) {
+            message.setId(employee.getId());
+        }
+        if (selects(NAME_FIELD_NUMBER)) {
+            message.setName(employee.getName());
+        }
+        if (selects(AGE_FIELD_NUMBER)) {
+            message.setAge(employee.getAge());
+        }
+        if (selects(DEPARTMENT_FIELD_NUMBER)) {
+            message.setDepartment(employee.getDepartment());
+        }
+        if (selects(POSITION_FIELD_NUMBER)) {
+            message.setPosition(employee.getPosition());
+        }
+        if (selects(HIRING_YEAR_FIELD_NUMBER)) {
+            message.setHiringYear(employee.getHiringYear());
+        }
+        if (selects(SALARY_FIELD_NUMBER)) {
+            message.setSalary(employee.getSalary());
+        }
+        if (selects(VERSION_FIELD_NUMBER)) {
+            message.setVersion(employee.getVersion());
+        }
+        return message.build();
+    }
+
+    private boolean selects(int fieldNumber) {
+        return (fields & bit(fieldNumber)) != 0;
+    }
+
+    private static int bit(int fieldNumber) {
+        return 1 << fieldNumber;
+    }
+}
@@ -1,47 +1,99 @@
 package io.github.alexshamrai.service;
 
 import com.google.protobuf.Empty;
+import com.google.protobuf.FieldMask;
 import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeePage;
 import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.data.SnapshotTooOldException;
+import io.github.alexshamrai.data.VersionConflictException;
+import io.github.alexshamrai.data.aggregate.AggregateField;
+import io.github.alexshamrai.data.aggregate.Grouping;
+import io.github.alexshamrai.data.aggregate.HistogramBin;
+import io.github.alexshamrai.data.aggregate.SalaryStats;
+import io.github.alexshamrai.data.feed.EmployeeChangeFeed;
 import io.github.alexshamrai.grpc.AddEmployeeRequest;
 import io.github.alexshamrai.grpc.AddEmployeeResponse;
-import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.AddEmployeeResult;
+import io.github.alexshamrai.grpc.AddEmployeesRequest;
+import io.github.alexshamrai.grpc.AddEmployeesResponse;
+import io.github.alexshamrai.grpc.BatchGetEmployeesRequest;
+import io.github.alexshamrai.grpc.BatchGetEmployeesResponse;
+import io.github.alexshamrai.grpc.DeleteEmployeeRequest;
+import io.github.alexshamrai.grpc.EmployeeEvent;
 import io.github.alexshamrai.grpc.EmployeeFilterRequest;
 import io.github.alexshamrai.grpc.EmployeeListResponse;
 import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesRequest;
 import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
 import io.github.alexshamrai.grpc.GetDepartmentsResponse;
 import io.github.alexshamrai.grpc.GetEmployeeRequest;
 import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.github.alexshamrai.grpc.HistogramBucket;
+import io.github.alexshamrai.grpc.HistogramRequest;
+import io.github.alexshamrai.grpc.HistogramResponse;
+import io.github.alexshamrai.grpc.SalaryStatistics;
+import io.github.alexshamrai.grpc.SalaryStatisticsRequest;
+import io.github.alexshamrai.grpc.SalaryStatisticsResponse;
+import io.github.alexshamrai.grpc.SearchEmployeesRequest;
+import io.github.alexshamrai.grpc.SearchMode;
+import io.github.alexshamrai.grpc.UpdateEmployeeRequest;
+import io.github.alexshamrai.grpc.UpdateEmployeeResponse;
+import io.github.alexshamrai.grpc.WatchEmployeesRequest;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ServerServiceDefinition;
 import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 @GrpcService
 public class EmployeeService extends EmployeeServiceGrpc.EmployeeServiceImplBase {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int INGEST_BATCH_SIZE = 1000;
+    private static final int MAX_BATCH_GET_SIZE = 1000;
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 256;
+    private static final EmployeeFilter ALL_EMPLOYEES = EmployeeFilter.builder().build();
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EmployeeMessageCache messageCache;
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return PreEncodedMarshaller.bind(super.bindService(), messageCache);
+    }
+
     @Override
     public void getAllEmployees(Empty request, StreamObserver<GetAllEmployeesResponse> responseObserver) {
-        GetAllEmployeesResponse response = GetAllEmployeesResponse.newBuilder()
-            .addAllEmployees(employeeRepository.getAllEmployees().stream()
-                .map(employee -> io.github.alexshamrai.grpc.Employee.newBuilder()
-                    .setId(employee.getId())
-                    .setName(employee.getName())
-                    .setAge(employee.getAge())
-                    .setDepartment(employee.getDepartment())
-                    .setPosition(employee.getPosition())
-                    .setHiringYear(employee.getHiringYear())
-                    .setSalary(employee.getSalary())
-                    .build())
-                .toList())
-            .build();
+        Context context = Context.current();
+        GetAllEmployeesResponse response;
+        try {
+            response = messageCache.getAllEmployees(context::isCancelled);
+        } catch (CancellationException e) {
+            responseObserver.onError(abandoned(context));
+            return;
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        }
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
@@ -49,116 +101,289 @@ public class EmployeeService extends EmployeeServiceGrpc.EmployeeServiceImplBase
 
     @Override
     public void addEmployee(AddEmployeeRequest request, StreamObserver<AddEmployeeResponse> responseObserver) {
-        if (request.getAge() < 18 || request.getAge() > 60) {
+        String error = validate(request);
+        if (error != null) {
             responseObserver.onError(Status.INVALID_ARGUMENT
-                .withDescription("Employee age must be between 18 and 60")
+                .withDescription(error)
                 .asRuntimeException());
             return;
         }
 
-        if (request.getSalary() <= 0) {
+        var createdEmployee = employeeRepository.save(toEmployee(request));
+
+        AddEmployeeResponse response = AddEmployeeResponse.newBuilder()
+            .setEmployeeId(createdEmployee.getId())
+            .build();
+
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void addEmployees(AddEmployeesRequest request, StreamObserver<AddEmployeesResponse> responseObserver) {
+        AddEmployeesResponse.Builder response = AddEmployeesResponse.newBuilder();
+        addBatch(request.getEmployeesList(), response);
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void updateEmployee(UpdateEmployeeRequest request, StreamObserver<UpdateEmployeeResponse> responseObserver) {
+        String error = validate(request.getEmployee());
+        if (error != null) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription(error)
+                .asRuntimeException());
+            return;
+        }
+        if (request.getExpectedVersion() < 0) {
             responseObserver.onError(Status.INVALID_ARGUMENT
-                .withDescription("Employee salary must be greater than 0")
+                .withDescription("Expected version must not be negative")
                 .asRuntimeException());
             return;
         }
 
-        Employee newEmployee = Employee.builder()
-            .name(request.getName())
-            .age(request.getAge())
-            .department(request.getDepartment())
-            .position(request.getPosition())
-            .hiringYear(request.getHiringYear())
-            .salary(request.getSalary())
+        Employee employee = toEmployee(request.getEmployee()).toBuilder()
+            .id(request.getEmployeeId())
             .build();
+        Optional<Employee> updated;
+        try {
+            updated = employeeRepository.update(employee, request.getExpectedVersion());
+        } catch (VersionConflictException e) {
+            responseObserver.onError(conflict(e));
+            return;
+        } catch (UnsupportedOperationException e) {
+            responseObserver.onError(unimplemented(e));
+            return;
+        }
+        if (updated.isEmpty()) {
+            responseObserver.onError(notFound(request.getEmployeeId()));
+            return;
+        }
 
-        var createdEmployee = employeeRepository.save(newEmployee);
-
-        AddEmployeeResponse response = AddEmployeeResponse.newBuilder()
-            .setEmployeeId(createdEmployee.getId())
+        UpdateEmployeeResponse response = UpdateEmployeeResponse.newBuilder()
+            .setEmployee(messageCache.getEmployee(updated.get(), EmployeeProjection.ALL))
             .build();
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void deleteEmployee(DeleteEmployeeRequest request, StreamObserver<Empty> responseObserver) {
+        if (request.getExpectedVersion() < 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Expected version must not be negative")
+                .asRuntimeException());
+            return;
+        }
+
+        Optional<Employee> deleted;
+        try {
+            deleted = employeeRepository.delete(request.getEmployeeId(), request.getExpectedVersion());
+        } catch (VersionConflictException e) {
+            responseObserver.onError(conflict(e));
+            return;
+        } catch (UnsupportedOperationException e) {
+            responseObserver.onError(unimplemented(e));
+            return;
+        }
+        if (deleted.isEmpty()) {
+            responseObserver.onError(notFound(request.getEmployeeId()));
+            return;
+        }
+
+        responseObserver.onNext(Empty.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<AddEmployeeRequest> ingestEmployees(StreamObserver<AddEmployeesResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private final List<AddEmployeeRequest> pending = new ArrayList<>(INGEST_BATCH_SIZE);
+            private final AddEmployeesResponse.Builder response = AddEmployeesResponse.newBuilder();
+
+            @Override
+            public void onNext(AddEmployeeRequest request) {
+                pending.add(request);
+                if (pending.size() == INGEST_BATCH_SIZE) {
+                    addBatch(pending, response);
+                    pending.clear();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                pending.clear();
+            }
+
+            @Override
+            public void onCompleted() {
+                addBatch(pending, response);
+                pending.clear();
+
+                responseObserver.onNext(response.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
     @Override
     public void getEmployee(GetEmployeeRequest request, StreamObserver<GetEmployeeResponse> responseObserver) {
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
+
         var employee = employeeRepository.findById(request.getEmployeeId());
         if (employee.isPresent()) {
-            Employee model = employee.get();
             GetEmployeeResponse response = GetEmployeeResponse.newBuilder()
-                .setEmployee(io.github.alexshamrai.grpc.Employee.newBuilder()
-                    .setId(model.getId())
-                    .setName(model.getName())
-                    .setAge(model.getAge())
-                    .setDepartment(model.getDepartment())
-                    .setPosition(model.getPosition())
-                    .setHiringYear(model.getHiringYear())
-                    .setSalary(model.getSalary())
-                    .build())
+                .setEmployee(messageCache.getEmployee(employee.get(), projection))
                 .build();
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } else {
-            responseObserver.onError(Status.NOT_FOUND
-                .withDescription("Employee with ID " + request.getEmployeeId() + " not found")
+            responseObserver.onError(notFound(request.getEmployeeId()));
+        }
+    }
+
+    @Override
+    public void batchGetEmployees(BatchGetEmployeesRequest request,
+                                  StreamObserver<BatchGetEmployeesResponse> responseObserver) {
+        int count = request.getEmployeeIdsCount();
+        if (count > MAX_BATCH_GET_SIZE) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + MAX_BATCH_GET_SIZE + " employee IDs can be requested at once")
                 .asRuntimeException());
+            return;
+        }
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
+
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = request.getEmployeeIds(i);
+        }
+        Employee[] employees = employeeRepository.findAllById(ids);
+
+        BatchGetEmployeesResponse.Builder response = BatchGetEmployeesResponse.newBuilder();
+        for (int i = 0; i < count; i++) {
+            if (employees[i] != null) {
+                response.addEmployees(messageCache.getEmployee(employees[i], projection));
+            } else {
+                response.addMissingEmployeeIds(ids[i]);
+            }
         }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
     }
 
     @Override
     public void filterEmployees(EmployeeFilterRequest request, StreamObserver<EmployeeListResponse> responseObserver) {
-        List<Employee> filteredEmployees = employeeRepository.getAllEmployees().stream()
-            .filter(employee -> {
-                if (request.hasHiringYear() && employee.getHiringYear() != request.getHiringYear()) {
-                    return false;
-                }
-
-                if (request.hasDepartment() && !employee.getDepartment().equals(request.getDepartment())) {
-                    return false;
-                }
+        if (request.getPageSize() < 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Page size must not be negative")
+                .asRuntimeException());
+            return;
+        }
 
-                if (request.hasMinAge() && employee.getAge() < request.getMinAge()) {
-                    return false;
-                }
+        EmployeeFilter filter = toFilter(request);
+        long requestHash = PageTokens.requestHash("FilterEmployees", filter);
+        int fromRow;
+        try {
+            fromRow = PageTokens.decode(request.getPageToken(), requestHash);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(invalidPageToken(e));
+            return;
+        }
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
 
-                if (request.hasMaxAge() && employee.getAge() > request.getMaxAge()) {
-                    return false;
-                }
+        int pageSize = request.getPageSize() == 0 ? Integer.MAX_VALUE : request.getPageSize();
+        // An unselective filter can scan and convert the whole table; stop once the client no longer waits for it.
+        Context context = Context.current();
+        EmployeeListResponse response;
+        try {
+            EmployeePage page = employeeRepository.findPage(filter, fromRow, pageSize, context::isCancelled);
+            response = EmployeeListResponse.newBuilder()
+                .addAllEmployees(toGrpcEmployees(page.getEmployees(), projection, context))
+                .setNextPageToken(PageTokens.encode(page.getNextRow(), requestHash))
+                .build();
+        } catch (CancellationException e) {
+            responseObserver.onError(abandoned(context));
+            return;
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        }
 
-                if (request.hasPosition() && !employee.getPosition().equals(request.getPosition())) {
-                    return false;
-                }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
 
-                if (request.hasMinSalary() && employee.getSalary() < request.getMinSalary()) {
-                    return false;
-                }
+    @Override
+    public void searchEmployees(SearchEmployeesRequest request, StreamObserver<EmployeeListResponse> responseObserver) {
+        if (request.getQuery().length() > MAX_SEARCH_QUERY_LENGTH) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Query must not be longer than " + MAX_SEARCH_QUERY_LENGTH + " characters")
+                .asRuntimeException());
+            return;
+        }
+        if (request.getMode() == SearchMode.UNRECOGNIZED) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Unknown search mode")
+                .asRuntimeException());
+            return;
+        }
+        if (request.getPageSize() < 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Page size must not be negative")
+                .asRuntimeException());
+            return;
+        }
 
-                if (request.hasMaxSalary() && employee.getSalary() > request.getMaxSalary()) {
-                    return false;
-                }
+        EmployeeFilter filter = toFilter(request.getFilter());
+        long requestHash = PageTokens.requestHash("SearchEmployees", request.getQuery(), request.getMode(), filter);
+        int fromRow;
+        try {
+            fromRow = PageTokens.decode(request.getPageToken(), requestHash);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(invalidPageToken(e));
+            return;
+        }
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
 
-                return true;
-            })
-            .toList();
-
-        List<io.github.alexshamrai.grpc.Employee> grpcEmployees = filteredEmployees.stream()
-            .map(employee -> io.github.alexshamrai.grpc.Employee.newBuilder()
-                .setId(employee.getId())
-                .setName(employee.getName())
-                .setAge(employee.getAge())
-                .setDepartment(employee.getDepartment())
-                .setPosition(employee.getPosition())
-                .setHiringYear(employee.getHiringYear())
-                .setSalary(employee.getSalary())
-                .build())
-            .toList();
-
-        EmployeeListResponse response = EmployeeListResponse.newBuilder()
-            .addAllEmployees(grpcEmployees)
-            .build();
+        int pageSize = request.getPageSize() == 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getPageSize(), MAX_PAGE_SIZE);
+        Context context = Context.current();
+        EmployeeListResponse response;
+        try {
+            boolean prefix = request.getMode() == SearchMode.SEARCH_MODE_PREFIX;
+            EmployeePage page = employeeRepository.search(request.getQuery(), prefix, filter, fromRow, pageSize,
+                context::isCancelled);
+            response = EmployeeListResponse.newBuilder()
+                .addAllEmployees(toGrpcEmployees(page.getEmployees(), projection, context))
+                .setNextPageToken(PageTokens.encode(page.getNextRow(), requestHash))
+                .build();
+        } catch (CancellationException e) {
+            responseObserver.onError(abandoned(context));
+            return;
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        } catch (IllegalStateException e) {
+            responseObserver.onError(internal(e));
+            return;
+        }
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
@@ -166,17 +391,382 @@ public class EmployeeService extends EmployeeServiceGrpc.EmployeeServiceImplBase
 
     @Override
     public void getDepartments(Empty request, StreamObserver<GetDepartmentsResponse> responseObserver) {
-        List<Department> departments = employeeRepository.getDepartments().stream()
-            .map(departmentName -> Department.newBuilder()
-                .setDepartmentName(departmentName)
-                .build())
-            .toList();
-
-        GetDepartmentsResponse response = GetDepartmentsResponse.newBuilder()
-            .addAllDepartments(departments)
+        responseObserver.onNext(messageCache.getDepartments());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listEmployees(GetAllEmployeesRequest request, StreamObserver<GetAllEmployeesResponse> responseObserver) {
+        if (request.getPageSize() < 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Page size must not be negative")
+                .asRuntimeException());
+            return;
+        }
+
+        long requestHash = PageTokens.requestHash("ListEmployees");
+        int fromRow;
+        try {
+            fromRow = PageTokens.decode(request.getPageToken(), requestHash);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(invalidPageToken(e));
+            return;
+        }
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
+
+        int pageSize = request.getPageSize() == 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getPageSize(), MAX_PAGE_SIZE);
+        EmployeePage page;
+        try {
+            page = employeeRepository.findPage(ALL_EMPLOYEES, fromRow, pageSize);
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        }
+
+        GetAllEmployeesResponse response = GetAllEmployeesResponse.newBuilder()
+            .addAllEmployees(page.getEmployees().stream()
+                .map(employee -> messageCache.getEmployee(employee, projection))
+                .toList())
+            .setNextPageToken(PageTokens.encode(page.getNextRow(), requestHash))
             .build();
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void streamAllEmployees(Empty request, StreamObserver<io.github.alexshamrai.grpc.Employee> responseObserver) {
+        streamEmployees(employeeRepository.getAllEmployees().iterator(), EmployeeProjection.ALL, responseObserver);
+    }
+
+    @Override
+    public void streamFilteredEmployees(EmployeeFilterRequest request,
+                                        StreamObserver<io.github.alexshamrai.grpc.Employee> responseObserver) {
+        EmployeeProjection projection = projection(request.getReadMask(), responseObserver);
+        if (projection == null) {
+            return;
+        }
+
+        Iterator<Employee> employees;
+        try {
+            employees = employeeRepository.scan(toFilter(request), Context.current()::isCancelled);
+        } catch (CancellationException e) {
+            responseObserver.onError(abandoned(Context.current()));
+            return;
+        }
+        streamEmployees(employees, projection, responseObserver);
+    }
+
+    @Override
+    public void getSalaryStatistics(SalaryStatisticsRequest request,
+                                    StreamObserver<SalaryStatisticsResponse> responseObserver) {
+        double[] percentiles = request.getPercentilesList().stream().mapToDouble(Double::doubleValue).toArray();
+        for (double percentile : percentiles) {
+            if (!(percentile >= 0 && percentile <= 1)) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Percentiles must be between 0 and 1")
+                    .asRuntimeException());
+                return;
+            }
+        }
+
+        Grouping grouping = switch (request.getGroupBy()) {
+            case GROUP_BY_NONE -> Grouping.NONE;
+            case GROUP_BY_DEPARTMENT -> Grouping.DEPARTMENT;
+            case GROUP_BY_POSITION -> Grouping.POSITION;
+            case GROUP_BY_HIRING_YEAR -> Grouping.HIRING_YEAR;
+            case UNRECOGNIZED -> null;
+        };
+        if (grouping == null) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Unknown group_by")
+                .asRuntimeException());
+            return;
+        }
+
+        List<SalaryStats> statistics;
+        try {
+            statistics = employeeRepository.salaryStatistics(toFilter(request.getFilter()), grouping, percentiles);
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        }
+
+        SalaryStatisticsResponse.Builder response = SalaryStatisticsResponse.newBuilder();
+        for (SalaryStats stats : statistics) {
+            response.addGroups(SalaryStatistics.newBuilder()
+                .setGroup(stats.getGroup())
+                .setCount(stats.getCount())
+                .setSum(stats.getSum())
+                .setMin(stats.getMin())
+                .setMax(stats.getMax())
+                .setMean(stats.getMean())
+                .addAllPercentiles(stats.getPercentiles()));
+        }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getHistogram(HistogramRequest request, StreamObserver<HistogramResponse> responseObserver) {
+        if (!(request.getBucketWidth() > 0) || Double.isInfinite(request.getBucketWidth())) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Bucket width must be greater than 0")
+                .asRuntimeException());
+            return;
+        }
+
+        AggregateField field = switch (request.getField()) {
+            case HISTOGRAM_FIELD_AGE -> AggregateField.AGE;
+            case HISTOGRAM_FIELD_SALARY -> AggregateField.SALARY;
+            case UNRECOGNIZED -> null;
+        };
+        if (field == null) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Unknown histogram field")
+                .asRuntimeException());
+            return;
+        }
+
+        List<HistogramBin> bins;
+        try {
+            bins = employeeRepository.histogram(toFilter(request.getFilter()), field, request.getBucketWidth());
+        } catch (SnapshotTooOldException e) {
+            responseObserver.onError(tooOld(e));
+            return;
+        }
+
+        HistogramResponse.Builder response = HistogramResponse.newBuilder();
+        for (HistogramBin bin : bins) {
+            response.addBuckets(HistogramBucket.newBuilder()
+                .setLowerBound(bin.getLowerBound())
+                .setCount(bin.getCount()));
+        }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void watchEmployees(WatchEmployeesRequest request, StreamObserver<EmployeeEvent> responseObserver) {
+        if (request.getFromSequence() < 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Sequence must not be negative")
+                .asRuntimeException());
+            return;
+        }
+
+        EmployeeChangeFeed changeFeed = employeeRepository.getChangeFeed();
+        if (request.getFromSequence() != 0 && request.getEpoch() != changeFeed.getEpoch()) {
+            responseObserver.onError(Status.OUT_OF_RANGE
+                .withDescription("Epoch " + request.getEpoch() + " is not the current one")
+                .asRuntimeException());
+            return;
+        }
+        long lastSequence = changeFeed.getLastSequence();
+        long fromSequence = request.getFromSequence() == 0 ? lastSequence + 1 : request.getFromSequence();
+        if (fromSequence > lastSequence + 1) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Sequence " + request.getFromSequence() + " has not been assigned yet")
+                .asRuntimeException());
+            return;
+        }
+
+        new ChangeFeedStream(changeFeed, (ServerCallStreamObserver<EmployeeEvent>) responseObserver, messageCache,
+            ForkJoinPool.commonPool(), fromSequence).start();
+    }
+
+    /**
+     * Sends employees one message at a time while the transport is ready and resumes from the on-ready
+     * handler, so a slow client never makes the server buffer more than the flow-control window. An iterator
+     * that stops with {@link CancellationException} ends the stream silently, as the call is already cancelled;
+     * one that outlives the version retention fails it with {@code ABORTED}.
+     */
+    private void streamEmployees(Iterator<Employee> employees, EmployeeProjection projection,
+                                 StreamObserver<io.github.alexshamrai.grpc.Employee> responseObserver) {
+        var serverObserver = (ServerCallStreamObserver<io.github.alexshamrai.grpc.Employee>) responseObserver;
+        Runnable drain = new Runnable() {
+            private boolean completed;
+
+            @Override
+            public void run() {
+                try {
+                    while (!completed && serverObserver.isReady() && !serverObserver.isCancelled() && employees.hasNext()) {
+                        serverObserver.onNext(messageCache.getEmployee(employees.next(), projection));
+                    }
+                    if (!completed && !serverObserver.isCancelled() && !employees.hasNext()) {
+                        completed = true;
+                        serverObserver.onCompleted();
+                    }
+                } catch (CancellationException e) {
+                    completed = true;
+                } catch (SnapshotTooOldException e) {
+                    completed = true;
+                    serverObserver.onError(tooOld(e));
+                }
+            }
+        };
+
+        serverObserver.setOnCancelHandler(() -> { });
+        serverObserver.setOnReadyHandler(drain);
+        drain.run();
+    }
+
+    /**
+     * Converts employees to messages, checking every {@value #CANCELLATION_CHECK_INTERVAL} employees whether the
+     * call is still wanted.
+     *
+     * @throws CancellationException if the call was cancelled or passed its deadline.
+     */
+    private List<io.github.alexshamrai.grpc.Employee> toGrpcEmployees(List<Employee> employees,
+                                                                     EmployeeProjection projection, Context context) {
+        List<io.github.alexshamrai.grpc.Employee> messages = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (messages.size() % CANCELLATION_CHECK_INTERVAL == 0 && context.isCancelled()) {
+                throw new CancellationException("Call cancelled");
+            }
+            messages.add(messageCache.getEmployee(employee, projection));
+        }
+        return messages;
+    }
+
+    /**
+     * @return The error to close a call with whose scan was abandoned.
+     */
+    private static StatusRuntimeException abandoned(Context context) {
+        Deadline deadline = context.getDeadline();
+        Status status = deadline != null && deadline.isExpired() ? Status.DEADLINE_EXCEEDED : Status.CANCELLED;
+        return status
+            .withDescription("Scan abandoned because the call ended")
+            .asRuntimeException();
+    }
+
+    private static StatusRuntimeException invalidPageToken(IllegalArgumentException e) {
+        return Status.INVALID_ARGUMENT
+            .withDescription(e.getMessage())
+            .asRuntimeException();
+    }
+
+    private static StatusRuntimeException notFound(int id) {
+        return Status.NOT_FOUND
+            .withDescription("Employee with ID " + id + " not found")
+            .asRuntimeException();
+    }
+
+    private static StatusRuntimeException conflict(VersionConflictException e) {
+        return Status.ABORTED
+            .withDescription(e.getMessage())
+            .asRuntimeException();
+    }
+
+    private static StatusRuntimeException unimplemented(UnsupportedOperationException e) {
+        return Status.UNIMPLEMENTED
+            .withDescription(e.getMessage())
+            .asRuntimeException();
+    }
+
+    /**
+     * @return The error to close a call with that failed on the server's side; retrying may succeed.
+     */
+    private static StatusRuntimeException internal(IllegalStateException e) {
+        return Status.INTERNAL
+            .withDescription(e.getMessage())
+            .withCause(e)
+            .asRuntimeException();
+    }
+
+    /**
+     * @return The error to close a call with whose snapshot lost row versions while it was read; retrying reads
+     *         a current snapshot.
+     */
+    private static StatusRuntimeException tooOld(SnapshotTooOldException e) {
+        return Status.ABORTED
+            .withDescription(e.getMessage())
+            .asRuntimeException();
+    }
+
+    /**
+     * Parses a {@code read_mask}, answering the call with {@code INVALID_ARGUMENT} if it names an unknown field.
+     *
+     * @return The projection, or {@code null} if the call has been failed.
+     */
+    private static EmployeeProjection projection(FieldMask readMask, StreamObserver<?> responseObserver) {
+        try {
+            return EmployeeProjection.of(readMask);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription(e.getMessage())
+                .asRuntimeException());
+            return null;
+        }
+    }
+
+    /**
+     * Validates every request, saves the valid ones in one repository call and appends a result per request.
+     */
+    private void addBatch(List<AddEmployeeRequest> requests, AddEmployeesResponse.Builder response) {
+        String[] errors = new String[requests.size()];
+        List<Employee> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            errors[i] = validate(requests.get(i));
+            if (errors[i] == null) {
+                valid.add(toEmployee(requests.get(i)));
+            }
+        }
+
+        List<Employee> saved = valid.isEmpty() ? List.of() : employeeRepository.saveAll(valid);
+
+        int next = 0;
+        for (String error : errors) {
+            AddEmployeeResult.Builder result = AddEmployeeResult.newBuilder();
+            if (error == null) {
+                result.setEmployeeId(saved.get(next++).getId());
+            } else {
+                result.setError(error);
+            }
+            response.addResults(result);
+        }
+    }
+
+    /**
+     * @return Description of the first failed check, or {@code null} if the request is valid.
+     */
+    private static String validate(AddEmployeeRequest request) {
+        if (request.getAge() < 18 || request.getAge() > 60) {
+            return "Employee age must be between 18 and 60";
+        }
+
+        if (request.getSalary() <= 0) {
+            return "Employee salary must be greater than 0";
+        }
+
+        return null;
+    }
+
+    private static Employee toEmployee(AddEmployeeRequest request) {
+        return Employee.builder()
+            .name(request.getName())
+            .age(request.getAge())
+            .department(request.getDepartment())
+            .position(request.getPosition())
+            .hiringYear(request.getHiringYear())
+            .salary(request.getSalary())
+            .build();
+    }
+
+    private static EmployeeFilter toFilter(EmployeeFilterRequest request) {
+        return EmployeeFilter.builder()
+            .hiringYear(request.hasHiringYear() ? request.getHiringYear() : null)
+            .department(request.hasDepartment() ? request.getDepartment() : null)
+            .minAge(request.hasMinAge() ? request.getMinAge() : null)
+            .maxAge(request.hasMaxAge() ? request.getMaxAge() : null)
+            .position(request.hasPosition() ? request.getPosition() : null)
+            .minSalary(request.hasMinSalary() ? request.getMinSalary() : null)
+            .maxSalary(request.hasMaxSalary() ? request.getMaxSalary() : null)
+            .build();
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.alexshamrai.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes repository row cursors as opaque page tokens. A token also carries a hash of the request that issued it,
+ * so that it is rejected when passed to another method or with other criteria, where its row would resume a
+ * different result.
+ */
+final class PageTokens {
+
+    private static final byte VERSION = 2;
+    private static final int TOKEN_BYTES = Byte.BYTES + Long.BYTES + Integer.BYTES;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PageTokens() {
+    }
+
+    /**
+     * Hashes what a page token is valid for: the method and every criterion that selects or orders its results,
+     * but not the page size or read mask, which may change from page to page.
+     *
+     * @param method   Name of the method issuing and accepting the token.
+     * @param criteria The request's criteria; {@code null} stands for one that is not set.
+     * @return 64-bit FNV-1a hash of the method and criteria.
+     */
+    static long requestHash(String method, Object... criteria) {
+        long hash = hash(FNV_OFFSET_BASIS, method);
+        for (Object criterion : criteria) {
+            // Separated by 0xff, which never occurs in UTF-8, so that criteria cannot run into each other.
+            hash = (hash ^ 0xff) * FNV_PRIME;
+            hash = hash(hash, String.valueOf(criterion));
+        }
+        return hash;
+    }
+
+    /**
+     * @param row         Row number the next page starts at, or {@code null} if there is no next page.
+     * @param requestHash {@link #requestHash} of the request the page answers.
+     * @return Opaque token, empty if there is no next page.
+     */
+    static String encode(Integer row, long requestHash) {
+        if (row == null) {
+            return "";
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+            .put(VERSION)
+            .putLong(requestHash)
+            .putInt(row);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param token       Token previously returned by {@link #encode(Integer, long)}, or empty for the first page.
+     * @param requestHash {@link #requestHash} of the request the token is passed with.
+     * @return Row number to resume from.
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different request.
+     */
+    static int decode(String token, long requestHash) {
+        if (token.isEmpty()) {
+            return 0;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+        if (bytes.length != TOKEN_BYTES || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, Long.BYTES + Integer.BYTES);
+        if (buffer.getLong() != requestHash) {
+            throw new IllegalArgumentException("Page token was issued for a different request");
+        }
+        int row = buffer.getInt();
+        if (row < 0) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        return row;
+    }
+
+    private static long hash(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
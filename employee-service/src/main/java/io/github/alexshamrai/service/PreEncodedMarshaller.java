@@ -0,0 +1,83 @@
+package io.github.alexshamrai.service;
+
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response marshaller that writes messages cached by {@link EmployeeMessageCache} straight from their encoded
+ * bytes and falls back to the regular protobuf marshaller for everything else.
+ *
+ * @param <T> Response message type.
+ */
+final class PreEncodedMarshaller<T> implements MethodDescriptor.Marshaller<T> {
+
+    private final MethodDescriptor.Marshaller<T> delegate;
+    private final EmployeeMessageCache messageCache;
+
+    private PreEncodedMarshaller(MethodDescriptor.Marshaller<T> delegate, EmployeeMessageCache messageCache) {
+        this.delegate = delegate;
+        this.messageCache = messageCache;
+    }
+
+    /**
+     * Rebinds every method of the service so that its responses go through this marshaller.
+     *
+     * @param definition   The service definition generated by grpc-java.
+     * @param messageCache The cache holding pre-encoded responses.
+     * @return An equivalent service definition using pre-encoded responses where available.
+     */
+    static ServerServiceDefinition bind(ServerServiceDefinition definition, EmployeeMessageCache messageCache) {
+        ServiceDescriptor original = definition.getServiceDescriptor();
+        ServiceDescriptor.Builder descriptor = ServiceDescriptor.newBuilder(original.getName())
+            .setSchemaDescriptor(original.getSchemaDescriptor());
+
+        List<ServerMethodDefinition<?, ?>> methods = new ArrayList<>();
+        for (ServerMethodDefinition<?, ?> method : definition.getMethods()) {
+            ServerMethodDefinition<?, ?> rebound = rebind(method, messageCache);
+            descriptor.addMethod(rebound.getMethodDescriptor());
+            methods.add(rebound);
+        }
+
+        ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(descriptor.build());
+        for (ServerMethodDefinition<?, ?> method : methods) {
+            builder.addMethod(method);
+        }
+        return builder.build();
+    }
+
+    private static <ReqT, RespT> ServerMethodDefinition<ReqT, RespT> rebind(ServerMethodDefinition<ReqT, RespT> method,
+                                                                          EmployeeMessageCache messageCache) {
+        MethodDescriptor<ReqT, RespT> descriptor = method.getMethodDescriptor();
+        return ServerMethodDefinition.create(
+            descriptor.toBuilder()
+                .setResponseMarshaller(new PreEncodedMarshaller<>(descriptor.getResponseMarshaller(), messageCache))
+                .build(),
+            method.getServerCallHandler());
+    }
+
+    @Override
+    public InputStream stream(T value) {
+        byte[] encoded = messageCache.getEncoded(value);
+        return encoded != null ? new EncodedStream(encoded) : delegate.stream(value);
+    }
+
+    @Override
+    public T parse(InputStream stream) {
+        return delegate.parse(stream);
+    }
+
+    private static final class EncodedStream extends ByteArrayInputStream implements KnownLength {
+
+        private EncodedStream(byte[] bytes) {
+            super(bytes);
+        }
+    }
+}
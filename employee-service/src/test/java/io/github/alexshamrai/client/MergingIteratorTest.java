@@ -0,0 +1,110 @@
+package io.github.alexshamrai.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MergingIteratorTest {
+
+    @Test
+    @DisplayName("Sorted sources are merged into one sorted sequence")
+    public void mergeTest() {
+        Random random = new Random(3);
+        List<List<Integer>> sources = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int source = 0; source < 5; source++) {
+            List<Integer> values = new ArrayList<>();
+            int value = 0;
+            int count = random.nextInt(50);
+            for (int i = 0; i < count; i++) {
+                value += random.nextInt(10);
+                values.add(value);
+            }
+            sources.add(values);
+            expected.addAll(values);
+        }
+        sources.add(List.of());
+        expected.sort(Comparator.naturalOrder());
+
+        List<Integer> merged = new ArrayList<>();
+        new MergingIterator<>(sources.stream().map(List::iterator).toList(), Comparator.<Integer>naturalOrder())
+            .forEachRemaining(merged::add);
+
+        assertEquals(expected, merged);
+    }
+
+    @Test
+    @DisplayName("Equal elements are taken from the earlier source first")
+    public void tieTest() {
+        List<Iterator<String>> sources = List.of(
+            List.of("1a", "2a").iterator(),
+            List.of("1b", "2b").iterator(),
+            List.of("1c").iterator());
+
+        List<String> merged = new ArrayList<>();
+        new MergingIterator<>(sources, Comparator.comparing((String value) -> value.charAt(0)))
+            .forEachRemaining(merged::add);
+
+        assertEquals(List.of("1a", "1b", "1c", "2a", "2b"), merged);
+    }
+
+    @Test
+    @DisplayName("A source is only advanced when its head is taken")
+    public void lazyTest() {
+        CountingIterator first = new CountingIterator(List.of(1, 4, 5));
+        CountingIterator second = new CountingIterator(List.of(2, 3, 6));
+        Iterator<Integer> merged = new MergingIterator<>(List.of(first, second), Comparator.naturalOrder());
+        assertEquals(1, first.taken);
+        assertEquals(1, second.taken);
+
+        assertEquals(1, merged.next());
+        assertEquals(2, first.taken);
+        assertEquals(1, second.taken);
+
+        assertEquals(2, merged.next());
+        assertEquals(3, merged.next());
+        assertEquals(2, first.taken);
+        assertEquals(3, second.taken);
+    }
+
+    @Test
+    @DisplayName("An exhausted merge reports no more elements")
+    public void exhaustedTest() {
+        Iterator<Integer> merged = new MergingIterator<>(List.of(List.<Integer>of().iterator()),
+            Comparator.naturalOrder());
+
+        assertFalse(merged.hasNext());
+        assertThrows(NoSuchElementException.class, merged::next);
+    }
+
+    private static final class CountingIterator implements Iterator<Integer> {
+
+        private final Iterator<Integer> values;
+        private int taken;
+
+        private CountingIterator(List<Integer> values) {
+            this.values = values.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return values.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            taken++;
+            return values.next();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.alexshamrai.client;
+
+import com.google.protobuf.Empty;
+import com.google.protobuf.FieldMask;
+import io.github.alexshamrai.grpc.Department;
+import io.github.alexshamrai.grpc.Employee;
+import io.github.alexshamrai.grpc.EmployeeFilterRequest;
+import io.github.alexshamrai.grpc.EmployeeListResponse;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetDepartmentsResponse;
+import io.github.alexshamrai.grpc.GetEmployeeRequest;
+import io.github.alexshamrai.grpc.GetEmployeeResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedEmployeeClientTest {
+
+    private static final int SHARDS = 3;
+    private static final int EMPLOYEES = 60;
+
+    private final List<FakeShard> shards = new ArrayList<>();
+    private final List<Server> servers = new ArrayList<>();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private ShardedEmployeeClient client;
+
+    @BeforeEach
+    public void startShards() throws IOException {
+        String prefix = "shard-" + UUID.randomUUID() + "-";
+        for (int shard = 0; shard < SHARDS; shard++) {
+            FakeShard service = new FakeShard();
+            shards.add(service);
+            servers.add(InProcessServerBuilder.forName(prefix + shard)
+                .directExecutor()
+                .addService(service)
+                .build()
+                .start());
+            channels.add(InProcessChannelBuilder.forName(prefix + shard)
+                .directExecutor()
+                .build());
+        }
+        client = new ShardedEmployeeClient(channels);
+
+        // Storage order follows neither IDs nor shards, as with block-allocated IDs and updated employees.
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(7));
+        for (int id : ids) {
+            shards.get(client.shardOf(id)).store(id, "Dept " + (id % 3));
+        }
+    }
+
+    @AfterEach
+    public void stopShards() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        servers.forEach(Server::shutdownNow);
+    }
+
+    @Test
+    @DisplayName("Calls about one employee go to the shard owning its ID")
+    public void routeByIdTest() {
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            GetEmployeeResponse response = client.getEmployee(GetEmployeeRequest.newBuilder()
+                .setEmployeeId(id)
+                .build());
+            assertEquals(id, response.getEmployee().getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Filter returns every match once, keeping each shard's storage order")
+    public void scatterFilterTest() {
+        List<Employee> found = new ArrayList<>();
+        client.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setDepartment("Dept 1")
+            .setPageSize(3)
+            .build()).forEachRemaining(found::add);
+
+        List<Integer> expectedIds = new ArrayList<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            List<Integer> stored = shards.get(shard).matching("Dept 1").stream().map(Employee::getId).toList();
+            int owner = shard;
+            assertEquals(stored, found.stream().map(Employee::getId).filter(id -> client.shardOf(id) == owner).toList());
+            assertTrue(shards.get(shard).filterRequests.size() > 1);
+            expectedIds.addAll(stored);
+        }
+        assertEquals(expectedIds.stream().sorted().toList(), found.stream().map(Employee::getId).sorted().toList());
+        assertEquals(found.stream().sorted(Comparator.comparingLong(Employee::getVersion)).toList(), found);
+    }
+
+    @Test
+    @DisplayName("Filter fetches the version for the merge but returns only the masked fields")
+    public void scatterFilterReadMaskTest() {
+        List<Employee> found = new ArrayList<>();
+        client.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setReadMask(FieldMask.newBuilder().addPaths("id").addPaths("name"))
+            .build()).forEachRemaining(found::add);
+
+        assertEquals(EMPLOYEES, found.size());
+        for (Employee employee : found) {
+            assertEquals(0, employee.getVersion());
+            assertEquals("Employee " + employee.getId(), employee.getName());
+        }
+        for (FakeShard shard : shards) {
+            assertEquals(List.of("id", "name", "version"), shard.filterRequests.get(0).getReadMask().getPathsList());
+        }
+    }
+
+    @Test
+    @DisplayName("Filter rejects page tokens and surfaces a failing shard")
+    public void scatterFilterFailureTest() {
+        assertThrows(IllegalArgumentException.class, () -> client.filterEmployees(EmployeeFilterRequest.newBuilder()
+            .setPageToken("4")
+            .build()));
+
+        shards.get(1).failure = Status.UNAVAILABLE;
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+            () -> client.filterEmployees(EmployeeFilterRequest.getDefaultInstance()));
+        assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("Departments of every shard are listed once")
+    public void gatherDepartmentsTest() {
+        List<String> departments = client.getDepartments().getDepartmentsList().stream()
+            .map(Department::getDepartmentName)
+            .toList();
+
+        assertEquals(List.of("Dept 0", "Dept 1", "Dept 2"), departments.stream().sorted().toList());
+    }
+
+    /**
+     * A shard serving the employees it was given, in the order given, with versions in that order like a real
+     * shard's storage order. Filters only honour the department, and pages resume at the offset in the token.
+     */
+    private static final class FakeShard extends EmployeeServiceGrpc.EmployeeServiceImplBase {
+
+        private final List<Employee> employees = new ArrayList<>();
+        private final List<EmployeeFilterRequest> filterRequests = new CopyOnWriteArrayList<>();
+        private volatile Status failure;
+
+        private void store(int id, String department) {
+            employees.add(Employee.newBuilder()
+                .setId(id)
+                .setName("Employee " + id)
+                .setAge(30)
+                .setDepartment(department)
+                .setPosition("Engineer")
+                .setHiringYear(2024)
+                .setSalary(1000.0)
+                .setVersion(employees.size() + 1)
+                .build());
+        }
+
+        private List<Employee> matching(String department) {
+            return employees.stream()
+                .filter(employee -> department.isEmpty() || employee.getDepartment().equals(department))
+                .toList();
+        }
+
+        @Override
+        public void getEmployee(GetEmployeeRequest request, StreamObserver<GetEmployeeResponse> responseObserver) {
+            for (Employee employee : employees) {
+                if (employee.getId() == request.getEmployeeId()) {
+                    responseObserver.onNext(GetEmployeeResponse.newBuilder().setEmployee(employee).build());
+                    responseObserver.onCompleted();
+                    return;
+                }
+            }
+            responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+        }
+
+        @Override
+        public void filterEmployees(EmployeeFilterRequest request,
+                                    StreamObserver<EmployeeListResponse> responseObserver) {
+            filterRequests.add(request);
+            if (failure != null) {
+                responseObserver.onError(failure.asRuntimeException());
+                return;
+            }
+
+            List<Employee> matching = matching(request.getDepartment());
+            int from = request.getPageToken().isEmpty() ? 0 : Integer.parseInt(request.getPageToken());
+            int to = Math.min(matching.size(), from + request.getPageSize());
+            responseObserver.onNext(EmployeeListResponse.newBuilder()
+                .addAllEmployees(matching.subList(from, to))
+                .setNextPageToken(to < matching.size() ? String.valueOf(to) : "")
+                .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void getDepartments(Empty request, StreamObserver<GetDepartmentsResponse> responseObserver) {
+            GetDepartmentsResponse.Builder response = GetDepartmentsResponse.newBuilder();
+            employees.stream()
+                .map(Employee::getDepartment)
+                .distinct()
+                .forEach(department -> response.addDepartments(Department.newBuilder().setDepartmentName(department)));
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+    }
+}
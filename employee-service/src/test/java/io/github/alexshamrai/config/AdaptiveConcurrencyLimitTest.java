@@ -0,0 +1,95 @@
+package io.github.alexshamrai.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("Calls over the limit are not admitted until an admitted call completes")
+    public void admissionTest() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        assertEquals(3, limit.getInFlight());
+
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Limit grows while fully used calls stay as fast as the baseline")
+    public void gradientGrowthTest() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 500);
+        for (int round = 0; round < 20; round++) {
+            runAtLimit(limit, FAST);
+        }
+        assertTrue(limit.getLimit() > 40, "limit " + limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Limit does not grow while calls use well under it")
+    public void underusedLimitTest() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 500);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST, false);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Limit backs off when latency rises above the baseline and stays within its bounds")
+    public void gradientBackoffTest() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 500);
+        runAtLimit(limit, FAST);
+        int grown = limit.getLimit();
+
+        for (int round = 0; round < 20; round++) {
+            runAtLimit(limit, SLOW);
+        }
+        assertTrue(limit.getLimit() < grown / 2, grown + " -> " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 10);
+    }
+
+    @Test
+    @DisplayName("Dropped calls cut the limit multiplicatively down to the minimum")
+    public void dropBackoffTest() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 500);
+        assertTrue(limit.tryAcquire());
+        limit.release(FAST, true);
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST, true);
+        }
+        assertEquals(10, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    /**
+     * Admits as many calls as the limit allows and completes them all with the given latency.
+     */
+    private static void runAtLimit(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        int admitted = 0;
+        while (limit.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limit.release(latencyNanos, false);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.alexshamrai.config;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConcurrencyLimitInterceptorTest {
+
+    @SuppressWarnings("unchecked")
+    private static final MethodDescriptor.Marshaller<String> MARSHALLER = mock(MethodDescriptor.Marshaller.class);
+
+    @Test
+    @DisplayName("Unary calls over the limit are shed with RESOURCE_EXHAUSTED until a call completes")
+    public void sheddingTest() {
+        ConcurrencyLimitInterceptor interceptor = interceptor(true);
+        List<ServerCall<String, String>> started = new ArrayList<>();
+        ServerCallHandler<String, String> next = (call, headers) -> {
+            started.add(call);
+            return new ServerCall.Listener<>() {
+            };
+        };
+
+        interceptor.interceptCall(call(MethodDescriptor.MethodType.UNARY), new Metadata(), next);
+        interceptor.interceptCall(call(MethodDescriptor.MethodType.UNARY), new Metadata(), next);
+        ServerCall<String, String> shed = call(MethodDescriptor.MethodType.UNARY);
+        interceptor.interceptCall(shed, new Metadata(), next);
+
+        assertEquals(2, started.size());
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(shed).close(status.capture(), any(Metadata.class));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, status.getValue().getCode());
+
+        started.get(0).close(Status.OK, new Metadata());
+        ServerCall<String, String> admitted = call(MethodDescriptor.MethodType.UNARY);
+        interceptor.interceptCall(admitted, new Metadata(), next);
+        assertEquals(3, started.size());
+        verify(admitted, never()).close(any(Status.class), any(Metadata.class));
+    }
+
+    @Test
+    @DisplayName("Streaming calls and disabled limits are never shed")
+    public void unlimitedCallsTest() {
+        List<ServerCall<String, String>> started = new ArrayList<>();
+        ServerCallHandler<String, String> next = (call, headers) -> {
+            started.add(call);
+            return new ServerCall.Listener<>() {
+            };
+        };
+
+        ConcurrencyLimitInterceptor enabled = interceptor(true);
+        for (int i = 0; i < 10; i++) {
+            enabled.interceptCall(call(MethodDescriptor.MethodType.SERVER_STREAMING), new Metadata(), next);
+        }
+        ConcurrencyLimitInterceptor disabled = interceptor(false);
+        for (int i = 0; i < 10; i++) {
+            disabled.interceptCall(call(MethodDescriptor.MethodType.UNARY), new Metadata(), next);
+        }
+        assertEquals(20, started.size());
+    }
+
+    /**
+     * An interceptor whose limit is fixed at two calls per method.
+     */
+    private static ConcurrencyLimitInterceptor interceptor(boolean enabled) {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "enabled", enabled);
+        ReflectionTestUtils.setField(interceptor, "initialLimit", 2);
+        ReflectionTestUtils.setField(interceptor, "minLimit", 2);
+        ReflectionTestUtils.setField(interceptor, "maxLimit", 2);
+        interceptor.afterPropertiesSet();
+        return interceptor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCall<String, String> call(MethodDescriptor.MethodType type) {
+        ServerCall<String, String> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(MethodDescriptor.<String, String>newBuilder()
+            .setType(type)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName("test.Service", "Call"))
+            .setRequestMarshaller(MARSHALLER)
+            .setResponseMarshaller(MARSHALLER)
+            .build());
+        return call;
+    }
+}
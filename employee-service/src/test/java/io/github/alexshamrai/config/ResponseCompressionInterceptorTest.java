@@ -0,0 +1,140 @@
+package io.github.alexshamrai.config;
+
+import com.google.protobuf.StringValue;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResponseCompressionInterceptorTest {
+
+    private static final Metadata.Key<String> ACCEPT_ENCODING =
+        Metadata.Key.of("grpc-accept-encoding", Metadata.ASCII_STRING_MARSHALLER);
+    @SuppressWarnings("unchecked")
+    private static final MethodDescriptor.Marshaller<StringValue> MARSHALLER = mock(MethodDescriptor.Marshaller.class);
+
+    private final ResponseCompressionInterceptor interceptor = interceptor();
+    private final List<ServerCall<StringValue, StringValue>> started = new ArrayList<>();
+    private final ServerCallHandler<StringValue, StringValue> next = (call, headers) -> {
+        started.add(call);
+        return new ServerCall.Listener<>() {
+        };
+    };
+
+    @Test
+    @DisplayName("Responses use the method's codec if accepted, gzip if only gzip is accepted, and none otherwise")
+    public void negotiationTest() {
+        ServerCall<StringValue, StringValue> lz4 = start("FilterEmployees", "gzip, lz4");
+        verify(lz4).setCompression("lz4");
+
+        ServerCall<StringValue, StringValue> gzipFallback = start("FilterEmployees", "gzip");
+        verify(gzipFallback).setCompression("gzip");
+
+        ServerCall<StringValue, StringValue> gzip = start("GetAllEmployees", "lz4,gzip");
+        verify(gzip).setCompression("gzip");
+
+        ServerCall<StringValue, StringValue> notAccepted = start("FilterEmployees", "deflate");
+        ServerCall<StringValue, StringValue> noHeader = start("FilterEmployees", null);
+        ServerCall<StringValue, StringValue> identity = start("GetEmployee", "gzip, lz4");
+        ServerCall<StringValue, StringValue> unlisted = start("GetDepartments", "gzip, lz4");
+        for (ServerCall<StringValue, StringValue> call : List.of(notAccepted, noHeader, identity, unlisted)) {
+            verify(call, never()).setCompression(anyString());
+        }
+        assertEquals(7, started.size());
+    }
+
+    @Test
+    @DisplayName("Responses below the minimum size are sent uncompressed on a compressed call")
+    public void minMessageSizeTest() {
+        ServerCall<StringValue, StringValue> call = start("GetAllEmployees", "gzip");
+        started.get(0).sendMessage(message(100));
+        verify(call).setMessageCompression(false);
+        started.get(0).sendMessage(message(4096));
+        verify(call).setMessageCompression(true);
+        verify(call, times(2)).sendMessage(any());
+
+        ServerCall<StringValue, StringValue> uncompressed = start("GetDepartments", "gzip");
+        started.get(1).sendMessage(message(4096));
+        verify(uncompressed, never()).setMessageCompression(anyBoolean());
+        verify(uncompressed).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("An oversized response closes the call with RESOURCE_EXHAUSTED instead of being sent")
+    public void oversizedResponseTest() {
+        ServerCall<StringValue, StringValue> call = start("GetAllEmployees", "gzip");
+        started.get(0).sendMessage(message(128 * 1024));
+        started.get(0).sendMessage(message(10));
+        started.get(0).close(Status.OK, new Metadata());
+
+        verify(call, never()).sendMessage(any());
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(call).close(status.capture(), any(Metadata.class));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, status.getValue().getCode());
+    }
+
+    @Test
+    @DisplayName("Unknown codecs are rejected at startup")
+    public void unknownCodecTest() {
+        ResponseCompressionInterceptor interceptor = new ResponseCompressionInterceptor();
+        ReflectionTestUtils.setField(interceptor, "defaultCodec", "gzip");
+        ReflectionTestUtils.setField(interceptor, "methods", List.of("GetAllEmployees=brotli"));
+        assertThrows(IllegalArgumentException.class, interceptor::afterPropertiesSet);
+    }
+
+    /**
+     * Compresses GetAllEmployees with gzip and FilterEmployees with lz4, never GetEmployee, responses from 1 KB and
+     * up to 64 KB.
+     */
+    private static ResponseCompressionInterceptor interceptor() {
+        ResponseCompressionInterceptor interceptor = new ResponseCompressionInterceptor();
+        ReflectionTestUtils.setField(interceptor, "defaultCodec", "gzip");
+        ReflectionTestUtils.setField(interceptor, "methods",
+            List.of("GetAllEmployees", "FilterEmployees=lz4", "GetEmployee=identity"));
+        ReflectionTestUtils.setField(interceptor, "minMessageSize", DataSize.ofKilobytes(1));
+        ReflectionTestUtils.setField(interceptor, "maxOutboundMessageSize", DataSize.ofKilobytes(64));
+        interceptor.afterPropertiesSet();
+        return interceptor;
+    }
+
+    private ServerCall<StringValue, StringValue> start(String method, String acceptEncoding) {
+        @SuppressWarnings("unchecked")
+        ServerCall<StringValue, StringValue> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(MethodDescriptor.<StringValue, StringValue>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName("employee.EmployeeService", method))
+            .setRequestMarshaller(MARSHALLER)
+            .setResponseMarshaller(MARSHALLER)
+            .build());
+        Metadata headers = new Metadata();
+        if (acceptEncoding != null) {
+            headers.put(ACCEPT_ENCODING, acceptEncoding);
+        }
+        interceptor.interceptCall(call, headers, next);
+        return call;
+    }
+
+    private static StringValue message(int bytes) {
+        return StringValue.of("x".repeat(bytes));
+    }
+}
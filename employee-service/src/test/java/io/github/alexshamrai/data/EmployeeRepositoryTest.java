@@ -0,0 +1,621 @@
+package io.github.alexshamrai.data;
+
+import io.github.alexshamrai.data.aggregate.AggregateField;
+import io.github.alexshamrai.data.aggregate.Grouping;
+import io.github.alexshamrai.data.aggregate.HistogramBin;
+import io.github.alexshamrai.data.aggregate.SalaryStats;
+import io.github.alexshamrai.data.id.SequenceIdAllocator;
+import io.github.alexshamrai.data.persistence.FileEmployeeJournal;
+import io.github.alexshamrai.data.store.ColumnarEmployeeStore;
+import io.github.alexshamrai.data.store.EmployeeDataset;
+import io.github.alexshamrai.data.store.HeapEmployeeStore;
+import io.github.alexshamrai.data.store.MappedEmployeeStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmployeeRepositoryTest {
+
+    private static final int SEED_EMPLOYEES = 4;
+
+    @Test
+    @DisplayName("Concurrent saves do not lose writes")
+    public void concurrentSavesTest() throws Exception {
+        EmployeeRepository repository = new EmployeeRepository();
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Employee>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    List<Employee> saved = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        saved.add(repository.save(newEmployee("Employee " + thread + "-" + i, "Dept " + (i % 10))));
+                        repository.findById(ThreadLocalRandom.current().nextInt(1, SEED_EMPLOYEES + 1)).orElseThrow();
+                    }
+                    return saved;
+                }));
+            }
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<Employee>> future : futures) {
+                for (Employee employee : future.get()) {
+                    assertTrue(ids.add(employee.getId()), "Duplicate ID " + employee.getId());
+                    assertTrue(employee.getId() > 0);
+                    assertSame(employee, repository.findById(employee.getId()).orElseThrow());
+                }
+            }
+
+            assertEquals(threads * perThread, ids.size());
+            assertEquals(SEED_EMPLOYEES + threads * perThread, repository.getAllEmployees().size());
+            assertEquals(SEED_EMPLOYEES + 10, repository.getDepartments().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshots are not affected by later saves")
+    public void snapshotIsStableTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        List<Employee> snapshot = repository.getAllEmployees();
+        List<String> departments = repository.getDepartments();
+
+        for (int i = 0; i < 5_000; i++) {
+            repository.save(newEmployee("Employee " + i, "Dept " + i));
+        }
+
+        assertEquals(SEED_EMPLOYEES, snapshot.size());
+        assertEquals(SEED_EMPLOYEES, departments.size());
+        assertEquals(SEED_EMPLOYEES + 5_000, repository.getAllEmployees().size());
+    }
+
+    @Test
+    @DisplayName("Saved departments and positions share dictionary strings")
+    public void dictionaryInterningTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        List<String> departments = repository.getDepartments();
+
+        Employee first = repository.save(newEmployee("Employee 1", new String("IT")));
+        assertSame(departments, repository.getDepartments());
+
+        Employee second = repository.save(newEmployee("Employee 2", new String("Legal")));
+        Employee third = repository.save(newEmployee("Employee 3", new String("Legal")));
+        assertEquals(SEED_EMPLOYEES + 1, repository.getDepartments().size());
+        Employee stored = repository.findById(first.getId()).orElseThrow();
+        assertSame(repository.findById(1).orElseThrow().getDepartment(), stored.getDepartment());
+        assertSame(second.getDepartment(), third.getDepartment());
+        assertSame(second.getPosition(), third.getPosition());
+        assertEquals(List.of(second, third), repository.filter(EmployeeFilter.builder().department("Legal").build()));
+    }
+
+    @Test
+    @DisplayName("Indexed filter returns the same rows as a full scan")
+    public void indexedFilterMatchesScanTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            repository.save(Employee.builder()
+                .name("Employee " + i)
+                .age(18 + random.nextInt(43))
+                .department("Dept " + random.nextInt(20))
+                .position("Position " + random.nextInt(8))
+                .hiringYear(2000 + random.nextInt(25))
+                .salary(1000.0 + random.nextInt(100) * 1000)
+                .build());
+        }
+
+        List<EmployeeFilter> filters = List.of(
+            EmployeeFilter.builder().build(),
+            EmployeeFilter.builder().department("Dept 3").build(),
+            EmployeeFilter.builder().department("Missing").build(),
+            EmployeeFilter.builder().position("Position 1").hiringYear(2010).build(),
+            EmployeeFilter.builder().minAge(30).maxAge(35).build(),
+            EmployeeFilter.builder().minAge(40).maxAge(30).build(),
+            EmployeeFilter.builder().minSalary(50000.0).department("Dept 7").build(),
+            EmployeeFilter.builder().maxSalary(5000.0).minAge(50).position("Position 2").build());
+
+        for (EmployeeFilter filter : filters) {
+            List<Employee> expected = repository.getAllEmployees().stream()
+                .filter(filter::matches)
+                .toList();
+            assertEquals(expected, repository.filter(filter), filter.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Columnar store returns the same rows as the heap store")
+    public void columnarStoreMatchesHeapStoreTest() {
+        EmployeeRepository heap = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore());
+        EmployeeRepository columnar = new EmployeeRepository(new SequenceIdAllocator(), new ColumnarEmployeeStore());
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            Employee employee = Employee.builder()
+                .name("Employee \u00e9 " + i)
+                .age(18 + random.nextInt(43))
+                .department("Dept " + random.nextInt(20))
+                .position("Position " + random.nextInt(8))
+                .hiringYear(2000 + random.nextInt(25))
+                .salary(1000.0 + random.nextInt(100) * 1000)
+                .build();
+            heap.save(employee);
+            columnar.save(employee.toBuilder().build());
+        }
+
+        List<EmployeeFilter> filters = List.of(
+            EmployeeFilter.builder().build(),
+            EmployeeFilter.builder().department("Dept 3").build(),
+            EmployeeFilter.builder().department("Missing").build(),
+            EmployeeFilter.builder().maxAge(40).build(),
+            EmployeeFilter.builder().minSalary(50000.0).hiringYear(2010).build(),
+            EmployeeFilter.builder().maxSalary(5000.0).minAge(50).position("Position 2").build());
+
+        for (EmployeeFilter filter : filters) {
+            assertEquals(heap.filter(filter), columnar.filter(filter), filter.toString());
+        }
+        assertEquals(heap.getAllEmployees(), columnar.getAllEmployees());
+        assertEquals(heap.findById(1_000), columnar.findById(1_000));
+    }
+
+    @Test
+    @DisplayName("Paging through a filter returns every match exactly once")
+    public void findPageTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+        }
+
+        for (EmployeeFilter filter : List.of(EmployeeFilter.builder().build(), EmployeeFilter.builder().department("Dept 1").build())) {
+            List<Employee> paged = new ArrayList<>();
+            Integer nextRow = 0;
+            while (nextRow != null) {
+                EmployeePage page = repository.findPage(filter, nextRow, 37);
+                assertTrue(page.getEmployees().size() <= 37);
+                paged.addAll(page.getEmployees());
+                nextRow = page.getNextRow();
+            }
+            assertEquals(repository.filter(filter), paged);
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelled scans stop with CancellationException")
+    public void cancelledScanTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            batch.add(newEmployee("Employee " + i, "Dept " + (i % 3)));
+        }
+        repository.saveAll(batch);
+        EmployeeFilter all = EmployeeFilter.builder().build();
+        EmployeeFilter department = EmployeeFilter.builder().department("Dept 1").build();
+
+        assertThrows(CancellationException.class, () -> repository.findPage(all, 0, Integer.MAX_VALUE, () -> true));
+        assertThrows(CancellationException.class, () -> repository.findPage(department, 0, 10, () -> true));
+        assertThrows(CancellationException.class, () -> repository.scan(department, () -> true).forEachRemaining(employee -> { }));
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Iterator<Employee> scan = repository.scan(department, cancelled::get);
+        scan.next();
+        cancelled.set(true);
+        assertThrows(CancellationException.class, () -> scan.forEachRemaining(employee -> { }));
+
+        assertEquals(repository.filter(department), repository.findPage(department, 0, Integer.MAX_VALUE, () -> false).getEmployees());
+    }
+
+    @Test
+    @DisplayName("Name search matches a scan of every name")
+    public void searchMatchesScanTest() {
+        String[] firstNames = {"John", "Jane", "Joanna", "Anna", "Hannah", "\u00c9mile", "Jo"};
+        String[] lastNames = {"Doe", "Smith", "Johnson", "Nanna", "Joh"};
+        Random random = new Random(42);
+        EmployeeRepository repository = new EmployeeRepository();
+        for (int i = 0; i < 5_000; i++) {
+            String name = firstNames[random.nextInt(firstNames.length)] + " " + lastNames[random.nextInt(lastNames.length)];
+            repository.save(newEmployee(name + " " + random.nextInt(100), "Dept " + (i % 3)));
+            if (i == 2_500) {
+                // The name index is built by the first search and maintained by saves after it.
+                repository.search("jo", true, EmployeeFilter.builder().build(), 0, 1, () -> false);
+            }
+        }
+
+        for (String query : List.of("", "j", "JO", "joh", "nna", "\u00e9mile", "smith 4", "h 1", "zzz")) {
+            for (boolean prefix : List.of(false, true)) {
+                for (EmployeeFilter filter : List.of(EmployeeFilter.builder().build(), EmployeeFilter.builder().department("Dept 1").build())) {
+                    String normalized = query.toLowerCase(Locale.ROOT);
+                    List<Employee> expected = repository.getAllEmployees().stream()
+                        .filter(filter::matches)
+                        .filter(employee -> {
+                            String name = employee.getName().toLowerCase(Locale.ROOT);
+                            return prefix ? name.startsWith(normalized) : name.contains(normalized);
+                        })
+                        .toList();
+
+                    List<Employee> paged = new ArrayList<>();
+                    Integer nextRow = 0;
+                    while (nextRow != null) {
+                        EmployeePage page = repository.search(query, prefix, filter, nextRow, 37, () -> false);
+                        assertTrue(page.getEmployees().size() <= 37);
+                        paged.addAll(page.getEmployees());
+                        nextRow = page.getNextRow();
+                    }
+                    assertEquals(expected, paged, query + " " + prefix + " " + filter);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A failed name index build is retried by the next search")
+    public void nameIndexRetryTest() {
+        AtomicBoolean failReads = new AtomicBoolean();
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore() {
+            @Override
+            public Employee read(int row) {
+                if (failReads.get() && row == 10) {
+                    throw new IllegalStateException("Store read failed");
+                }
+                return super.read(row);
+            }
+        });
+        for (int i = 0; i < 20; i++) {
+            repository.save(newEmployee("Jo " + i, "Dept 1"));
+        }
+        EmployeeFilter filter = EmployeeFilter.builder().build();
+
+        failReads.set(true);
+        assertThrows(IllegalStateException.class, () -> repository.search("jo", true, filter, 0, 100, () -> false));
+        failReads.set(false);
+        List<Employee> expected = repository.getAllEmployees().stream()
+            .filter(employee -> employee.getName().startsWith("Jo"))
+            .toList();
+        assertEquals(expected, repository.search("jo", true, filter, 0, 100, () -> false).getEmployees());
+    }
+
+    @Test
+    @DisplayName("Journaled employees survive a restart")
+    public void journalRecoveryTest(@TempDir Path directory) {
+        List<Employee> expected;
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+            for (int i = 0; i < 1_000; i++) {
+                repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+                if (i == 500) {
+                    repository.snapshot();
+                }
+            }
+            expected = List.copyOf(repository.getAllEmployees());
+        }
+
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository recovered = new EmployeeRepository(new SequenceIdAllocator(), new ColumnarEmployeeStore(), journal);
+            assertEquals(expected, recovered.getAllEmployees());
+            assertEquals(expected.size() + 1, recovered.save(newEmployee("Employee new", "Dept 0")).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Recovery drops a torn last frame but fails on corruption before the end of the log")
+    public void journalCorruptionTest(@TempDir Path directory) throws Exception {
+        assertThrows(IllegalArgumentException.class,
+            () -> new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.INTERVAL, Duration.ZERO));
+
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+            for (int i = 0; i < 100; i++) {
+                repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+            }
+        }
+        Path log;
+        try (Stream<Path> files = Files.list(directory)) {
+            log = files.filter(file -> file.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository recovered = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+            assertEquals(SEED_EMPLOYEES + 99, recovered.getAllEmployees().size());
+        }
+
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer middle = ByteBuffer.allocate(1);
+            channel.read(middle, channel.size() / 2);
+            middle.put(0, (byte) ~middle.get(0));
+            channel.write(middle.flip(), channel.size() / 2);
+        }
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            assertThrows(IllegalStateException.class,
+                () -> new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal));
+        }
+    }
+
+    @Test
+    @DisplayName("Salary histogram totals match the number of employees the filter matches")
+    public void salaryHistogramTotalsTest() {
+        Random random = new Random(9);
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore());
+        List<Employee> saved = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            saved.add(repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)).toBuilder()
+                .salary(500.0 + random.nextInt(200_000))
+                .build()));
+        }
+        for (int i = 0; i < 200; i++) {
+            repository.delete(saved.get(i).getId(), 0);
+            repository.update(saved.get(i + 200).toBuilder().salary(500.0 + random.nextInt(200_000)).build(), 0);
+        }
+
+        for (EmployeeFilter filter : List.of(EmployeeFilter.builder().build(),
+            EmployeeFilter.builder().department("Dept 1").build(),
+            EmployeeFilter.builder().minSalary(50_000.0).maxSalary(150_000.0).build())) {
+            long matching = repository.getAllEmployees().stream().filter(filter::matches).count();
+            for (double bucketWidth : new double[]{1_000, 25_000}) {
+                List<HistogramBin> bins = repository.histogram(filter, AggregateField.SALARY, bucketWidth);
+                assertEquals(matching, bins.stream().mapToLong(HistogramBin::getCount).sum(), filter + " " + bucketWidth);
+                for (int i = 1; i < bins.size(); i++) {
+                    assertTrue(bins.get(i - 1).getLowerBound() < bins.get(i).getLowerBound());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Updates and deletes are invisible to earlier snapshots")
+    public void updateDeleteSnapshotTest() {
+        EmployeeRepository columnar = new EmployeeRepository(new SequenceIdAllocator(), new ColumnarEmployeeStore());
+        assertThrows(UnsupportedOperationException.class, () -> columnar.delete(1, 0));
+        assertTrue(columnar.findById(1).isPresent());
+
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore());
+        EmployeeFilter engineers = EmployeeFilter.builder().position("Engineer").build();
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+        }
+        List<Employee> before = List.copyOf(repository.getAllEmployees());
+        List<Employee> snapshot = repository.getAllEmployees();
+        Iterator<Employee> scan = repository.scan(engineers);
+
+        Employee current = repository.findById(10).orElseThrow();
+        Employee updated = repository.update(current.toBuilder().name("Renamed").position("Manager").build(),
+            current.getVersion()).orElseThrow();
+        assertTrue(updated.getVersion() > current.getVersion());
+        assertThrows(VersionConflictException.class,
+            () -> repository.update(current.toBuilder().name("Stale").build(), current.getVersion()));
+        assertEquals(updated.getVersion(), repository.delete(10, updated.getVersion()).orElseThrow().getVersion());
+        repository.delete(20, 0).orElseThrow();
+        assertTrue(repository.delete(20, 0).isEmpty());
+
+        assertEquals(before, snapshot);
+        int scanned = 0;
+        while (scan.hasNext()) {
+            scan.next();
+            scanned++;
+        }
+        assertEquals(1_000, scanned);
+
+        assertTrue(repository.findById(10).isEmpty());
+        assertTrue(repository.update(current, 0).isEmpty());
+        assertEquals(SEED_EMPLOYEES + 998, repository.getAllEmployees().size());
+        assertEquals(998, repository.findPage(engineers, 0, Integer.MAX_VALUE).getEmployees().size());
+        assertEquals(SEED_EMPLOYEES + 998, repository.salaryStatistics(EmployeeFilter.builder().build(),
+            Grouping.NONE, new double[0]).get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Reads older than the version retention fail once versions are reclaimed")
+    public void reclaimVersionsTest() {
+        EmployeeRepository repository = new EmployeeRepository();
+        List<Employee> snapshot = repository.getAllEmployees();
+        Employee employee = repository.findById(1).orElseThrow();
+        repository.update(employee.toBuilder().salary(2000.0).build(), 0);
+
+        assertEquals(0, repository.reclaimVersions(Duration.ofHours(1)));
+        assertEquals(employee, snapshot.get(0));
+        assertEquals(1, repository.reclaimVersions(Duration.ZERO));
+        assertThrows(SnapshotTooOldException.class, () -> snapshot.get(0));
+        assertEquals(2000.0, repository.findById(1).orElseThrow().getSalary());
+        assertEquals(SEED_EMPLOYEES, repository.getAllEmployees().size());
+
+        Random random = new Random(5);
+        Map<Integer, Employee> expected = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            Employee saved = repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+            expected.put(saved.getId(), saved);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int id = SEED_EMPLOYEES + 1 + random.nextInt(1_000);
+            if (i % 50 == 0 && expected.containsKey(id)) {
+                repository.delete(id, 0);
+                expected.remove(id);
+            } else if (expected.containsKey(id)) {
+                Employee updated = repository.update(expected.get(id).toBuilder()
+                    .name("Updated " + i)
+                    .department("Dept " + random.nextInt(3))
+                    .build(), 0).orElseThrow();
+                expected.put(id, updated);
+            }
+        }
+        assertTrue(repository.reclaimVersions(Duration.ZERO) > 0);
+
+        EmployeeFilter department = EmployeeFilter.builder().department("Dept 1").build();
+        assertEquals(expected.values().stream().filter(e -> e.getDepartment().equals("Dept 1")).count(),
+            repository.findPage(department, 0, Integer.MAX_VALUE).getEmployees().size());
+        assertEquals(expected.values().stream().filter(e -> e.getName().startsWith("Updated 4")).count(),
+            repository.search("updated 4", true, EmployeeFilter.builder().build(), 0, Integer.MAX_VALUE,
+                () -> false).getEmployees().size());
+
+        List<Employee> all = repository.getAllEmployees();
+        assertEquals(SEED_EMPLOYEES + expected.size(), all.size());
+        assertEquals(expected.values().stream().sorted(Comparator.comparing(Employee::getVersion)).toList(),
+            all.subList(SEED_EMPLOYEES, all.size()).stream().sorted(Comparator.comparing(Employee::getVersion)).toList());
+        List<Employee> iterated = List.copyOf(all);
+        for (int i = 0; i < 100; i++) {
+            int index = random.nextInt(all.size());
+            assertEquals(iterated.get(index), all.get(index));
+        }
+
+        // The highest salary goes, so the statistics rebuild the aggregates.
+        repository.delete(4, 0);
+        assertEquals(60000.0, repository.salaryStatistics(EmployeeFilter.builder().build(), Grouping.NONE,
+            new double[0]).get(0).getMax());
+    }
+
+    @Test
+    @DisplayName("Journaled updates and deletes survive a restart")
+    public void journalUpdateDeleteRecoveryTest(@TempDir Path directory) {
+        List<Employee> expected;
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+            for (int i = 0; i < 100; i++) {
+                repository.save(newEmployee("Employee " + i, "Dept " + (i % 3)));
+            }
+            repository.update(repository.findById(1).orElseThrow().toBuilder().name("Renamed").build(), 0);
+            repository.delete(2, 0);
+            repository.delete(SEED_EMPLOYEES + 100, 0);
+            repository.snapshot();
+            repository.update(repository.findById(50).orElseThrow().toBuilder().age(40).build(), 0);
+            repository.delete(60, 0);
+            expected = List.copyOf(repository.getAllEmployees());
+        }
+
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            EmployeeRepository recovered = new EmployeeRepository(new SequenceIdAllocator(), new HeapEmployeeStore(), journal);
+            assertEquals(Set.copyOf(expected), Set.copyOf(recovered.getAllEmployees()));
+            assertTrue(recovered.findById(2).isEmpty());
+            assertEquals("Renamed", recovered.findById(1).orElseThrow().getName());
+            assertEquals(SEED_EMPLOYEES + 101, recovered.save(newEmployee("Employee new", "Dept 0")).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Mapped dataset serves the same rows as the heap store")
+    public void mappedDatasetTest(@TempDir Path directory) throws Exception {
+        Random random = new Random(11);
+        List<Employee> dataset = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            dataset.add(Employee.builder()
+                .id(100 + i)
+                .name("Employee \u00e9 " + i)
+                .age(18 + random.nextInt(43))
+                .department("Dept " + random.nextInt(20))
+                .position("Position " + random.nextInt(8))
+                .hiringYear(2000 + random.nextInt(25))
+                .salary(1000.0 + random.nextInt(100) * 1000)
+                .build());
+        }
+        Path file = directory.resolve("employees.bin");
+        EmployeeDataset.write(file, dataset);
+
+        EmployeeRepository repository = new EmployeeRepository(new SequenceIdAllocator(), MappedEmployeeStore.open(file));
+        Employee added = repository.save(newEmployee("Employee new", "Dept 3"));
+        List<Employee> expected = new ArrayList<>(dataset);
+        expected.add(added);
+
+        assertEquals(expected, repository.getAllEmployees());
+        assertEquals(dataset.get(1_234), repository.findById(1_334).orElseThrow());
+        assertEquals(10_100, added.getId());
+        assertEquals(20, repository.getDepartments().size());
+        for (EmployeeFilter filter : List.of(
+            EmployeeFilter.builder().department("Dept 3").build(),
+            EmployeeFilter.builder().maxAge(40).minSalary(50000.0).build(),
+            EmployeeFilter.builder().position("Missing").build())) {
+            assertEquals(expected.stream().filter(filter::matches).toList(), repository.filter(filter), filter.toString());
+        }
+
+        for (SalaryStats stats : repository.salaryStatistics(EmployeeFilter.builder().build(), Grouping.HIRING_YEAR, new double[0])) {
+            List<Employee> group = expected.stream()
+                .filter(employee -> String.valueOf(employee.getHiringYear()).equals(stats.getGroup()))
+                .toList();
+            assertEquals(group.size(), stats.getCount());
+            assertEquals(group.stream().mapToDouble(Employee::getSalary).max().orElseThrow(), stats.getMax());
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup p99 stays flat as the store grows")
+    @EnabledIfSystemProperty(named = "stress", matches = "true")
+    public void lookupLatencyScalingTest() {
+        int maxRows = Integer.getInteger("stress.maxRows", 10_000_000);
+        EmployeeRepository repository = new EmployeeRepository();
+        List<Integer> ids = new ArrayList<>(maxRows);
+        long baselineP99 = -1;
+
+        for (int target = 10_000; target <= maxRows; target *= 10) {
+            while (ids.size() < target) {
+                ids.add(repository.save(newEmployee("Employee " + ids.size(), "Dept " + (ids.size() % 50))).getId());
+            }
+
+            long p99 = lookupP99(repository, ids);
+            System.out.printf("rows=%d findById p99=%dns%n", target, p99);
+            if (baselineP99 < 0) {
+                baselineP99 = Math.max(p99, 100);
+            } else {
+                assertTrue(p99 < baselineP99 * 10, "p99 " + p99 + "ns at " + target + " rows, baseline " + baselineP99 + "ns");
+            }
+        }
+    }
+
+    private static long lookupP99(EmployeeRepository repository, List<Integer> ids) {
+        int samples = 200_000;
+        long[] latencies = new long[samples];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int warmup = 0; warmup < samples; warmup++) {
+            repository.findById(ids.get(random.nextInt(ids.size())));
+        }
+        for (int i = 0; i < samples; i++) {
+            int id = ids.get(random.nextInt(ids.size()));
+            long start = System.nanoTime();
+            repository.findById(id);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) (samples * 0.99)];
+    }
+
+    private static Employee newEmployee(String name, String department) {
+        return Employee.builder()
+            .name(name)
+            .age(30)
+            .department(department)
+            .position("Engineer")
+            .hiringYear(2024)
+            .salary(1000.0)
+            .build();
+    }
+}
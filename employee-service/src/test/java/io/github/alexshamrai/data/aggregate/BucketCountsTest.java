@@ -0,0 +1,52 @@
+package io.github.alexshamrai.data.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BucketCountsTest {
+
+    @Test
+    @DisplayName("Adding a key below the range grows it downwards and keeps the existing counts")
+    public void growDownwardsTest() {
+        BucketCounts counts = new BucketCounts();
+        counts.add(10, 3);
+        counts.add(12, 1);
+        counts.add(7, 2);
+        counts.add(-2, 5);
+
+        assertEquals(-2, counts.firstKey());
+        assertEquals(15, counts.keys());
+        assertEquals(5, counts.countAt(0));
+        assertEquals(2, counts.countAt(7 + 2));
+        assertEquals(3, counts.countAt(10 + 2));
+        assertEquals(1, counts.countAt(12 + 2));
+        assertEquals(0, counts.countAt(11 + 2));
+    }
+
+    @Test
+    @DisplayName("Merging adds the counts of another range, growing in both directions")
+    public void mergeTest() {
+        BucketCounts counts = new BucketCounts();
+        counts.add(5, 1);
+        counts.add(6, 1);
+        BucketCounts other = new BucketCounts();
+        other.add(3, 2);
+        other.add(6, 4);
+        other.add(9, 1);
+
+        BucketCounts copy = counts.copy();
+        counts.merge(other);
+
+        assertEquals(3, counts.firstKey());
+        assertEquals(7, counts.keys());
+        assertEquals(2, counts.countAt(0));
+        assertEquals(1, counts.countAt(2));
+        assertEquals(5, counts.countAt(3));
+        assertEquals(1, counts.countAt(6));
+        // The copy taken before is unaffected.
+        assertEquals(5, copy.firstKey());
+        assertEquals(2, copy.keys());
+    }
+}
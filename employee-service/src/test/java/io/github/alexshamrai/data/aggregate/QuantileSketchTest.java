@@ -0,0 +1,63 @@
+package io.github.alexshamrai.data.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    @DisplayName("Quantiles stay within the relative accuracy of the exact values after adds and removes")
+    public void accuracyTest() {
+        Random random = new Random(5);
+        QuantileSketch sketch = new QuantileSketch();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Spans several orders of magnitude, so the values fall into many buckets.
+            double value = Math.exp(5 + random.nextDouble() * 8);
+            sketch.add(value);
+            values.add(value);
+        }
+        assertAccurate(sketch, values);
+
+        Collections.shuffle(values, random);
+        for (double value : new ArrayList<>(values.subList(0, 15_000))) {
+            sketch.remove(value);
+        }
+        values.subList(0, 15_000).clear();
+        assertAccurate(sketch, values);
+    }
+
+    @Test
+    @DisplayName("Non-positive values are estimated as 0 and removed like the others")
+    public void nonPositiveTest() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.add(100);
+
+        assertEquals(0.0, sketch.quantile(0.5, 3));
+        sketch.remove(-5);
+        sketch.remove(0);
+        assertEquals(100.0, sketch.quantile(0, 1), 100 * QuantileSketch.RELATIVE_ACCURACY);
+    }
+
+    private static void assertAccurate(QuantileSketch sketch, List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        for (double quantile : QUANTILES) {
+            double exact = sorted.get((int) (quantile * (sorted.size() - 1)));
+            double estimate = sketch.quantile(quantile, sorted.size());
+            assertTrue(Math.abs(estimate - exact) <= exact * QuantileSketch.RELATIVE_ACCURACY * (1 + 1e-9),
+                quantile + ": estimated " + estimate + " for " + exact);
+        }
+    }
+}
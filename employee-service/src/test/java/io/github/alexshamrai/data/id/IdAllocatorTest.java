@@ -0,0 +1,181 @@
+package io.github.alexshamrai.data.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    @DisplayName("Sequence allocator hands out unique IDs concurrently")
+    public void sequenceAllocatorTest() throws Exception {
+        assertUniqueUnderConcurrency(new SequenceIdAllocator());
+    }
+
+    @Test
+    @DisplayName("Block allocator hands out unique IDs concurrently")
+    public void blockAllocatorTest() throws Exception {
+        assertUniqueUnderConcurrency(new BlockIdAllocator(1024));
+        assertUniqueUnderConcurrency(new BlockIdAllocator(7));
+    }
+
+    @Test
+    @DisplayName("Block allocator keeps IDs dense when every ID comes from a new thread")
+    public void blockAllocatorShortLivedThreadsTest() throws Exception {
+        BlockIdAllocator allocator = new BlockIdAllocator(1024, 4);
+        int threads = 5_000;
+        int[] ids = new int[threads * 2];
+        for (int t = 0; t < threads; t += THREADS) {
+            List<Thread> batch = new ArrayList<>();
+            for (int i = t; i < Math.min(threads, t + THREADS); i++) {
+                int slot = i * 2;
+                Thread thread = new Thread(() -> {
+                    ids[slot] = allocator.nextId();
+                    ids[slot + 1] = allocator.nextId();
+                });
+                thread.start();
+                batch.add(thread);
+            }
+            for (Thread thread : batch) {
+                thread.join();
+            }
+        }
+
+        Set<Integer> unique = new HashSet<>();
+        int max = 0;
+        for (int id : ids) {
+            unique.add(id);
+            max = Math.max(max, id);
+        }
+        assertEquals(ids.length, unique.size());
+        // Each of the 4 stripes leaves at most the rest of one block unused.
+        assertTrue(max <= ids.length + 4 * 1024, "IDs up to " + max);
+    }
+
+    @Test
+    @DisplayName("Snowflake allocator hands out unique IDs concurrently and across nodes")
+    public void snowflakeAllocatorTest() throws Exception {
+        Set<Integer> node1 = assertUniqueUnderConcurrency(new SnowflakeIdAllocator(1, 5));
+        Set<Integer> node2 = assertUniqueUnderConcurrency(new SnowflakeIdAllocator(2, 5));
+
+        node1.retainAll(node2);
+        assertTrue(node1.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Observed IDs are never handed out")
+    public void observedIdsTest() {
+        List<IdAllocator> allocators = List.of(
+            new SequenceIdAllocator(),
+            new BlockIdAllocator(16),
+            new SnowflakeIdAllocator(0, 5));
+
+        for (IdAllocator allocator : allocators) {
+            allocator.observe(1);
+            allocator.observe(100);
+            for (int i = 0; i < 1_000; i++) {
+                int id = allocator.nextId();
+                assertNotEquals(1, id);
+                assertNotEquals(100, id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Snowflake allocator rejects invalid node IDs")
+    public void snowflakeInvalidNodeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(32, 5));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(-1, 5));
+    }
+
+    @Test
+    @DisplayName("Sharded allocators hand out disjoint IDs that the ring assigns to their shard")
+    public void shardedAllocatorTest() throws Exception {
+        ShardRing ring = new ShardRing(3);
+        Set<Integer> all = new HashSet<>();
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            ShardedIdAllocator allocator = new ShardedIdAllocator(new SequenceIdAllocator(), ring, shard);
+            Set<Integer> ids = assertUniqueUnderConcurrency(allocator);
+            for (int id : ids) {
+                assertEquals(shard, ring.shardOf(id));
+            }
+            all.addAll(ids);
+        }
+        assertEquals(ring.shards() * THREADS * IDS_PER_THREAD, all.size());
+        assertThrows(IllegalArgumentException.class, () -> new ShardedIdAllocator(new SequenceIdAllocator(), ring, 3));
+    }
+
+    @Test
+    @DisplayName("Shard ring spreads IDs evenly and moves few of them when a shard is added")
+    public void shardRingTest() {
+        ShardRing four = new ShardRing(4);
+        ShardRing five = new ShardRing(5);
+        int ids = 1_000_000;
+        int[] counts = new int[4];
+        int moved = 0;
+        for (int id = 1; id <= ids; id++) {
+            int shard = four.shardOf(id);
+            counts[shard]++;
+            int newShard = five.shardOf(id);
+            if (newShard != shard) {
+                assertEquals(4, newShard);
+                moved++;
+            }
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - ids / 4) < ids / 4 * 0.15, "Uneven share " + count);
+        }
+        assertTrue(Math.abs(moved - ids / 5) < ids / 5 * 0.15, "Moved " + moved);
+
+        // The first IDs must not line up with the ring points of one shard.
+        Set<Integer> firstOwners = new HashSet<>();
+        for (int id = 1; id <= 32; id++) {
+            firstOwners.add(four.shardOf(id));
+        }
+        assertEquals(4, firstOwners.size());
+    }
+
+    private static Set<Integer> assertUniqueUnderConcurrency(IdAllocator allocator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    int[] ids = new int[IDS_PER_THREAD];
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = allocator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<int[]> future : futures) {
+                for (int id : future.get()) {
+                    assertTrue(id > 0, "Non-positive ID " + id);
+                    assertTrue(ids.add(id), "Duplicate ID " + id);
+                }
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+            return ids;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
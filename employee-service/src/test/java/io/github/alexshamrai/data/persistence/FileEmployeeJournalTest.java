@@ -0,0 +1,203 @@
+package io.github.alexshamrai.data.persistence;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.feed.EmployeeChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FileEmployeeJournalTest {
+
+    @Test
+    @DisplayName("A frame that fails mid-write is truncated, so later frames are recovered")
+    public void tornWriteTest(@TempDir Path directory) {
+        List<FailingChannel> channels = new ArrayList<>();
+        try (FileEmployeeJournal journal = failingJournal(directory, channels)) {
+            journal.recover((type, batch) -> {
+            });
+            journal.append(EmployeeChange.Type.ADDED, List.of(employee(1)));
+            channels.get(0).failWrites = true;
+            assertThrows(UncheckedIOException.class, () -> journal.append(EmployeeChange.Type.ADDED, List.of(employee(2))));
+            channels.get(0).failWrites = false;
+            journal.append(EmployeeChange.Type.ADDED, List.of(employee(3)));
+        }
+
+        assertEquals(List.of(1, 3), recoveredIds(directory));
+    }
+
+    @Test
+    @DisplayName("Appends are rejected once a torn frame cannot be truncated")
+    public void failedTruncateTest(@TempDir Path directory) {
+        List<FailingChannel> channels = new ArrayList<>();
+        try (FileEmployeeJournal journal = failingJournal(directory, channels)) {
+            journal.recover((type, batch) -> {
+            });
+            journal.append(EmployeeChange.Type.ADDED, List.of(employee(1)));
+            channels.get(0).failWrites = true;
+            channels.get(0).failTruncates = true;
+            assertThrows(UncheckedIOException.class, () -> journal.append(EmployeeChange.Type.ADDED, List.of(employee(2))));
+            channels.get(0).failWrites = false;
+            assertThrows(IllegalStateException.class, () -> journal.append(EmployeeChange.Type.ADDED, List.of(employee(3))));
+        }
+
+        // The torn frame is the last one in the log, which recovery drops.
+        assertEquals(List.of(1), recoveredIds(directory));
+    }
+
+    private static FileEmployeeJournal failingJournal(Path directory, List<FailingChannel> channels) {
+        return new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ZERO, path -> {
+            FailingChannel channel = new FailingChannel(
+                FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+            channels.add(channel);
+            return channel;
+        });
+    }
+
+    private static List<Integer> recoveredIds(Path directory) {
+        List<Integer> ids = new ArrayList<>();
+        try (FileEmployeeJournal journal = new FileEmployeeJournal(directory, FileEmployeeJournal.FsyncPolicy.ALWAYS,
+            Duration.ZERO)) {
+            journal.recover((type, batch) -> batch.forEach(employee -> ids.add(employee.getId())));
+        }
+        return ids;
+    }
+
+    private static Employee employee(int id) {
+        return Employee.builder()
+            .id(id)
+            .name("Employee " + id)
+            .age(30)
+            .department("IT")
+            .position("Engineer")
+            .hiringYear(2024)
+            .salary(1000.0)
+            .build();
+    }
+
+    /**
+     * Delegates to a file channel, but can write only part of a buffer and then fail, as on a full disk.
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private volatile boolean failWrites;
+        private volatile boolean failTruncates;
+
+        private FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (failWrites) {
+                ByteBuffer half = source.slice().limit(source.remaining() / 2);
+                int bytes = delegate.write(half);
+                source.position(source.position() + bytes);
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(source);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncates) {
+                throw new IOException("Input/output error");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return delegate.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return delegate.read(destinations, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return delegate.write(sources, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return delegate.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return delegate.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return delegate.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.alexshamrai.data.store;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VectorizedColumnScanTest {
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "HR"};
+    private static final String[] POSITIONS = {"Engineer", "Manager", "Analyst"};
+
+    @Test
+    @DisplayName("Vectorized scans select the same rows as scalar scans for every combination of criteria")
+    @EnabledIfSystemProperty(named = "vectorApi", matches = "true")
+    public void vectorizedMatchesScalarTest() {
+        Random random = new Random(17);
+        int rows = 4099;
+        ColumnarEmployeeStore scalar = new ColumnarEmployeeStore(false);
+        ColumnarEmployeeStore vectorized = new ColumnarEmployeeStore(true);
+        for (int row = 0; row < rows; row++) {
+            Employee employee = Employee.builder()
+                .id(row + 1)
+                .name("Employee " + row)
+                .age(20 + random.nextInt(45))
+                .department(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)])
+                .position(POSITIONS[random.nextInt(POSITIONS.length)])
+                .hiringYear(2015 + random.nextInt(10))
+                .salary(1000.0 + random.nextInt(9000))
+                .build();
+            scalar.write(row, employee);
+            vectorized.write(row, employee);
+        }
+
+        int[] expected = new int[rows];
+        int[] actual = new int[rows];
+        // Each bit of the combination sets one criterion: age, salary, hiring year, department and position.
+        for (int criteria = 0; criteria < 32; criteria++) {
+            for (int trial = 0; trial < 10; trial++) {
+                int minAge = 20 + random.nextInt(45);
+                double minSalary = 1000.0 + random.nextInt(9000);
+                EmployeeFilter filter = EmployeeFilter.builder()
+                    .minAge((criteria & 1) != 0 ? minAge : null)
+                    .maxAge((criteria & 1) != 0 ? minAge + random.nextInt(20) : null)
+                    .minSalary((criteria & 2) != 0 ? minSalary : null)
+                    .maxSalary((criteria & 2) != 0 ? minSalary + random.nextInt(5000) : null)
+                    .hiringYear((criteria & 4) != 0 ? 2015 + random.nextInt(10) : null)
+                    .department((criteria & 8) != 0 ? DEPARTMENTS[random.nextInt(DEPARTMENTS.length)] : null)
+                    .position((criteria & 16) != 0 ? POSITIONS[random.nextInt(POSITIONS.length)] : null)
+                    .build();
+                // Scanning an odd number of rows, never a multiple of the lane count, always ends in the tail loop.
+                int from = 2 * random.nextInt(35);
+
+                int count = scalar.matcher(filter).select(from, rows, expected);
+                assertEquals(count, vectorized.matcher(filter).select(from, rows, actual), filter.toString());
+                assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count), filter.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.alexshamrai.metrics;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GrpcMetricsInterceptorTest {
+
+    @SuppressWarnings("unchecked")
+    private static final MethodDescriptor.Marshaller<String> MARSHALLER = mock(MethodDescriptor.Marshaller.class);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GrpcMetricsInterceptor interceptor = new GrpcMetricsInterceptor(registry);
+    private final List<ServerCall<String, String>> started = new ArrayList<>();
+    private final List<ServerCall.Listener<String>> listeners = new ArrayList<>();
+
+    private final ServerCallHandler<String, String> next = (call, headers) -> {
+        started.add(call);
+        return new ServerCall.Listener<>() {
+        };
+    };
+
+    @Test
+    @DisplayName("Unary calls are timed once per call by status, and active calls are tracked")
+    public void unaryCallTest() {
+        start(MethodDescriptor.MethodType.UNARY, "Get");
+        start(MethodDescriptor.MethodType.UNARY, "Get");
+        assertEquals(2.0, registry.get("grpc.server.calls.active").tag("method", "test.Service/Get").gauge().value());
+
+        started.get(0).sendMessage("response");
+        started.get(0).close(Status.OK, new Metadata());
+        started.get(0).close(Status.OK, new Metadata());
+        listeners.get(1).onCancel();
+
+        assertEquals(1, registry.get("grpc.server.calls").tag("status", "OK").timer().count());
+        assertEquals(1, registry.get("grpc.server.calls").tag("status", "CANCELLED").timer().count());
+        assertEquals(1, registry.get("grpc.server.response.size").summary().count());
+        assertEquals(0.0, registry.get("grpc.server.calls.active").gauge().value());
+        assertNull(registry.find("grpc.server.calls.first.response").timer());
+    }
+
+    @Test
+    @DisplayName("Streaming calls are timed to their first response and until they close")
+    public void streamingCallTest() {
+        start(MethodDescriptor.MethodType.SERVER_STREAMING, "Stream");
+        for (int i = 0; i < 3; i++) {
+            started.get(0).sendMessage("response " + i);
+        }
+        started.get(0).close(Status.OK, new Metadata());
+
+        assertEquals(1, registry.get("grpc.server.calls.first.response").tag("method", "test.Service/Stream").timer().count());
+        assertEquals(1, registry.get("grpc.server.calls").tag("method", "test.Service/Stream").timer().count());
+        assertEquals(3, registry.get("grpc.server.response.size").summary().count());
+    }
+
+    private void start(MethodDescriptor.MethodType type, String method) {
+        @SuppressWarnings("unchecked")
+        ServerCall<String, String> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(MethodDescriptor.<String, String>newBuilder()
+            .setType(type)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName("test.Service", method))
+            .setRequestMarshaller(MARSHALLER)
+            .setResponseMarshaller(MARSHALLER)
+            .build());
+        listeners.add(interceptor.interceptCall(call, new Metadata(), next));
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.alexshamrai.metrics;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeFilter;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MicrometerRepositoryTimingsTest {
+
+    @Test
+    @DisplayName("Repository operations are recorded as employee.repository timers by operation")
+    public void repositoryTimingsTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EmployeeRepository repository = new EmployeeRepository();
+        repository.setTimings(new MicrometerRepositoryTimings(registry));
+
+        Employee saved = repository.save(Employee.builder()
+            .name("Timed")
+            .age(30)
+            .department("Engineering")
+            .position("Engineer")
+            .hiringYear(2024)
+            .salary(1000.0)
+            .build());
+        repository.findById(saved.getId());
+        repository.findById(saved.getId());
+        repository.findPage(EmployeeFilter.builder().department("Engineering").build(), 0, 10);
+
+        assertEquals(1, registry.get("employee.repository").tag("operation", "save").timer().count());
+        assertEquals(2, registry.get("employee.repository").tag("operation", "find_by_id").timer().count());
+        assertEquals(1, registry.get("employee.repository").tag("operation", "filter").timer().count());
+        assertEquals(0, registry.get("employee.repository").tag("operation", "delete").timer().count());
+        assertTrue(registry.get("employee.repository").tag("operation", "save").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+}
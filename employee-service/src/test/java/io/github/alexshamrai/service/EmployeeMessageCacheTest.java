@@ -0,0 +1,119 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.data.Employee;
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.github.alexshamrai.grpc.GetDepartmentsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmployeeMessageCacheTest {
+
+    private final EmployeeRepository repository = new EmployeeRepository();
+
+    @Test
+    @DisplayName("An employee message is reused for the same version and rebuilt after an update")
+    public void versionTest() {
+        EmployeeMessageCache cache = cache(100);
+        Employee saved = repository.save(newEmployee("Cached"));
+
+        io.github.alexshamrai.grpc.Employee first = cache.getEmployee(saved);
+        assertSame(first, cache.getEmployee(repository.findById(saved.getId()).orElseThrow()));
+        assertEquals(1, cache.getHits(EmployeeMessageCache.Cache.EMPLOYEES));
+        assertEquals(1, cache.getMisses(EmployeeMessageCache.Cache.EMPLOYEES));
+
+        Employee updated = repository.update(saved.toBuilder().name("Renamed").build(), 0).orElseThrow();
+        io.github.alexshamrai.grpc.Employee second = cache.getEmployee(updated);
+        assertEquals("Renamed", second.getName());
+        assertEquals(updated.getVersion(), second.getVersion());
+        assertEquals(1, cache.getHits(EmployeeMessageCache.Cache.EMPLOYEES));
+        assertEquals(2, cache.getMisses(EmployeeMessageCache.Cache.EMPLOYEES));
+        assertSame(second, cache.getEmployee(updated));
+    }
+
+    @Test
+    @DisplayName("At max-employees the clock evicts the first employee not hit since the hand last passed it")
+    public void clockEvictionTest() {
+        EmployeeMessageCache cache = cache(3);
+        Employee first = repository.save(newEmployee("First"));
+        Employee second = repository.save(newEmployee("Second"));
+        Employee third = repository.save(newEmployee("Third"));
+        io.github.alexshamrai.grpc.Employee firstMessage = cache.getEmployee(first);
+        io.github.alexshamrai.grpc.Employee secondMessage = cache.getEmployee(second);
+        io.github.alexshamrai.grpc.Employee thirdMessage = cache.getEmployee(third);
+        cache.getEmployee(first);
+
+        // The hand passes the first employee, which was hit, and evicts the second.
+        cache.getEmployee(repository.save(newEmployee("Fourth")));
+        assertEquals(1, cache.getEvictions(EmployeeMessageCache.Cache.EMPLOYEES));
+        assertSame(firstMessage, cache.getEmployee(first));
+        assertSame(thirdMessage, cache.getEmployee(third));
+        assertNotSame(secondMessage, cache.getEmployee(second));
+        assertEquals(2, cache.getEvictions(EmployeeMessageCache.Cache.EMPLOYEES));
+    }
+
+    @Test
+    @DisplayName("Encoded bytes are returned for the current responses only")
+    public void encodedResponseTest() {
+        EmployeeMessageCache cache = cache(100);
+        GetAllEmployeesResponse employees = cache.getAllEmployees(() -> false);
+        GetDepartmentsResponse departments = cache.getDepartments();
+        assertSame(employees, cache.getAllEmployees(() -> false));
+        assertArrayEquals(employees.toByteArray(), cache.getEncoded(employees));
+        assertArrayEquals(departments.toByteArray(), cache.getEncoded(departments));
+        assertNull(cache.getEncoded(employees.toBuilder().build()));
+
+        repository.save(newEmployee("Added"));
+        GetAllEmployeesResponse rebuilt = cache.getAllEmployees(() -> false);
+        assertEquals(employees.getEmployeesCount() + 1, rebuilt.getEmployeesCount());
+        assertNull(cache.getEncoded(employees));
+        assertArrayEquals(rebuilt.toByteArray(), cache.getEncoded(rebuilt));
+        assertEquals(1, cache.getHits(EmployeeMessageCache.Cache.RESPONSES));
+        assertEquals(3, cache.getMisses(EmployeeMessageCache.Cache.RESPONSES));
+        assertEquals(1, cache.getEvictions(EmployeeMessageCache.Cache.RESPONSES));
+        // Whole responses neither fill nor count against the per-employee cache.
+        assertEquals(0, cache.getMisses(EmployeeMessageCache.Cache.EMPLOYEES));
+    }
+
+    @Test
+    @DisplayName("A cancelled rebuild of the whole response caches nothing")
+    public void cancelledRebuildTest() {
+        EmployeeMessageCache cache = cache(100);
+        GetAllEmployeesResponse employees = cache.getAllEmployees(() -> false);
+        repository.save(newEmployee("Added"));
+
+        assertThrows(CancellationException.class, () -> cache.getAllEmployees(() -> true));
+        assertArrayEquals(employees.toByteArray(), cache.getEncoded(employees));
+        GetAllEmployeesResponse rebuilt = cache.getAllEmployees(() -> false);
+        assertEquals(employees.getEmployeesCount() + 1, rebuilt.getEmployeesCount());
+        assertSame(rebuilt, cache.getAllEmployees(() -> false));
+    }
+
+    private EmployeeMessageCache cache(int maxEmployees) {
+        EmployeeMessageCache cache = new EmployeeMessageCache();
+        ReflectionTestUtils.setField(cache, "employeeRepository", repository);
+        ReflectionTestUtils.setField(cache, "maxEmployees", maxEmployees);
+        return cache;
+    }
+
+    private static Employee newEmployee(String name) {
+        return Employee.builder()
+            .name(name)
+            .age(30)
+            .department("Engineering")
+            .position("Engineer")
+            .hiringYear(2024)
+            .salary(1000.0)
+            .build();
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.data.EmployeeFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PageTokensTest {
+
+    @Test
+    @DisplayName("A token resumes at its row for the request that issued it")
+    public void roundTripTest() {
+        long requestHash = PageTokens.requestHash("FilterEmployees", EmployeeFilter.builder().department("IT").build());
+
+        assertEquals("", PageTokens.encode(null, requestHash));
+        assertEquals(0, PageTokens.decode("", requestHash));
+        assertEquals(12345, PageTokens.decode(PageTokens.encode(12345, requestHash), requestHash));
+    }
+
+    @Test
+    @DisplayName("A token is rejected by another method or with other criteria")
+    public void otherRequestTest() {
+        long itHash = PageTokens.requestHash("FilterEmployees", EmployeeFilter.builder().department("IT").build());
+        long hrHash = PageTokens.requestHash("FilterEmployees", EmployeeFilter.builder().department("HR").build());
+        long listHash = PageTokens.requestHash("ListEmployees");
+        assertNotEquals(itHash, hrHash);
+        assertNotEquals(PageTokens.requestHash("SearchEmployees", "ab", "c"),
+            PageTokens.requestHash("SearchEmployees", "a", "bc"));
+
+        String token = PageTokens.encode(10, itHash);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> PageTokens.decode(token, hrHash));
+        assertEquals("Page token was issued for a different request", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> PageTokens.decode(token, listHash));
+    }
+
+    @Test
+    @DisplayName("Malformed tokens are rejected")
+    public void malformedTest() {
+        long requestHash = PageTokens.requestHash("ListEmployees");
+
+        for (String token : new String[]{"not-a-token", "***", "AQAAAAo"}) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PageTokens.decode(token, requestHash));
+            assertEquals("Invalid page token", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.alexshamrai.service;
+
+import io.github.alexshamrai.data.EmployeeRepository;
+import io.github.alexshamrai.grpc.EmployeeServiceGrpc;
+import io.github.alexshamrai.grpc.GetAllEmployeesResponse;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PreEncodedMarshallerTest {
+
+    @Test
+    @DisplayName("Cached responses are written from their encoded bytes, other messages by the protobuf marshaller")
+    public void marshallerTest() throws IOException {
+        EmployeeMessageCache cache = new EmployeeMessageCache();
+        ReflectionTestUtils.setField(cache, "employeeRepository", new EmployeeRepository());
+        ReflectionTestUtils.setField(cache, "maxEmployees", 100);
+        ServerServiceDefinition definition = PreEncodedMarshaller.bind(
+            new EmployeeServiceGrpc.EmployeeServiceImplBase() {
+            }.bindService(), cache);
+        MethodDescriptor.Marshaller<GetAllEmployeesResponse> marshaller = responseMarshaller(definition);
+
+        GetAllEmployeesResponse cached = cache.getAllEmployees(() -> false);
+        try (InputStream stream = marshaller.stream(cached)) {
+            assertTrue(stream instanceof KnownLength);
+            assertEquals(cached.getSerializedSize(), stream.available());
+            assertArrayEquals(cache.getEncoded(cached), stream.readAllBytes());
+        }
+
+        // An uncached message has no encoded bytes, so it goes through the protobuf marshaller.
+        GetAllEmployeesResponse other = cached.toBuilder().setNextPageToken("next").build();
+        try (InputStream stream = marshaller.stream(other)) {
+            assertEquals(other, marshaller.parse(stream));
+        }
+        assertEquals(cached, marshaller.parse(marshaller.stream(cached)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MethodDescriptor.Marshaller<GetAllEmployeesResponse> responseMarshaller(
+        ServerServiceDefinition definition) {
+        var method = definition.getMethod(EmployeeServiceGrpc.getGetAllEmployeesMethod().getFullMethodName());
+        assertNotNull(method);
+        return (MethodDescriptor.Marshaller<GetAllEmployeesResponse>) method.getMethodDescriptor()
+            .getResponseMarshaller();
+    }
+}
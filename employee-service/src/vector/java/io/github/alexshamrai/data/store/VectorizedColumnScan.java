@@ -0,0 +1,101 @@
+package io.github.alexshamrai.data.store;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Column scan of {@link ColumnarEmployeeStore} on the JDK Vector API. Each step compares as many rows as a
+ * preferred-width double vector holds; the int columns use a species with the same lane count so the masks of
+ * all criteria can be combined directly.
+ * <p>
+ * Only built with {@code -PvectorApi}, and only loaded when the store is created with vectorization enabled, which
+ * requires the {@code jdk.incubator.vector} module at runtime.
+ */
+final class VectorizedColumnScan implements ColumnScan {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.length() * Integer.SIZE));
+
+    private final int minAge;
+    private final int maxAge;
+    private final double minSalary;
+    private final double maxSalary;
+    private final boolean anyHiringYear;
+    private final int hiringYear;
+    private final boolean anyDepartment;
+    private final int department;
+    private final boolean anyPosition;
+    private final int position;
+
+    VectorizedColumnScan(int minAge, int maxAge, double minSalary, double maxSalary, boolean anyHiringYear,
+                         int hiringYear, boolean anyDepartment, int department, boolean anyPosition, int position) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.anyHiringYear = anyHiringYear;
+        this.hiringYear = hiringYear;
+        this.anyDepartment = anyDepartment;
+        this.department = department;
+        this.anyPosition = anyPosition;
+        this.position = position;
+    }
+
+    @Override
+    public int select(int[] ages, double[] salaries, int[] hiringYears, int[] departments, int[] positions,
+               int from, int to, int[] selection) {
+        int count = 0;
+        int row = from;
+        int vectorEnd = from + DOUBLES.loopBound(to - from);
+        for (; row < vectorEnd; row += DOUBLES.length()) {
+            IntVector age = IntVector.fromArray(INTS, ages, row);
+            VectorMask<Integer> intMatch = age.compare(VectorOperators.GE, minAge)
+                .and(age.compare(VectorOperators.LE, maxAge));
+            if (!anyHiringYear) {
+                intMatch = intMatch.and(IntVector.fromArray(INTS, hiringYears, row).compare(VectorOperators.EQ, hiringYear));
+            }
+            if (!anyDepartment) {
+                intMatch = intMatch.and(IntVector.fromArray(INTS, departments, row).compare(VectorOperators.EQ, department));
+            }
+            if (!anyPosition) {
+                intMatch = intMatch.and(IntVector.fromArray(INTS, positions, row).compare(VectorOperators.EQ, position));
+            }
+
+            DoubleVector salary = DoubleVector.fromArray(DOUBLES, salaries, row);
+            VectorMask<Double> match = salary.compare(VectorOperators.GE, minSalary)
+                .and(salary.compare(VectorOperators.LE, maxSalary))
+                .and(intMatch.cast(DOUBLES));
+
+            for (long bits = match.toLong(); bits != 0; bits &= bits - 1) {
+                selection[count++] = row + Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        for (; row < to; row++) {
+            boolean match = ages[row] >= minAge & ages[row] <= maxAge
+                & salaries[row] >= minSalary & salaries[row] <= maxSalary
+                & (anyHiringYear | hiringYears[row] == hiringYear)
+                & (anyDepartment | departments[row] == department)
+                & (anyPosition | positions[row] == position);
+            selection[count] = row;
+            count += match ? 1 : 0;
+        }
+        return count;
+    }
+
+    static final class Factory implements ColumnScan.Factory {
+
+        @Override
+        public ColumnScan create(int minAge, int maxAge, double minSalary, double maxSalary, boolean anyHiringYear,
+                                 int hiringYear, boolean anyDepartment, int department, boolean anyPosition,
+                                 int position) {
+            return new VectorizedColumnScan(minAge, maxAge, minSalary, maxSalary, anyHiringYear, hiringYear,
+                anyDepartment, department, anyPosition, position);
+        }
+    }
+}